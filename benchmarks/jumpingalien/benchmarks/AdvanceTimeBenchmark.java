@@ -0,0 +1,130 @@
+package jumpingalien.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jumpingalien.model.game.World;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.facade.IFacadePart3;
+import jumpingalien.part3.internal.LevelLoader;
+import jumpingalien.part3.internal.LevelLoader.ProgramMode;
+
+/**
+ * A benchmark measuring the throughput and allocation rate of World.advanceTime
+ * on the shipped levels, without any GUI.
+ *
+ * Each level is measured for every combination of program mode (native game
+ * objects versus program controlled game objects) and entity count. One
+ * operation is a single call of advanceTime with a fixed time step. Whenever
+ * the game is over, the world is loaded again from the already parsed map.
+ *
+ * Run from the project directory with:
+ * 	java -Djava.awt.headless=true jumpingalien.benchmarks.AdvanceTimeBenchmark
+ * 		[-ticks n] [-dt seconds] [-counts c1,c2,...] [-seed s] [level.tmx ...]
+ *
+ * An entity count of 0 means that all game objects of the level are loaded.
+ *
+ * @author	Jakob Festraets, Vincent Kemps
+ * @version	1.0
+ */
+public class AdvanceTimeBenchmark {
+
+	public static final String[] DEFAULT_LEVELS = {"level0.tmx", "level1.tmx", "level2.tmx"};
+
+	public static final int[] DEFAULT_ENTITY_COUNTS = {10, 0};
+
+	public static void main(String[] args){
+		System.setProperty("java.awt.headless", "true");
+		long ticks = 20000;
+		double dt = 1.0/60;
+		long seed = 123;
+		int[] entityCounts = DEFAULT_ENTITY_COUNTS;
+		List<String> levels = new ArrayList<String>();
+		for (int index = 0; index < args.length; index++){
+			switch (args[index]) {
+			case "-ticks":
+				ticks = Long.parseLong(args[++index]);
+				break;
+			case "-dt":
+				dt = Double.parseDouble(args[++index]);
+				break;
+			case "-seed":
+				seed = Long.parseLong(args[++index]);
+				break;
+			case "-counts":
+				String[] counts = args[++index].split(",");
+				entityCounts = new int[counts.length];
+				for (int count = 0; count < counts.length; count++)
+					entityCounts[count] = Integer.parseInt(counts[count].trim());
+				break;
+			default:
+				levels.add(args[index]);
+			}
+		}
+		if (levels.isEmpty())
+			levels.addAll(Arrays.asList(DEFAULT_LEVELS));
+		System.out.println(Measurement.header() + String.format(" %8s", "reloads"));
+		for (String level: levels){
+			for (ProgramMode mode: new ProgramMode[]{ProgramMode.NATIVE, ProgramMode.PROGRAM}){
+				for (int entityCount: entityCounts){
+					AdvanceTimeBenchmark benchmark =
+							new AdvanceTimeBenchmark(new Facade(), level, mode, entityCount, seed, dt);
+					Measurement measurement = Measurement.measure(benchmark.getName(),
+							ticks/10, ticks, benchmark::tick);
+					System.out.println(measurement + String.format(" %8d", benchmark.getNbReloads()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Initialize this benchmark for the given level, program mode, entity count,
+	 * seed and time step.
+	 */
+	public AdvanceTimeBenchmark(IFacadePart3 facade, String level, ProgramMode mode,
+			int entityCount, long seed, double dt){
+		this.facade = facade;
+		this.loader = new LevelLoader(facade).setProgramMode(mode).setRandomSeed(seed)
+				.setMaxObjects(entityCount > 0 ? entityCount : Integer.MAX_VALUE);
+		this.map = loader.readMap(level);
+		this.name = level + " " + mode.toString().toLowerCase() + " " +
+				(entityCount > 0 ? String.valueOf(entityCount) : "all");
+		this.dt = dt;
+		this.world = loader.load(map);
+	}
+
+	/**
+	 * Advance the time of the world of this benchmark with one time step.
+	 */
+	public void tick(){
+		if (facade.isGameOver(world)){
+			world = loader.load(map);
+			nbReloads++;
+		}
+		facade.advanceTime(world, dt);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getNbReloads() {
+		return nbReloads;
+	}
+
+	private final IFacadePart3 facade;
+
+	private final LevelLoader loader;
+
+	private final Map map;
+
+	private final String name;
+
+	private final double dt;
+
+	private World world;
+
+	private int nbReloads = 0;
+}
@@ -0,0 +1,213 @@
+package jumpingalien.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import jumpingalien.model.game.Alien;
+import jumpingalien.model.game.Buzam;
+import jumpingalien.model.game.Mazub;
+import jumpingalien.model.game.Position;
+import jumpingalien.model.game.Shark;
+import jumpingalien.model.game.Terrain;
+import jumpingalien.model.game.World;
+import jumpingalien.model.program.ProgramFactory;
+import jumpingalien.model.program.expressions.Expression;
+import jumpingalien.model.program.programs.Program;
+import jumpingalien.model.program.statements.Statement;
+import jumpingalien.model.program.statements.StatementIterator;
+import jumpingalien.model.program.types.Type;
+import jumpingalien.part3.programs.ProgramParser;
+import jumpingalien.util.Sprite;
+
+/**
+ * A benchmark measuring the throughput of scenes in which the game objects
+ * and programs constantly take the exceptional turns of their control flow.
+ *
+ * The scenes are:
+ * 	duck	Mazub and a number of Buzams duck under a low ceiling. Each of
+ * 			them tries to stand up in every tick and is blocked.
+ * 	fall	Sharks are dropped just above the bottom of a world without
+ * 			ground. They fall out of the world within a few ticks and are
+ * 			replaced by new ones.
+ * 	break	A program whose inner loop ends in a break after a few
+ * 			statements is walked with the iterator of its main statement.
+ * One operation is a single call of advanceTime with a fixed time step for
+ * the first two scenes, and 1000 steps of the program for the last one.
+ *
+ * Run from the project directory with:
+ * 	java -Djava.awt.headless=true jumpingalien.benchmarks.ControlFlowBenchmark
+ * 		[-ops n] [-dt seconds] [-objects n]
+ *
+ * @author	Jakob Festraets, Vincent Kemps
+ * @version	1.0
+ */
+public class ControlFlowBenchmark {
+
+	public static void main(String[] args){
+		System.setProperty("java.awt.headless", "true");
+		long operations = 20000;
+		double dt = 1.0/60;
+		int nbObjects = 16;
+		for (int index = 0; index < args.length; index++){
+			switch (args[index]) {
+			case "-ops":
+				operations = Long.parseLong(args[++index]);
+				break;
+			case "-dt":
+				dt = Double.parseDouble(args[++index]);
+				break;
+			case "-objects":
+				nbObjects = Integer.parseInt(args[++index]);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown argument " + args[index]);
+			}
+		}
+		ControlFlowBenchmark benchmark = new ControlFlowBenchmark(nbObjects, dt);
+		System.out.println(Measurement.header());
+		System.out.println(Measurement.measure("duck " + nbObjects,
+				operations/10, operations, benchmark::tickDuck));
+		System.out.println(Measurement.measure("fall " + nbObjects,
+				operations/10, operations, benchmark::tickFall));
+		System.out.println(Measurement.measure("break",
+				operations/10, operations, benchmark::stepBreak));
+		System.out.println(String.format("%d sharks fell out of the world", benchmark.getNbFallenSharks()));
+	}
+
+	/**
+	 * Initialize this benchmark with the given number of game objects per
+	 * scene and the given time step.
+	 */
+	public ControlFlowBenchmark(int nbObjects, double dt){
+		this.nbObjects = nbObjects;
+		this.dt = dt;
+		this.duckWorld = createDuckWorld();
+		this.fallWorld = new World(TILE_SIZE, 2*nbObjects, 4, 500, 200, 2*nbObjects-1, 3);
+		this.breakIterator = createBreakProgram().getMainStatement().iterator();
+	}
+
+	/**
+	 * Advance the time of the world with ducking aliens with one time step.
+	 */
+	public void tickDuck(){
+		duckWorld.advanceTime(dt);
+	}
+
+	/**
+	 * Drop new sharks for the ones that fell out of the world, and advance
+	 * the time of their world with one time step.
+	 */
+	public void tickFall(){
+		int nbSharks = fallWorld.getAllSharks().size();
+		for (int index = nbSharks; index < nbObjects; index++){
+			fallWorld.addAsGameObject(new Shark(
+					new Position(2*index*TILE_SIZE, 1), sharkSprites));
+			nbFallenSharks++;
+		}
+		fallWorld.advanceTime(dt);
+	}
+
+	/**
+	 * Take 1000 steps of the program with a breaking inner loop.
+	 */
+	public void stepBreak(){
+		for (int step = 0; step < 1000; step++){
+			if (!breakIterator.hasNext())
+				breakIterator.restart();
+			breakIterator.next();
+		}
+	}
+
+	/**
+	 * Return the number of sharks dropped into the world of the falling scene
+	 * to replace the ones that fell out of it.
+	 */
+	public long getNbFallenSharks() {
+		return Math.max(0, nbFallenSharks - nbObjects);
+	}
+
+	/**
+	 * Create a world with a corridor of a single tile high, in which Mazub
+	 * and the Buzams are ducking.
+	 */
+	private World createDuckWorld(){
+		int nbTilesX = 2*nbObjects+2;
+		World world = new World(TILE_SIZE, nbTilesX, 4, 500, 200, nbTilesX-1, 3);
+		for (int col = 0; col < nbTilesX; col++){
+			world.getTileAtTilePos(col, 0).setGeoFeature(Terrain.GROUND);
+			world.getTileAtTilePos(col, 2).setGeoFeature(Terrain.GROUND);
+		}
+		List<Alien> aliens = new ArrayList<Alien>();
+		Mazub mazub = new Mazub(new Position(TILE_SIZE, TILE_SIZE-1), alienSprites);
+		world.setMazub(mazub);
+		aliens.add(mazub);
+		for (int index = 1; index < nbObjects; index++){
+			Buzam buzam = new Buzam(new Position((2*index+1)*TILE_SIZE, TILE_SIZE-1), alienSprites);
+			world.addAsGameObject(buzam);
+			aliens.add(buzam);
+		}
+		for (Alien alien: aliens){
+			alien.startDuck();
+			alien.endDuck();
+		}
+		return world;
+	}
+
+	/**
+	 * Create a program with an inner loop that ends in a break, attached to
+	 * a shark in a world of its own.
+	 */
+	private Program createBreakProgram(){
+		ProgramParser<Expression, Statement, Type, Program> parser =
+				new ProgramParser<>(new ProgramFactory());
+		Optional<Program> program = parser.parseString(
+				"double x; double y; "
+				+"while true do "
+				+	"while true do "
+				+		"x := x + 1; "
+				+		"if (x > 3) then x := 0; break; fi "
+				+	"done "
+				+	"y := y + 1; "
+				+"done");
+		World world = new World(TILE_SIZE, 4, 4, 200, 200, 3, 3);
+		world.addAsGameObject(new Shark(new Position(TILE_SIZE, TILE_SIZE), sharkSprites, program.get()));
+		return program.get();
+	}
+
+	/**
+	 * Return an array of sprites of the given size.
+	 */
+	private static Sprite[] createSprites(int nbSprites, int width, int height){
+		Sprite[] result = new Sprite[nbSprites];
+		for (int index = 0; index < nbSprites; index++)
+			result[index] = new Sprite(String.format("Sprite %d", index), width, height);
+		return result;
+	}
+
+	private static final int TILE_SIZE = 50;
+
+	/**
+	 * The sprites of the aliens, which are too high to stand in the corridor,
+	 * but which fit in it while ducking.
+	 */
+	private static final Sprite[] alienSprites = createSprites(30, 20, 60);
+	static {
+		for (int index: new int[]{1, 6, 7})
+			alienSprites[index] = new Sprite(String.format("Ducking %d", index), 20, 30);
+	}
+
+	private static final Sprite[] sharkSprites = createSprites(2, 20, 10);
+
+	private final int nbObjects;
+
+	private final double dt;
+
+	private final World duckWorld;
+
+	private final World fallWorld;
+
+	private final StatementIterator<Statement> breakIterator;
+
+	private long nbFallenSharks = 0;
+}
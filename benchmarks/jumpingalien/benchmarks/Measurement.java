@@ -0,0 +1,203 @@
+package jumpingalien.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * A class of measurements of the execution time, the allocation rate and the
+ * garbage collector activity of a repeated operation.
+ * 
+ * The allocated bytes are measured for the current thread only. This requires
+ * a HotSpot based virtual machine; on other virtual machines the allocation
+ * figures are reported as -1.
+ * 
+ * @author	Jakob Festraets, Vincent Kemps
+ * @version	1.0
+ */
+public class Measurement {
+	
+	/**
+	 * Initialize this measurement with the given name and figures.
+	 */
+	private Measurement(String name, long operations, long elapsedNanos, long allocatedBytes,
+			long gcCount, long gcMillis){
+		this.name = name;
+		this.operations = operations;
+		this.elapsedNanos = elapsedNanos;
+		this.allocatedBytes = allocatedBytes;
+		this.gcCount = gcCount;
+		this.gcMillis = gcMillis;
+	}
+	
+	/**
+	 * Measure the given operation.
+	 * 
+	 * @param 	name
+	 * 			The name to report the measurement with.
+	 * @param 	warmupOperations
+	 * 			The number of times the operation is executed before measuring,
+	 * 			so that the measured code has been compiled.
+	 * @param 	operations
+	 * 			The number of measured executions of the operation.
+	 * @param 	operation
+	 * 			The operation to measure.
+	 * @return	A measurement of the given number of executions of the given operation.
+	 */
+	public static Measurement measure(String name, long warmupOperations, long operations,
+			Runnable operation){
+		for (long index = 0; index < warmupOperations; index++)
+			operation.run();
+		long startGcCount = readGcCount();
+		long startGcMillis = readGcMillis();
+		long startBytes = readAllocatedBytes();
+		long startNanos = System.nanoTime();
+		for (long index = 0; index < operations; index++)
+			operation.run();
+		long elapsedNanos = System.nanoTime() - startNanos;
+		long endBytes = readAllocatedBytes();
+		long allocatedBytes = (startBytes < 0 || endBytes < 0) ? -1 : endBytes - startBytes;
+		return new Measurement(name, operations, elapsedNanos, allocatedBytes,
+				readGcCount()-startGcCount, readGcMillis()-startGcMillis);
+	}
+	
+	/**
+	 * Return the name of this measurement.
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	private final String name;
+	
+	/**
+	 * Return the number of measured operations.
+	 */
+	public long getOperations() {
+		return operations;
+	}
+	
+	private final long operations;
+	
+	/**
+	 * Return the total elapsed time of all measured operations in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+	
+	private final long elapsedNanos;
+	
+	/**
+	 * Return the total number of bytes allocated by all measured operations,
+	 * or -1 if this could not be measured.
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+	
+	private final long allocatedBytes;
+	
+	/**
+	 * Return the number of garbage collections during the measurement.
+	 */
+	public long getGcCount() {
+		return gcCount;
+	}
+	
+	private final long gcCount;
+	
+	/**
+	 * Return the time spent in garbage collections during the measurement in milliseconds.
+	 */
+	public long getGcMillis() {
+		return gcMillis;
+	}
+	
+	private final long gcMillis;
+	
+	/**
+	 * Return the average time per operation in nanoseconds.
+	 */
+	public double getNanosPerOperation(){
+		return (double)getElapsedNanos()/getOperations();
+	}
+	
+	/**
+	 * Return the number of operations per second.
+	 */
+	public double getOperationsPerSecond(){
+		return getOperations()/(getElapsedNanos()/1e9);
+	}
+	
+	/**
+	 * Return the average number of allocated bytes per operation,
+	 * or -1 if this could not be measured.
+	 */
+	public double getBytesPerOperation(){
+		if (getAllocatedBytes() < 0)
+			return -1;
+		return (double)getAllocatedBytes()/getOperations();
+	}
+	
+	/**
+	 * Return the allocation rate in megabytes per second,
+	 * or -1 if this could not be measured.
+	 */
+	public double getAllocationRate(){
+		if (getAllocatedBytes() < 0)
+			return -1;
+		return getAllocatedBytes()/(1024.0*1024.0)/(getElapsedNanos()/1e9);
+	}
+	
+	/**
+	 * Return a header line matching the layout of toString().
+	 */
+	public static String header(){
+		return String.format("%-40s %14s %14s %14s %12s %8s %8s", "benchmark", "ops/s", 
+				"ns/op", "B/op", "MB/s", "gc", "gc ms");
+	}
+	
+	/**
+	 * Return a textual representation of this measurement.
+	 */
+	@Override
+	public String toString(){
+		return String.format("%-40s %14.1f %14.1f %14.1f %12.1f %8d %8d", getName(), 
+				getOperationsPerSecond(), getNanosPerOperation(), getBytesPerOperation(), 
+				getAllocationRate(), getGcCount(), getGcMillis());
+	}
+	
+	/**
+	 * Return the number of bytes allocated so far by the current thread,
+	 * or -1 if this is not supported.
+	 */
+	private static long readAllocatedBytes(){
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean){
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean)bean;
+			if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled())
+				return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+	
+	/**
+	 * Return the total number of garbage collections so far.
+	 */
+	private static long readGcCount(){
+		long result = 0;
+		for (GarbageCollectorMXBean bean: ManagementFactory.getGarbageCollectorMXBeans())
+			result += Math.max(bean.getCollectionCount(), 0);
+		return result;
+	}
+	
+	/**
+	 * Return the total time spent in garbage collections so far in milliseconds.
+	 */
+	private static long readGcMillis(){
+		long result = 0;
+		for (GarbageCollectorMXBean bean: ManagementFactory.getGarbageCollectorMXBeans())
+			result += Math.max(bean.getCollectionTime(), 0);
+		return result;
+	}
+}
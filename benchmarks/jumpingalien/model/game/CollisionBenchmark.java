@@ -0,0 +1,160 @@
+package jumpingalien.model.game;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jumpingalien.benchmarks.Measurement;
+import jumpingalien.util.Sprite;
+
+/**
+ * A benchmark comparing the interval based collision checks of game objects
+ * with the former checks that enumerate the perimeter of a game object.
+ * 
+ * The former checks are reproduced here on top of getPerimeter(Direction),
+ * so that both the results and the allocation rates can be compared.
+ * 
+ * Run with: java jumpingalien.model.game.CollisionBenchmark [operations]
+ * 
+ * @author	Jakob Festraets, Vincent Kemps
+ * @version	1.0
+ */
+public class CollisionBenchmark {
+	
+	private static final Direction[] DIRECTIONS = 
+		{Direction.LEFT, Direction.RIGHT, Direction.UP, Direction.DOWN};
+	
+	public static void main(String[] args){
+		long operations = (args.length > 0) ? Long.parseLong(args[0]) : 200000;
+		CollisionBenchmark benchmark = new CollisionBenchmark();
+		benchmark.checkEquivalence();
+		System.out.println(Measurement.header());
+		System.out.println(Measurement.measure("tile collision (perimeter)", operations/10, 
+				operations, () -> benchmark.sink += benchmark.countTileCollisionsByPerimeter()));
+		System.out.println(Measurement.measure("tile collision (intervals)", operations/10, 
+				operations, () -> benchmark.sink += benchmark.countTileCollisions()));
+		System.out.println(Measurement.measure("object collision (perimeter)", operations/10, 
+				operations, () -> benchmark.sink += benchmark.countObjectCollisionsByPerimeter()));
+		System.out.println(Measurement.measure("object collision (intervals)", operations/10, 
+				operations, () -> benchmark.sink += benchmark.countObjectCollisions()));
+		System.out.println("(checksum " + benchmark.sink + ")");
+	}
+	
+	/**
+	 * Initialize this benchmark with a world of 10 by 10 tiles of 10 pixels, 
+	 * a ground floor, a Mazub of 30 by 20 pixels standing on that floor 
+	 * and a row of plants overlapping with that Mazub.
+	 */
+	private CollisionBenchmark(){
+		world = new World(10,10,10,100,100,9,9);
+		for (int col = 0; col < 10; col++)
+			world.getTileAtTilePos(col, 0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(1, 1).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(4, 1).setGeoFeature(Terrain.GROUND);
+		Sprite[] sprites = spriteArrayForSize(30, 20);
+		mazub = new Mazub(new Position(15,9),sprites);
+		world.setMazub(mazub);
+		for (int index = 0; index < 6; index++){
+			Plant plant = new Plant(new Position(5+index*6,5+index*3),spriteArrayForSize(8, 8, 2));
+			world.addAsGameObject(plant);
+			others.add(plant);
+		}
+		tiles.addAll(world.getTilesIn(0, 0, 49, 39));
+	}
+	
+	private final World world;
+	
+	private final Mazub mazub;
+	
+	private final List<GameObject> others = new ArrayList<GameObject>();
+	
+	private final List<Tile> tiles = new ArrayList<Tile>();
+	
+	private long sink = 0;
+	
+	/**
+	 * Check that the interval based checks give the same results as the 
+	 * perimeter based checks for all tiles, game objects and directions.
+	 */
+	private void checkEquivalence(){
+		for (Direction direction: DIRECTIONS){
+			for (Tile tile: tiles){
+				if (mazub.isColliding(direction, tile) != isCollidingByPerimeter(mazub, direction, tile))
+					throw new IllegalStateException("Different result for " + direction + " " + tile);
+			}
+			for (GameObject other: others){
+				if (mazub.isColliding(direction, other) != isCollidingByPerimeter(mazub, direction, other)
+						|| other.isColliding(direction, mazub) != isCollidingByPerimeter(other, direction, mazub))
+					throw new IllegalStateException("Different result for " + direction + " " + other);
+			}
+		}
+	}
+	
+	private int countTileCollisions(){
+		int result = 0;
+		for (Direction direction: DIRECTIONS)
+			for (int index = 0; index < tiles.size(); index++)
+				if (mazub.isColliding(direction, tiles.get(index)))
+					result++;
+		return result;
+	}
+	
+	private int countTileCollisionsByPerimeter(){
+		int result = 0;
+		for (Direction direction: DIRECTIONS)
+			for (int index = 0; index < tiles.size(); index++)
+				if (isCollidingByPerimeter(mazub, direction, tiles.get(index)))
+					result++;
+		return result;
+	}
+	
+	private int countObjectCollisions(){
+		int result = 0;
+		for (Direction direction: DIRECTIONS)
+			for (int index = 0; index < others.size(); index++)
+				if (mazub.isColliding(direction, others.get(index)))
+					result++;
+		return result;
+	}
+	
+	private int countObjectCollisionsByPerimeter(){
+		int result = 0;
+		for (Direction direction: DIRECTIONS)
+			for (int index = 0; index < others.size(); index++)
+				if (isCollidingByPerimeter(mazub, direction, others.get(index)))
+					result++;
+		return result;
+	}
+	
+	/**
+	 * The former tile collision check of game objects.
+	 */
+	private static boolean isCollidingByPerimeter(GameObject object, Direction direction, Tile tile){
+		if (!object.isOverlappingWith(tile))
+			return false;
+		World world = object.getWorld();
+		int[][] positionsToCheck = object.getPerimeter(direction);
+		for(int index=1;index<positionsToCheck.length-1;index++){
+			if((world.getBelongingTileXPosition(positionsToCheck[index][0]) == tile.getTileXPos()) 
+				&& world.getBelongingTileYPosition(positionsToCheck[index][1]) == tile.getTileYPos())
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * The former game object collision check of game objects.
+	 */
+	private static boolean isCollidingByPerimeter(GameObject object, Direction direction, GameObject other){
+		if (!object.isOverlappingWith(other))
+			return false;
+		int[][] positionsToCheck = object.getPerimeter(direction);
+		for(int index=1;index<positionsToCheck.length-1;index++){
+			if(other.occupiesPosition(new Position(positionsToCheck[index][0],
+			   positionsToCheck[index][1])))
+				return true;
+		}
+		return false;
+	}
+}
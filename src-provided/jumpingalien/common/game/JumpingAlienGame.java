@@ -23,7 +23,7 @@ public abstract class JumpingAlienGame extends Game {
 	private int visibleScreenHeight = -1;
 
 	private double elapsedTime = 0;
-	private boolean running;
+	private volatile boolean running;
 
 	private final Object facade;
 
@@ -44,12 +44,13 @@ public abstract class JumpingAlienGame extends Game {
 		return (JumpingAlienGameOptions) super.getOptions();
 	}
 
-	public void restart() {
+	// synchronized with doUpdate: the game may be updated on another thread
+	public synchronized void restart() {
 		start();
 	}
 
 	@Override
-	public void start() {
+	public synchronized void start() {
 		if (visibleScreenWidth < 0 || visibleScreenHeight < 0) {
 			throw new IllegalStateException("Visible screen size not set");
 		}
@@ -78,7 +79,7 @@ public abstract class JumpingAlienGame extends Game {
 	private boolean firstUpdate = true;
 
 	@Override
-	protected void doUpdate(double dt) {
+	protected synchronized void doUpdate(double dt) {
 		if (isRunning()) {
 			if (!firstUpdate) {
 				dt = applyTimescale(dt);
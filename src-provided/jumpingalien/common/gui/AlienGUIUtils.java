@@ -3,11 +3,20 @@ package jumpingalien.common.gui;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.geom.AffineTransform;
+import java.util.Optional;
+
+import jumpingalien.common.sprites.TextureAtlas;
 
 public class AlienGUIUtils {
 
 	public static void drawImageInWorld(Graphics2D g, Image image, int left,
 			int bottom, boolean hFlipped) {
+		Optional<TextureAtlas> atlas = TextureAtlas.getCurrent();
+		if (atlas.isPresent()
+				&& atlas.get().drawImageInWorld(g, image, left, bottom,
+						hFlipped)) {
+			return;
+		}
 		AffineTransform tf = new AffineTransform();
 		if (hFlipped) {
 			left = left + image.getWidth(null);
@@ -0,0 +1,178 @@
+package jumpingalien.common.sprites;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ogp.framework.util.GUIUtils;
+
+/**
+ * Decodes every image file only once, in a format that the screen can blit
+ * without converting it first.
+ *
+ * Images are keyed by the location they are loaded from, so a file that is
+ * named by a relative path in one place and by an absolute path in another
+ * is still decoded once. {@link #preload(Collection)} decodes a batch of
+ * files in parallel, such that the game does not decode them one by one
+ * while it is being painted.
+ */
+public class AssetPreloader {
+
+	private static final ConcurrentMap<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+	private static volatile LoadReport lastReport;
+
+	private AssetPreloader() {
+	}
+
+	/**
+	 * Return the image in the given file, decoding it if that has not been
+	 * done before.
+	 */
+	public static BufferedImage getImage(String filename) {
+		return images.computeIfAbsent(getKey(filename), key -> decode(filename));
+	}
+
+	/**
+	 * Use the given image for the given file from now on, for example an
+	 * image in a texture atlas.
+	 */
+	public static void register(String filename, BufferedImage image) {
+		images.put(getKey(filename), image);
+	}
+
+	/**
+	 * Decode the images in all given files that have not been decoded
+	 * before, in parallel, and return a report of the time it took.
+	 */
+	public static LoadReport preload(Collection<String> filenames) {
+		long start = System.nanoTime();
+		AtomicInteger nbDecoded = new AtomicInteger();
+		AtomicLong decodeNanos = new AtomicLong();
+		filenames.parallelStream().distinct().forEach(filename -> {
+			images.computeIfAbsent(getKey(filename), key -> {
+				long decodeStart = System.nanoTime();
+				BufferedImage image = decode(filename);
+				decodeNanos.addAndGet(System.nanoTime() - decodeStart);
+				nbDecoded.incrementAndGet();
+				return image;
+			});
+		});
+		LoadReport report = new LoadReport(filenames.size(), nbDecoded.get(),
+				System.nanoTime() - start, decodeNanos.get());
+		lastReport = report;
+		return report;
+	}
+
+	/**
+	 * Return the report of the last call of {@link #preload(Collection)}, or
+	 * null if nothing has been preloaded yet.
+	 */
+	public static LoadReport getLastReport() {
+		return lastReport;
+	}
+
+	/**
+	 * Forget all decoded images.
+	 */
+	public static void clear() {
+		images.clear();
+	}
+
+	private static String getKey(String filename) {
+		try {
+			return GUIUtils.toURL(filename).toString();
+		} catch (FileNotFoundException e) {
+			throw new RuntimeException("Could not read file '" + filename
+					+ "'", e);
+		}
+	}
+
+	private static BufferedImage decode(String filename) {
+		return toCompatibleImage(GUIUtils.loadImage(filename));
+	}
+
+	/**
+	 * Return a copy of the given image in the format of the default screen,
+	 * or in the standard format with alpha channel without a screen.
+	 */
+	static BufferedImage toCompatibleImage(BufferedImage image) {
+		BufferedImage result;
+		if (GraphicsEnvironment.isHeadless()) {
+			if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+				return image;
+			}
+			result = new BufferedImage(image.getWidth(), image.getHeight(),
+					BufferedImage.TYPE_INT_ARGB);
+		} else {
+			GraphicsConfiguration gc = GraphicsEnvironment
+					.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+					.getDefaultConfiguration();
+			if (image.getColorModel().equals(gc.getColorModel(image.getTransparency()))) {
+				return image;
+			}
+			result = gc.createCompatibleImage(image.getWidth(),
+					image.getHeight(), image.getTransparency());
+		}
+		Graphics2D g = result.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return result;
+	}
+
+	/**
+	 * The number of files and the time it took to preload them.
+	 */
+	public static final class LoadReport {
+
+		private final int nbFiles;
+		private final int nbDecoded;
+		private final long wallNanos;
+		private final long decodeNanos;
+
+		private LoadReport(int nbFiles, int nbDecoded, long wallNanos,
+				long decodeNanos) {
+			this.nbFiles = nbFiles;
+			this.nbDecoded = nbDecoded;
+			this.wallNanos = wallNanos;
+			this.decodeNanos = decodeNanos;
+		}
+
+		public int getNbFiles() {
+			return nbFiles;
+		}
+
+		/**
+		 * Return the number of files that were not decoded before.
+		 */
+		public int getNbDecoded() {
+			return nbDecoded;
+		}
+
+		public double getWallMillis() {
+			return wallNanos / 1e6;
+		}
+
+		/**
+		 * Return the time spent decoding, summed over all threads.
+		 */
+		public double getDecodeMillis() {
+			return decodeNanos / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"%d images (%d decoded) in %.1f ms, %.1f ms decoding",
+					getNbFiles(), getNbDecoded(), getWallMillis(),
+					getDecodeMillis());
+		}
+	}
+}
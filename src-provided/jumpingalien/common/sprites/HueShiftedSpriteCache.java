@@ -0,0 +1,126 @@
+package jumpingalien.common.sprites;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of hue-shifted copies of sprites.
+ *
+ * Shifting the hue of a sprite copies its image and converts every pixel to
+ * HSB and back, which is far too slow to do for every sprite on every frame.
+ * The cache keeps the shifted copies, keyed by the original sprite and the
+ * amount of the shift, and forgets the least recently used copy once it
+ * holds more than its capacity.
+ */
+public class HueShiftedSpriteCache {
+
+	public HueShiftedSpriteCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		this.capacity = capacity;
+	}
+
+	private final int capacity;
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Return the given sprite with its hue shifted by the given amount,
+	 * shifting it only if no shifted copy is cached yet.
+	 */
+	public synchronized ImageSprite get(ImageSprite sprite, int amount) {
+		Key key = new Key(sprite, amount);
+		ImageSprite result = sprites.get(key);
+		if (result == null) {
+			nbMisses++;
+			result = sprite.shiftHue(amount);
+			sprites.put(key, result);
+		} else {
+			nbHits++;
+		}
+		return result;
+	}
+
+	/**
+	 * Make sure the given sprites are cached with their hue shifted by the
+	 * given amount.
+	 */
+	public void warm(int amount, ImageSprite... sprites) {
+		for (ImageSprite sprite : sprites) {
+			get(sprite, amount);
+		}
+	}
+
+	public synchronized int size() {
+		return sprites.size();
+	}
+
+	public synchronized long getNbHits() {
+		return nbHits;
+	}
+
+	public synchronized long getNbMisses() {
+		return nbMisses;
+	}
+
+	/**
+	 * Forget all cached sprites and reset the hit and miss counts.
+	 */
+	public synchronized void clear() {
+		sprites.clear();
+		nbHits = 0;
+		nbMisses = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d sprites, %d hits, %d misses", size(),
+				getNbHits(), getNbMisses());
+	}
+
+	private long nbHits;
+	private long nbMisses;
+
+	private final Map<Key, ImageSprite> sprites = new LinkedHashMap<Key, ImageSprite>(
+			16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, ImageSprite> eldest) {
+			return size() > capacity;
+		}
+	};
+
+	/**
+	 * Sprites are compared by identity: two sprites with the same name may
+	 * hold different images.
+	 */
+	private static final class Key {
+
+		private final ImageSprite sprite;
+		private final int amount;
+
+		private Key(ImageSprite sprite, int amount) {
+			this.sprite = sprite;
+			this.amount = amount;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return sprite == other.sprite && amount == other.amount;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(sprite) + amount;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package jumpingalien.common.sprites;
 
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 import jumpingalien.util.Sprite;
 import ogp.framework.util.GUIUtils;
@@ -8,12 +9,12 @@ import ogp.framework.util.GUIUtils;
 public class ImageSprite extends Sprite {
 
 	public static ImageSprite createSprite(String fileName) {
-		return new ImageSprite(fileName, GUIUtils.loadImage(fileName));
+		return new ImageSprite(fileName, AssetPreloader.getImage(fileName));
 	}
 
 	public static ImageSprite createHFlippedSprite(String fileName) {
-		return new ImageSprite(fileName, GUIUtils.hflip(GUIUtils
-				.loadImage(fileName)));
+		return new ImageSprite(fileName, GUIUtils.hflip(AssetPreloader
+				.getImage(fileName)));
 	}
 
 	public static ImageSprite createSprite(String name, BufferedImage image) {
@@ -68,4 +69,16 @@ public class ImageSprite extends Sprite {
 		return new ImageSprite(getName(), shiftedImage);
 	}
 
+	/**
+	 * Shift the hue of all given sprites in parallel.
+	 * 
+	 * Safe to call from a static initializer: the work done on other threads
+	 * does not touch the class being initialized.
+	 */
+	public static ImageSprite[] shiftHue(Sprite[] sprites, int amount) {
+		return Arrays.stream(sprites).parallel()
+				.map(sprite -> ((ImageSprite) sprite).shiftHue(amount))
+				.toArray(ImageSprite[]::new);
+	}
+
 }
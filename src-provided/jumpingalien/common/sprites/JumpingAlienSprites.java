@@ -1,6 +1,11 @@
 package jumpingalien.common.sprites;
 
 import static jumpingalien.common.sprites.ImageSprite.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import jumpingalien.util.Sprite;
 
 public class JumpingAlienSprites {
@@ -12,6 +17,17 @@ public class JumpingAlienSprites {
 	public static final Sprite[] ALIEN_SPRITESET = new Sprite[30];
 
 	static {
+		/* decode all files in parallel before creating the sprites */
+		List<String> files = new ArrayList<>(Arrays.asList(
+				"levels/player/p1_front.png", "levels/player/p1_duck_front.png",
+				"levels/player/p1_stand.png", "levels/player/p1_jump.png",
+				"levels/player/p1_duck.png"));
+		for (int i = 0; i < 11; i++) {
+			files.add(String.format("levels/player/p1_walk/PNG/p1_walk%02d.png",
+					i + 1));
+		}
+		AssetPreloader.preload(files);
+
 		/* 0: stand, not ducking, front */
 		ALIEN_SPRITESET[0] = createSprite("levels/player/p1_front.png")
 				.resizeTo(WIDTH, FULL_HEIGHT);
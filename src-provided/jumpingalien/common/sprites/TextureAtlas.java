@@ -0,0 +1,328 @@
+package jumpingalien.common.sprites;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A few large images, the pages, into which many small images are packed.
+ *
+ * Painting a packed image draws a rectangle of its page instead, so painting
+ * a frame switches between a handful of source images instead of hundreds.
+ * Every packed image has a key, under which its rectangle can be saved to
+ * and loaded from disk together with the pages. The images that are drawn
+ * from the atlas are looked up by identity: after loading an atlas, the
+ * images in memory that correspond to its keys must be bound to it.
+ *
+ * The atlas that is used for painting is the current atlas, see
+ * {@link #setCurrent(TextureAtlas)}.
+ */
+public class TextureAtlas {
+
+	/**
+	 * The width of a page, and the height above which a new page is started.
+	 */
+	public static final int PAGE_SIZE = 2048;
+
+	private static final String INDEX_SUFFIX = ".txt";
+
+	private static volatile TextureAtlas current;
+
+	public static Optional<TextureAtlas> getCurrent() {
+		return Optional.ofNullable(current);
+	}
+
+	public static void setCurrent(TextureAtlas atlas) {
+		current = atlas;
+	}
+
+	/**
+	 * A rectangle of a page of an atlas.
+	 */
+	public static final class Region {
+
+		private final int page;
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+
+		private Region(int page, int x, int y, int width, int height) {
+			this.page = page;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+
+		public int getPage() {
+			return page;
+		}
+
+		public int getX() {
+			return x;
+		}
+
+		public int getY() {
+			return y;
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+	}
+
+	private final List<BufferedImage> pages;
+	private final Map<String, Region> regions;
+	private final Map<Image, Region> boundImages = new IdentityHashMap<>();
+
+	private TextureAtlas(List<BufferedImage> pages, Map<String, Region> regions) {
+		this.pages = pages;
+		this.regions = regions;
+	}
+
+	/**
+	 * Pack the given images, in rows of images sorted by height, and bind
+	 * them to their rectangles.
+	 */
+	public static TextureAtlas pack(Map<String, ? extends BufferedImage> images) {
+		List<String> keys = new ArrayList<>(images.keySet());
+		keys.sort((k1, k2) -> Integer.compare(images.get(k2).getHeight(),
+				images.get(k1).getHeight()));
+
+		Map<String, Region> regions = new LinkedHashMap<>();
+		List<int[]> pageSizes = new ArrayList<>();
+		int page = -1;
+		int x = 0, y = 0, rowHeight = 0;
+		for (String key : keys) {
+			BufferedImage image = images.get(key);
+			int width = image.getWidth();
+			int height = image.getHeight();
+			if (page >= 0 && x + width > PAGE_SIZE) {
+				x = 0;
+				y += rowHeight;
+				rowHeight = 0;
+			}
+			if (page < 0 || y + height > PAGE_SIZE) {
+				page++;
+				pageSizes.add(new int[] { 0, 0 });
+				x = 0;
+				y = 0;
+				rowHeight = 0;
+			}
+			regions.put(key, new Region(page, x, y, width, height));
+			int[] size = pageSizes.get(page);
+			size[0] = Math.max(size[0], x + width);
+			size[1] = Math.max(size[1], y + height);
+			x += width;
+			rowHeight = Math.max(rowHeight, height);
+		}
+
+		List<BufferedImage> pages = new ArrayList<>();
+		for (int[] size : pageSizes) {
+			pages.add(new BufferedImage(size[0], size[1],
+					BufferedImage.TYPE_INT_ARGB));
+		}
+		List<Graphics2D> graphics = new ArrayList<>();
+		for (BufferedImage pageImage : pages) {
+			graphics.add(pageImage.createGraphics());
+		}
+		for (Map.Entry<String, Region> entry : regions.entrySet()) {
+			Region region = entry.getValue();
+			graphics.get(region.getPage()).drawImage(
+					images.get(entry.getKey()), region.getX(), region.getY(),
+					null);
+		}
+		for (Graphics2D g : graphics) {
+			g.dispose();
+		}
+
+		TextureAtlas result = new TextureAtlas(toCompatibleImages(pages),
+				regions);
+		for (Map.Entry<String, ? extends BufferedImage> entry : images
+				.entrySet()) {
+			result.bind(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	private static List<BufferedImage> toCompatibleImages(
+			List<BufferedImage> images) {
+		List<BufferedImage> result = new ArrayList<>();
+		for (BufferedImage image : images) {
+			result.add(AssetPreloader.toCompatibleImage(image));
+		}
+		return result;
+	}
+
+	public int getNbPages() {
+		return pages.size();
+	}
+
+	public BufferedImage getPage(int page) {
+		return pages.get(page);
+	}
+
+	public Map<String, Region> getRegions() {
+		return Collections.unmodifiableMap(regions);
+	}
+
+	public Optional<Region> getRegion(String key) {
+		return Optional.ofNullable(regions.get(key));
+	}
+
+	/**
+	 * Return a copy of the image with the given key, sharing the pixels of
+	 * its page and bound to its rectangle, or null if there is no image with
+	 * that key.
+	 */
+	public BufferedImage getImage(String key) {
+		Region region = regions.get(key);
+		if (region == null) {
+			return null;
+		}
+		BufferedImage result = pages.get(region.getPage()).getSubimage(
+				region.getX(), region.getY(), region.getWidth(),
+				region.getHeight());
+		boundImages.put(result, region);
+		return result;
+	}
+
+	/**
+	 * Draw the given image from its rectangle from now on, if there is a
+	 * rectangle with the given key of the same size.
+	 *
+	 * @return Whether the image was bound.
+	 */
+	public boolean bind(String key, Image image) {
+		Region region = regions.get(key);
+		if (region == null || region.getWidth() != image.getWidth(null)
+				|| region.getHeight() != image.getHeight(null)) {
+			return false;
+		}
+		boundImages.put(image, region);
+		return true;
+	}
+
+	/**
+	 * Draw the given image from its rectangle in world coordinates, exactly
+	 * as {@link jumpingalien.common.gui.AlienGUIUtils#drawImageInWorld} would
+	 * draw the image itself.
+	 *
+	 * @return Whether the image is bound to this atlas and has been drawn.
+	 */
+	public boolean drawImageInWorld(Graphics2D g, Image image, int left,
+			int bottom, boolean hFlipped) {
+		Region region = boundImages.get(image);
+		if (region == null) {
+			return false;
+		}
+		int right = left + region.getWidth();
+		int top = bottom + region.getHeight();
+		// the y axis of the world points up, so the top row goes on top
+		g.drawImage(pages.get(region.getPage()), hFlipped ? right : left,
+				top, hFlipped ? left : right, bottom, region.getX(),
+				region.getY(), region.getX() + region.getWidth(),
+				region.getY() + region.getHeight(), null);
+		return true;
+	}
+
+	/**
+	 * Write the pages and the rectangles of this atlas to the given folder,
+	 * in files starting with the given name.
+	 */
+	public void save(File folder, String name) throws IOException {
+		if (!folder.isDirectory() && !folder.mkdirs()) {
+			throw new IOException("Could not create folder " + folder);
+		}
+		for (int page = 0; page < pages.size(); page++) {
+			ImageIO.write(pages.get(page), "png", getPageFile(folder, name,
+					page));
+		}
+		// the index is written last: an atlas without index is incomplete
+		File index = new File(folder, name + INDEX_SUFFIX);
+		File partialIndex = new File(folder, name + INDEX_SUFFIX + ".part");
+		try (PrintWriter out = new PrintWriter(new FileWriter(partialIndex))) {
+			out.println(pages.size());
+			for (Map.Entry<String, Region> entry : regions.entrySet()) {
+				Region region = entry.getValue();
+				out.println(String.format("%d %d %d %d %d %s",
+						region.getPage(), region.getX(), region.getY(),
+						region.getWidth(), region.getHeight(), entry.getKey()));
+			}
+		}
+		if (!partialIndex.renameTo(index)) {
+			partialIndex.delete();
+			throw new IOException("Could not write " + index);
+		}
+	}
+
+	/**
+	 * Read the atlas that was saved in the given folder under the given name,
+	 * or return an empty optional if there is no such atlas or it cannot be
+	 * read.
+	 */
+	public static Optional<TextureAtlas> load(File folder, String name) {
+		File index = new File(folder, name + INDEX_SUFFIX);
+		if (!index.isFile()) {
+			return Optional.empty();
+		}
+		try (BufferedReader in = new BufferedReader(new FileReader(index))) {
+			int nbPages = Integer.parseInt(in.readLine().trim());
+			Map<String, Region> regions = new LinkedHashMap<>();
+			String line;
+			while ((line = in.readLine()) != null) {
+				String[] fields = line.split(" ", 6);
+				regions.put(fields[5], new Region(Integer.parseInt(fields[0]),
+						Integer.parseInt(fields[1]),
+						Integer.parseInt(fields[2]),
+						Integer.parseInt(fields[3]),
+						Integer.parseInt(fields[4])));
+			}
+			List<BufferedImage> pages = new ArrayList<>();
+			for (int page = 0; page < nbPages; page++) {
+				BufferedImage image = ImageIO.read(getPageFile(folder, name,
+						page));
+				if (image == null) {
+					return Optional.empty();
+				}
+				pages.add(image);
+			}
+			return Optional.of(new TextureAtlas(toCompatibleImages(pages),
+					regions));
+		} catch (IOException | RuntimeException e) {
+			System.out.println("Could not read texture atlas '" + name
+					+ "': " + e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	private static File getPageFile(File folder, String name, int page) {
+		return new File(folder, String.format("%s-%d.png", name, page));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d images on %d pages", regions.size(),
+				pages.size());
+	}
+}
@@ -9,6 +9,7 @@ import java.util.HashMap;
 import jumpingalien.common.gui.AlienGUIUtils;
 import jumpingalien.common.gui.AlienGameScreen;
 import jumpingalien.common.gui.painters.AbstractAlienPainter;
+import jumpingalien.common.sprites.HueShiftedSpriteCache;
 import jumpingalien.common.sprites.ImageSprite;
 import jumpingalien.model.game.Plant;
 import jumpingalien.model.game.School;
@@ -27,6 +28,7 @@ public final class GameObjectPainter extends
 		super(screen);
 		this.alienInfoProvider = alienInfoProvider;
 		this.objectInfoProvider = objectInfoProvider;
+		warmSlimeSprites();
 	}
 
 	@Override
@@ -65,6 +67,30 @@ public final class GameObjectPainter extends
 				s -> schoolHueShifts.size());
 	}
 
+	/**
+	 * Slime sprites with the hue of their school, shared by all painters such
+	 * that a restarted level finds them shifted already.
+	 */
+	private static final HueShiftedSpriteCache slimeSprites = new HueShiftedSpriteCache(
+			64);
+
+	public static HueShiftedSpriteCache getSlimeSpriteCache() {
+		return slimeSprites;
+	}
+
+	/**
+	 * Give every school of the slimes in the world its hue shift, and shift
+	 * the slime sprites for it before the first frame is painted.
+	 */
+	private void warmSlimeSprites() {
+		for (Slime slime : objectInfoProvider.getSlimes()) {
+			objectInfoProvider.getSchool(slime).ifPresent(
+					school -> slimeSprites.warm(getHueShift(school),
+							Resources.SLIME_SPRITE_LEFT,
+							Resources.SLIME_SPRITE_RIGHT));
+		}
+	}
+
 	protected void paintSlimes(Graphics2D g) {
 		for (Slime slime : objectInfoProvider.getSlimes()) {
 			objectInfoProvider
@@ -79,7 +105,7 @@ public final class GameObjectPainter extends
 														.ifPresent(
 																school -> paintSprite(
 																		g,
-																		sprite.shiftHue(getHueShift(school)),
+																		slimeSprites.get(sprite, getHueShift(school)),
 																		xy)));
 								paintDebugInfo(g, slime, xy);
 							});
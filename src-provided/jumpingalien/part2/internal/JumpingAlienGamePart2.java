@@ -79,6 +79,9 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 			}
 
 			tileSize = map.getTileSizeY();
+
+			System.out.println("Loaded " + filename + ": "
+					+ LevelAtlas.install(map, LevelAtlas.getSpriteSets()));
 		} catch (Throwable e) {
 			addMessage(new Message(MessageType.ERROR, "Error while reading "
 					+ filename + ": " + e.getMessage()));
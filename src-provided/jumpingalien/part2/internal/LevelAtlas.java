@@ -0,0 +1,160 @@
+package jumpingalien.part2.internal;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import jumpingalien.common.sprites.AssetPreloader;
+import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.common.sprites.TextureAtlas;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.util.Sprite;
+
+/**
+ * Packs the tiles of a level and the sprites of the game into a texture
+ * atlas, and makes it the current atlas.
+ *
+ * A packed atlas is saved in a folder of the temporary directory, under a
+ * name derived from the tile files and the sprites it contains. When a level
+ * with the same tiles is loaded again, the atlas is read from that folder:
+ * the tiles are then taken from its pages instead of being decoded one by
+ * one.
+ */
+public class LevelAtlas {
+
+	public static final File CACHE_FOLDER = new File(
+			System.getProperty("java.io.tmpdir"), "jumpingalien-atlas");
+
+	private static final String TILE_PREFIX = "tile:";
+	private static final String SPRITE_PREFIX = "sprite:";
+
+	private LevelAtlas() {
+	}
+
+	/**
+	 * Return the sprite sets of the objects of part 2, by name.
+	 */
+	public static java.util.Map<String, Sprite[]> getSpriteSets() {
+		java.util.Map<String, Sprite[]> result = new LinkedHashMap<>();
+		result.put("alien", Resources.ALIEN_SPRITESET);
+		result.put("plant", new Sprite[] { Resources.PLANT_SPRITE_LEFT,
+				Resources.PLANT_SPRITE_RIGHT });
+		result.put("shark", new Sprite[] { Resources.SHARK_SPRITE_LEFT,
+				Resources.SHARK_SPRITE_RIGHT });
+		result.put("slime", new Sprite[] { Resources.SLIME_SPRITE_LEFT,
+				Resources.SLIME_SPRITE_RIGHT });
+		return result;
+	}
+
+	/**
+	 * Make the atlas with the tiles of the given map and the given sprite
+	 * sets the current atlas, reading it from disk if it was packed before.
+	 *
+	 * @return A description of what was done, with its timing.
+	 */
+	public static String install(Map map,
+			java.util.Map<String, Sprite[]> spriteSets) {
+		long start = System.nanoTime();
+		List<String> tileFiles = map.getImageFilenames().stream().distinct()
+				.collect(Collectors.toList());
+		java.util.Map<String, BufferedImage> sprites = new LinkedHashMap<>();
+		for (java.util.Map.Entry<String, Sprite[]> set : spriteSets.entrySet()) {
+			Sprite[] setSprites = set.getValue();
+			for (int i = 0; i < setSprites.length; i++) {
+				sprites.put(SPRITE_PREFIX + set.getKey() + "#" + i,
+						((ImageSprite) setSprites[i]).getImage());
+			}
+		}
+		String name = getName(tileFiles, sprites);
+
+		Optional<TextureAtlas> cached = TextureAtlas.load(CACHE_FOLDER, name);
+		TextureAtlas atlas;
+		String result;
+		if (cached.isPresent()) {
+			atlas = cached.get();
+			for (String file : tileFiles) {
+				AssetPreloader.register(file,
+						atlas.getImage(TILE_PREFIX + file));
+			}
+			for (java.util.Map.Entry<String, BufferedImage> sprite : sprites
+					.entrySet()) {
+				atlas.bind(sprite.getKey(), sprite.getValue());
+			}
+			result = String.format("atlas %s (%s) read in %.1f ms", name,
+					atlas, (System.nanoTime() - start) / 1e6);
+		} else {
+			AssetPreloader.LoadReport report = AssetPreloader
+					.preload(tileFiles);
+			java.util.Map<String, BufferedImage> images = new LinkedHashMap<>();
+			for (String file : tileFiles) {
+				images.put(TILE_PREFIX + file, AssetPreloader.getImage(file));
+			}
+			images.putAll(sprites);
+			atlas = TextureAtlas.pack(images);
+			result = String.format("%s; atlas %s (%s) packed in %.1f ms",
+					report, name, atlas, (System.nanoTime() - start) / 1e6);
+			TextureAtlas packed = atlas;
+			ForkJoinPool.commonPool().execute(() -> save(packed, name));
+		}
+		TextureAtlas.setCurrent(atlas);
+		return result;
+	}
+
+	private static void save(TextureAtlas atlas, String name) {
+		try {
+			atlas.save(CACHE_FOLDER, name);
+		} catch (IOException e) {
+			System.out.println("Could not save texture atlas '" + name
+					+ "': " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Return a name that changes whenever one of the given tile files or one
+	 * of the pixels of the given sprites changes.
+	 */
+	private static String getName(List<String> tileFiles,
+			java.util.Map<String, BufferedImage> sprites) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+		for (String tileFile : tileFiles) {
+			File file = new File(tileFile);
+			digest.update(tileFile.getBytes(StandardCharsets.UTF_8));
+			digest.update(buffer.putLong(0, file.length()).array());
+			digest.update(buffer.putLong(0, file.lastModified()).array());
+		}
+		for (java.util.Map.Entry<String, BufferedImage> sprite : sprites
+				.entrySet()) {
+			BufferedImage image = sprite.getValue();
+			digest.update(sprite.getKey().getBytes(StandardCharsets.UTF_8));
+			ByteBuffer pixels = ByteBuffer.allocate(Integer.BYTES
+					* (2 + image.getWidth() * image.getHeight()));
+			pixels.putInt(image.getWidth()).putInt(image.getHeight());
+			for (int rgb : image.getRGB(0, 0, image.getWidth(),
+					image.getHeight(), null, 0, image.getWidth())) {
+				pixels.putInt(rgb);
+			}
+			digest.update(pixels.array());
+		}
+		StringBuilder result = new StringBuilder("atlas-");
+		byte[] hash = digest.digest();
+		for (int i = 0; i < 8; i++) {
+			result.append(String.format("%02x", hash[i]));
+		}
+		return result.toString();
+	}
+}
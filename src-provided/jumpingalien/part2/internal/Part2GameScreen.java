@@ -103,6 +103,8 @@ public class Part2GameScreen extends
 							.map(ar -> String.format("(%d,%d), (%d, %d)",
 									ar[0], ar[1], ar[2], ar[3]))
 							.orElse("Unknown"));
+			debugInfoPainter.addInfo("Slime sprites", () -> GameObjectPainter
+					.getSlimeSpriteCache().toString());
 			addPainter(debugInfoPainter);
 		}
 
@@ -0,0 +1,143 @@
+package jumpingalien.part2.internal;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+import jumpingalien.common.gui.AlienGUIUtils;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+
+/**
+ * Pre-rendered square blocks of tiles of all layers of a map, painted on top
+ * of the background color of the map.
+ *
+ * The tiles of a map never change once the game has started, so a block is
+ * only rendered the first time it becomes visible. Blocks are rendered into
+ * an accelerated {@link VolatileImage} when the screen offers one, and into
+ * a compatible {@link BufferedImage} otherwise. A volatile block whose
+ * contents were lost is rendered again before it is painted.
+ */
+class TileChunkCache {
+
+	/**
+	 * The number of tiles along each side of a chunk.
+	 */
+	public static final int CHUNK_TILES = 8;
+
+	private final Map map;
+	private final int tileSize;
+	private final int chunkSize;
+	private final Color background;
+	private final Image[][] chunks;
+
+	public TileChunkCache(Map map, int tileSize, Color background) {
+		this.map = map;
+		this.tileSize = tileSize;
+		this.chunkSize = CHUNK_TILES * tileSize;
+		this.background = background;
+		this.chunks = new Image[(map.getNbTilesY() + CHUNK_TILES - 1)
+				/ CHUNK_TILES][(map.getNbTilesX() + CHUNK_TILES - 1)
+				/ CHUNK_TILES];
+	}
+
+	/**
+	 * Paint all chunks that overlap with the given region of the world.
+	 */
+	public void paintChunksIn(Graphics2D g, int left, int bottom, int right,
+			int top) {
+		int firstX = Math.max(0, left / chunkSize);
+		int firstY = Math.max(0, bottom / chunkSize);
+		int lastX = Math.min(chunks[0].length - 1, right / chunkSize);
+		int lastY = Math.min(chunks.length - 1, top / chunkSize);
+		GraphicsConfiguration gc = g.getDeviceConfiguration();
+		for (int chunkY = firstY; chunkY <= lastY; chunkY++) {
+			for (int chunkX = firstX; chunkX <= lastX; chunkX++) {
+				AlienGUIUtils.drawImageInWorld(g,
+						getChunk(gc, chunkX, chunkY), chunkX * chunkSize,
+						chunkY * chunkSize, false);
+			}
+		}
+	}
+
+	private Image getChunk(GraphicsConfiguration gc, int chunkX, int chunkY) {
+		Image chunk = chunks[chunkY][chunkX];
+		if (chunk == null) {
+			chunk = createChunk(gc, chunkX, chunkY);
+			renderChunk(chunk, chunkX, chunkY);
+		} else if (chunk instanceof VolatileImage) {
+			int status = ((VolatileImage) chunk).validate(gc);
+			if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+				((VolatileImage) chunk).flush();
+				chunk = createChunk(gc, chunkX, chunkY);
+				renderChunk(chunk, chunkX, chunkY);
+			} else if (status == VolatileImage.IMAGE_RESTORED) {
+				renderChunk(chunk, chunkX, chunkY);
+			}
+		}
+		chunks[chunkY][chunkX] = chunk;
+		return chunk;
+	}
+
+	private Image createChunk(GraphicsConfiguration gc, int chunkX, int chunkY) {
+		int width = Math.min(chunkSize, map.getPixelWidth() - chunkX
+				* chunkSize);
+		int height = Math.min(chunkSize, map.getPixelHeight() - chunkY
+				* chunkSize);
+		if (gc == null) {
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		}
+		VolatileImage image = gc.createCompatibleVolatileImage(width, height);
+		if (image != null && image.getCapabilities().isAccelerated()) {
+			return image;
+		}
+		if (image != null) {
+			image.flush();
+		}
+		return gc.createCompatibleImage(width, height);
+	}
+
+	/**
+	 * Render the tiles of the given chunk into the given image. The graphics
+	 * of the image are set up such that tiles are drawn at their coordinates
+	 * in the world, exactly as they would be drawn on the screen.
+	 */
+	private void renderChunk(Image chunk, int chunkX, int chunkY) {
+		int height = chunk.getHeight(null);
+		Graphics2D g = (Graphics2D) chunk.getGraphics();
+		try {
+			g.setColor(background);
+			g.fillRect(0, 0, chunk.getWidth(null), height);
+			g.translate(0, height);
+			g.scale(1, -1);
+			g.translate(-chunkX * chunkSize, -chunkY * chunkSize);
+			// tiles just outside the chunk may have images reaching into it
+			int firstTileX = chunkX * CHUNK_TILES - 1;
+			int firstTileY = chunkY * CHUNK_TILES - 1;
+			for (int tileY = firstTileY; tileY <= firstTileY + CHUNK_TILES + 1; tileY++) {
+				for (int tileX = firstTileX; tileX <= firstTileX + CHUNK_TILES + 1; tileX++) {
+					paintTile(g, tileX, tileY);
+				}
+			}
+		} finally {
+			g.dispose();
+		}
+	}
+
+	private void paintTile(Graphics2D g, int tileX, int tileY) {
+		if (!map.isValidTileCoordinate(tileX, tileY)) {
+			return;
+		}
+		for (Layer layer : map.getLayers()) {
+			ImageTile tile = layer.getTile(tileX, tileY);
+			if (tile != null) {
+				AlienGUIUtils.drawImageInWorld(g, tile.getImage(), tileX
+						* tileSize, tileY * tileSize, false);
+			}
+		}
+	}
+}
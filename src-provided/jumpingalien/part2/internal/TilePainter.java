@@ -4,12 +4,9 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.util.Optional;
 
-import jumpingalien.common.gui.AlienGUIUtils;
 import jumpingalien.common.gui.AlienGameScreen;
 import jumpingalien.common.gui.painters.AbstractAlienPainter;
-import jumpingalien.part2.internal.tmxfile.data.ImageTile;
 import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
-import jumpingalien.part2.internal.tmxfile.data.Layer;
 import jumpingalien.part2.internal.tmxfile.data.Map;
 
 public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
@@ -26,8 +23,11 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 		this.map = map;
 		this.worldInfoProvider = worldInfoProvider;
 		this.tileSize = worldInfoProvider.getTileLength();
+		this.chunks = new TileChunkCache(map, tileSize, getBackgroundColor());
 	}
 
+	private final TileChunkCache chunks;
+
 	@Override
 	protected Part2Options getOptions() {
 		return (Part2Options) super.getOptions();
@@ -37,36 +37,37 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 	public void paintInWorld(Graphics2D g) {
 		int[] worldSize = worldInfoProvider.getWorldSize().get();
 
-		g.setColor(getBackgroundColor());
-		g.fillRect(0, 0, worldSize[0], worldSize[1]);
-
-		Optional<int[][]> tileCoordinatesToDrawOpt;
+		int[] region;
 		if (getOptions().getDebugShowEntireWorld()) {
-			tileCoordinatesToDrawOpt = worldInfoProvider.getTilesIn(0, 0,
-					worldSize[0], worldSize[1]);
+			region = new int[] { 0, 0, worldSize[0], worldSize[1] };
 		} else {
 			Optional<int[]> visibleWindowOpt = worldInfoProvider
 					.getVisibleWindow();
 
 			if (!visibleWindowOpt.isPresent()) {
+				g.setColor(getBackgroundColor());
+				g.fillRect(0, 0, worldSize[0], worldSize[1]);
 				return;
 			}
-			int[] visibleWindow = visibleWindowOpt.get();
-
-			tileCoordinatesToDrawOpt = worldInfoProvider.getTilesIn(
-					visibleWindow[0], visibleWindow[1], visibleWindow[2],
-					visibleWindow[3]);
+			region = visibleWindowOpt.get();
 		}
-		if (!tileCoordinatesToDrawOpt.isPresent()) {
-			return;
-		}
-		int[][] tileCoordinatesToDraw = tileCoordinatesToDrawOpt.get();
+		chunks.paintChunksIn(g, region[0], region[1], region[2], region[3]);
 
-		for (int[] tileXY : tileCoordinatesToDraw) {
-			int tileX = tileXY[0];
-			int tileY = tileXY[1];
+		if (getOptions().getDebugShowTileTypes()
+				|| getOptions().getDebugShowTileGridlines()) {
+			Optional<int[][]> tileCoordinatesToDrawOpt = worldInfoProvider
+					.getTilesIn(region[0], region[1], region[2], region[3]);
+			if (!tileCoordinatesToDrawOpt.isPresent()) {
+				return;
+			}
+			int[][] tileCoordinatesToDraw = tileCoordinatesToDrawOpt.get();
 
-			paintTile(g, tileX, tileY);
+			for (int[] tileXY : tileCoordinatesToDraw) {
+				int tileX = tileXY[0];
+				int tileY = tileXY[1];
+
+				paintTileOverlays(g, tileX, tileY);
+			}
 		}
 
 		if (getOptions().getDebugShowAlienOverlappingTiles()) {
@@ -107,7 +108,11 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 		}
 	}
 
-	private void paintTile(Graphics2D g, int tileX, int tileY) {
+	/**
+	 * Paint the debug information of a single tile on top of the tiles
+	 * painted by the chunk cache.
+	 */
+	private void paintTileOverlays(Graphics2D g, int tileX, int tileY) {
 		Optional<int[]> bottomLeftOpt = worldInfoProvider
 				.getBottomLeftPixelOfTile(tileX, tileY);
 		if (!bottomLeftOpt.isPresent()) {
@@ -118,16 +123,6 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 
 		int tileSize = worldInfoProvider.getTileLength();
 
-		for (Layer layer : map.getLayers()) {
-			if (map.isValidTileCoordinate(tileX, tileY)) {
-				ImageTile tile = layer.getTile(tileX, tileY);
-				if (tile != null) {
-					AlienGUIUtils.drawImageInWorld(g, tile.getImage(),
-							bottomLeftXY[0], bottomLeftXY[1], false);
-				}
-			}
-		}
-
 		if (getOptions().getDebugShowTileTypes()) {
 			Optional<TileType> optType = worldInfoProvider
 					.getGeologicalFeature(bottomLeftXY[0], bottomLeftXY[1]);
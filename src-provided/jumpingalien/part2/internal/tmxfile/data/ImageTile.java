@@ -3,7 +3,7 @@ package jumpingalien.part2.internal.tmxfile.data;
 import java.awt.Image;
 import java.io.File;
 
-import ogp.framework.util.GUIUtils;
+import jumpingalien.common.sprites.AssetPreloader;
 
 /**
  * This class is only for internal use by the GUI
@@ -96,7 +96,7 @@ public class ImageTile {
 	public Image getImage() {
 		// lazy loading
 		if (image == null) {
-			image = GUIUtils.loadImage(file.getAbsolutePath());
+			image = AssetPreloader.getImage(file.getAbsolutePath());
 		}
 		return image;
 	}
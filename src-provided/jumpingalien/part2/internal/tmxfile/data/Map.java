@@ -65,6 +65,20 @@ public class Map {
 		return result;
 	}
 
+	public List<Tileset> getTilesets() {
+		return tilesets;
+	}
+
+	/**
+	 * Return the files of the images of all tiles in the tilesets of this
+	 * map, including the tiles of its objects.
+	 */
+	public List<String> getImageFilenames() {
+		return tilesets.stream().flatMap(ts -> ts.getTiles().stream())
+				.map(tile -> tile.getFile().getAbsolutePath())
+				.collect(Collectors.toList());
+	}
+
 	public Layer newLayer(String name) {
 		Layer result = new Layer(name, nbTilesX, nbTilesY);
 		layers.add(result);
@@ -1,6 +1,7 @@
 package jumpingalien.part2.internal.tmxfile.data;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,10 @@ public class Tileset {
 		return result;
 	}
 
+	public List<ImageTile> getTiles() {
+		return Collections.unmodifiableList(tiles);
+	}
+
 	public int getFirstId() {
 		return firstId;
 	}
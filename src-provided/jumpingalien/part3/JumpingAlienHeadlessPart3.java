@@ -0,0 +1,170 @@
+package jumpingalien.part3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import jumpingalien.model.game.CollisionMode;
+import jumpingalien.model.game.SimulationTier;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.internal.HeadlessSimulation;
+import jumpingalien.part3.internal.HeadlessSimulation.Result;
+import jumpingalien.part3.internal.LevelLoader;
+import jumpingalien.part3.internal.LevelLoader.ProgramMode;
+import jumpingalien.part3.internal.SimulationPool;
+import jumpingalien.part3.internal.SimulationPool.Summary;
+
+/**
+ * Runs levels without the GUI, as fast as possible, for a number of simulated
+ * seconds and prints throughput and end-state statistics for each run.
+ *
+ * Usage: JumpingAlienHeadlessPart3 [-seconds s] [-dt seconds] [-seed n]
+ * [-runs n] [-programs native|program|random] [-programfolder folder]
+ * [-maxobjects n] [-threads n] [-collision stepped|continuous|validated]
+ * [-lod reduced frozen] [-sleep true|false] level.tmx ...
+ *
+ * Each run of a level uses the next seed, starting from the given seed. All
+ * runs are independent and are spread over the given number of threads,
+ * which defaults to the number of available processors. With -lod, game
+ * objects farther than the given distances in pixels from the visible window
+ * are simulated at a reduced level of detail and are frozen. Game objects at
+ * rest are put to sleep unless -sleep false is given.
+ */
+public class JumpingAlienHeadlessPart3 {
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		double seconds = 60;
+		double dt = 0.01;
+		long seed = 123;
+		int runs = 1;
+		ProgramMode mode = ProgramMode.RANDOM;
+		String programFolder = null;
+		int maxObjects = Integer.MAX_VALUE;
+		int threads = Runtime.getRuntime().availableProcessors();
+		CollisionMode collision = CollisionMode.STEPPED;
+		double reduced = Double.POSITIVE_INFINITY;
+		double frozen = Double.POSITIVE_INFINITY;
+		boolean sleep = true;
+		List<String> levels = new ArrayList<String>();
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+			case "-seconds":
+				seconds = Double.parseDouble(args[++i]);
+				break;
+			case "-dt":
+				dt = Double.parseDouble(args[++i]);
+				break;
+			case "-seed":
+				seed = Long.parseLong(args[++i]);
+				break;
+			case "-runs":
+				runs = Integer.parseInt(args[++i]);
+				break;
+			case "-programs":
+				mode = ProgramMode.valueOf(args[++i].toUpperCase());
+				break;
+			case "-programfolder":
+				programFolder = args[++i];
+				break;
+			case "-threads":
+				threads = Integer.parseInt(args[++i]);
+				break;
+			case "-collision":
+				collision = CollisionMode.valueOf(args[++i].toUpperCase());
+				break;
+			case "-lod":
+				reduced = Double.parseDouble(args[++i]);
+				frozen = Double.parseDouble(args[++i]);
+				break;
+			case "-sleep":
+				sleep = Boolean.parseBoolean(args[++i]);
+				break;
+			case "-maxobjects":
+				maxObjects = Integer.parseInt(args[++i]);
+				break;
+			default:
+				levels.add(arg);
+			}
+		}
+		if (levels.isEmpty()) {
+			levels.add("level1.tmx");
+		}
+
+		Facade facade = new Facade();
+		LevelLoader reader = new LevelLoader(facade);
+		List<Supplier<HeadlessSimulation>> simulations = new ArrayList<Supplier<HeadlessSimulation>>();
+		for (String level : levels) {
+			Map map = reader.readMap(level);
+			for (int run = 0; run < runs; run++) {
+				long runSeed = seed + run;
+				double timeStep = dt;
+				ProgramMode programMode = mode;
+				String programs = programFolder;
+				int objects = maxObjects;
+				CollisionMode collisionMode = collision;
+				double reducedDistance = reduced;
+				double frozenDistance = frozen;
+				boolean sleeping = sleep;
+				simulations.add(() -> {
+					LevelLoader loader = new LevelLoader(facade)
+							.setProgramMode(programMode).setMaxObjects(objects)
+							.setRandomSeed(runSeed)
+							.setCollisionMode(collisionMode)
+							.setSimulationDistances(reducedDistance, frozenDistance)
+							.setSleepingAllowed(sleeping);
+					if (programs != null) {
+						loader.setProgramFolder(programs);
+					}
+					return new HeadlessSimulation(level + " #" + runSeed,
+							facade, loader.load(map), timeStep);
+				});
+			}
+		}
+
+		Summary summary = new SimulationPool(threads).run(simulations, seconds);
+		System.out.println(Result.header());
+		for (Result result : summary.getResults()) {
+			System.out.println(result);
+		}
+		System.out.println(summary);
+		if (collision == CollisionMode.VALIDATED) {
+			int validated = 0;
+			int mismatched = 0;
+			double deviation = 0;
+			for (Result result : summary.getResults()) {
+				validated += result.getNbValidatedMoves();
+				mismatched += result.getNbMismatchedMoves();
+				deviation = Math.max(deviation, result.getMaxValidationDeviation());
+			}
+			System.out.println(String.format(
+					"%d continuous moves validated, %d ended elsewhere than stepping, largest deviation %.3f pixels",
+					validated, mismatched, deviation));
+		}
+		if (reduced != Double.POSITIVE_INFINITY) {
+			long[] ticks = new long[SimulationTier.values().length];
+			for (Result result : summary.getResults()) {
+				for (SimulationTier tier : SimulationTier.values()) {
+					ticks[tier.ordinal()] += result.getNbTicksInTier(tier);
+				}
+			}
+			System.out.println(String.format(
+					"game object ticks: %d full, %d reduced, %d frozen",
+					ticks[0], ticks[1], ticks[2]));
+		}
+		if (sleep) {
+			long sleepingTicks = 0;
+			long wakeUps = 0;
+			for (Result result : summary.getResults()) {
+				sleepingTicks += result.getNbSleepingTicks();
+				wakeUps += result.getNbWakeUps();
+			}
+			System.out.println(String.format(
+					"%d game object ticks skipped while asleep, %d wake-ups",
+					sleepingTicks, wakeUps));
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package jumpingalien.part3.internal;
+
+import java.util.Collection;
+
+import jumpingalien.model.game.Buzam;
+import jumpingalien.model.game.CollisionMode;
+import jumpingalien.model.game.Mazub;
+import jumpingalien.model.game.SimulationTier;
+import jumpingalien.model.game.World;
+import jumpingalien.part3.facade.IFacadePart3;
+
+/**
+ * Steps a single world with a fixed time step as fast as possible, without
+ * any GUI or frame sleeps, and reports throughput and end-state statistics.
+ */
+public class HeadlessSimulation {
+
+	private final IFacadePart3 facade;
+	private final World world;
+	private final double dt;
+	private final String name;
+	private final Mazub alien;
+
+	public HeadlessSimulation(String name, IFacadePart3 facade, World world,
+			double dt) {
+		if (dt <= 0 || dt > 0.2) {
+			throw new IllegalArgumentException("Invalid time step: " + dt);
+		}
+		this.name = name;
+		this.facade = facade;
+		this.world = world;
+		this.dt = dt;
+		this.alien = world.getMazub();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	public double getTimeStep() {
+		return dt;
+	}
+
+	/**
+	 * Advance the time of the world with the fixed time step until the given
+	 * number of seconds has been simulated or the game is over.
+	 */
+	public Result run(double simulatedSeconds) {
+		long nbTicks = (long) Math.ceil(simulatedSeconds / dt - 1e-9);
+		long ticks = 0;
+		long start = System.nanoTime();
+		while (ticks < nbTicks && !facade.isGameOver(world)) {
+			facade.advanceTime(world, dt);
+			ticks++;
+		}
+		long elapsed = System.nanoTime() - start;
+		return new Result(this, ticks, elapsed);
+	}
+
+	/**
+	 * The statistics of a single run of a headless simulation.
+	 */
+	public static class Result {
+
+		private final String name;
+		private final long ticks;
+		private final double simulatedSeconds;
+		private final long elapsedNanos;
+		private final boolean gameOver;
+		private final boolean playerWon;
+		private final int alienHitPoints;
+		private final int[] alienLocation;
+		private final int nbPlants;
+		private final int nbSharks;
+		private final int nbSlimes;
+		private final int nbBuzams;
+		private final int nbValidatedMoves;
+		private final int nbMismatchedMoves;
+		private final double maxValidationDeviation;
+		private final long[] nbTicksInTier;
+		private final long nbSleepingTicks;
+		private final long nbWakeUps;
+
+		private Result(HeadlessSimulation simulation, long ticks,
+				long elapsedNanos) {
+			IFacadePart3 facade = simulation.facade;
+			World world = simulation.world;
+			this.name = simulation.name;
+			this.ticks = ticks;
+			this.simulatedSeconds = ticks * simulation.dt;
+			this.elapsedNanos = elapsedNanos;
+			this.gameOver = facade.isGameOver(world);
+			this.playerWon = facade.didPlayerWin(world);
+			this.alienHitPoints = facade.getNbHitPoints(simulation.alien);
+			this.alienLocation = facade.getLocation(simulation.alien);
+			this.nbPlants = size(facade.getPlants(world));
+			this.nbSharks = size(facade.getSharks(world));
+			this.nbSlimes = size(facade.getSlimes(world));
+			Collection<Buzam> buzams = world.getAllBuzams();
+			this.nbBuzams = (int) buzams.stream().filter(b -> !b.isDead())
+					.count();
+			this.nbValidatedMoves = world.getNbValidatedMoves();
+			this.nbMismatchedMoves = world.getNbMismatchedMoves();
+			this.maxValidationDeviation = world.getMaxValidationDeviation();
+			this.nbTicksInTier = new long[SimulationTier.values().length];
+			for (SimulationTier tier : SimulationTier.values()) {
+				nbTicksInTier[tier.ordinal()] = world.getNbTicksInTier(tier);
+			}
+			this.nbSleepingTicks = world.getNbSleepingTicks();
+			this.nbWakeUps = world.getNbWakeUps();
+		}
+
+		private static int size(Collection<?> collection) {
+			return collection == null ? 0 : collection.size();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getTicks() {
+			return ticks;
+		}
+
+		public double getSimulatedSeconds() {
+			return simulatedSeconds;
+		}
+
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+
+		public double getTicksPerSecond() {
+			return ticks / (elapsedNanos / 1e9);
+		}
+
+		/**
+		 * Return how many times faster than real time the world was simulated.
+		 */
+		public double getSpeedup() {
+			return simulatedSeconds / (elapsedNanos / 1e9);
+		}
+
+		public boolean isGameOver() {
+			return gameOver;
+		}
+
+		public boolean didPlayerWin() {
+			return playerWon;
+		}
+
+		public int getAlienHitPoints() {
+			return alienHitPoints;
+		}
+
+		public int[] getAlienLocation() {
+			return alienLocation.clone();
+		}
+
+		public int getNbPlants() {
+			return nbPlants;
+		}
+
+		public int getNbSharks() {
+			return nbSharks;
+		}
+
+		public int getNbSlimes() {
+			return nbSlimes;
+		}
+
+		public int getNbBuzams() {
+			return nbBuzams;
+		}
+
+		/**
+		 * Return the number of continuous moves that were compared against
+		 * moving one pixel at a time, see {@link CollisionMode#VALIDATED}.
+		 */
+		public int getNbValidatedMoves() {
+			return nbValidatedMoves;
+		}
+
+		public int getNbMismatchedMoves() {
+			return nbMismatchedMoves;
+		}
+
+		public double getMaxValidationDeviation() {
+			return maxValidationDeviation;
+		}
+
+		/**
+		 * Return the number of times a game object was simulated at the given
+		 * level of detail, see {@link SimulationTier}.
+		 */
+		public long getNbTicksInTier(SimulationTier tier) {
+			return nbTicksInTier[tier.ordinal()];
+		}
+
+		/**
+		 * Return the number of times a game object was not advanced because
+		 * it was asleep.
+		 */
+		public long getNbSleepingTicks() {
+			return nbSleepingTicks;
+		}
+
+		public long getNbWakeUps() {
+			return nbWakeUps;
+		}
+
+		public static String header() {
+			return String.format("%-28s %9s %9s %11s %9s %-9s %5s %11s %6s %6s %6s %6s",
+					"run", "ticks", "sim s", "ticks/s", "speedup", "state",
+					"hp", "location", "plants", "sharks", "slimes", "buzams");
+		}
+
+		@Override
+		public String toString() {
+			String state = playerWon ? "won" : (gameOver ? "lost" : "running");
+			return String.format("%-28s %9d %9.2f %11.1f %9.1f %-9s %5d %11s %6d %6d %6d %6d",
+					name, ticks, simulatedSeconds, getTicksPerSecond(),
+					getSpeedup(), state, alienHitPoints, alienLocation[0]
+							+ "," + alienLocation[1], nbPlants, nbSharks,
+					nbSlimes, nbBuzams);
+		}
+	}
+}
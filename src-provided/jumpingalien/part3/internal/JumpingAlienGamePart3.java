@@ -1,17 +1,13 @@
 package jumpingalien.part3.internal;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Optional;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 import java.lang.Boolean;
 
 import jumpingalien.common.game.IActionHandler;
@@ -22,6 +18,7 @@ import jumpingalien.common.sprites.JumpingAlienSprites;
 import jumpingalien.model.program.programs.Program;
 import jumpingalien.model.game.*;
 import jumpingalien.part2.internal.AlienInfoProvider2;
+import jumpingalien.part2.internal.LevelAtlas;
 import jumpingalien.part2.internal.ObjectInfoProvider;
 import jumpingalien.part2.internal.Part2WorldInfoProvider;
 import jumpingalien.part2.internal.tmxfile.TMXFileReader;
@@ -31,11 +28,9 @@ import jumpingalien.part2.internal.tmxfile.data.Layer;
 import jumpingalien.part2.internal.tmxfile.data.Map;
 import jumpingalien.part2.internal.tmxfile.data.MapObject;
 import jumpingalien.part3.facade.IFacadePart3;
-import jumpingalien.part3.programs.ParseOutcome;
 import jumpingalien.util.Sprite;
 import ogp.framework.messages.Message;
 import ogp.framework.messages.MessageType;
-import ogp.framework.util.GUIUtils;
 
 public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
@@ -48,6 +43,9 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 	private Map map;
 
 	private int tileSize;
+	private final AlienInfoProvider2<Mazub> modelAlienInfoProvider;
+	private final Part2WorldInfoProvider modelWorldInfoProvider;
+	private final ObjectInfoProvider modelObjectInfoProvider;
 	private final ObjectInfoProvider objectInfoProvider;
 	private String currentMap;
 
@@ -56,12 +54,23 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 	public JumpingAlienGamePart3(Part3Options options, IFacadePart3 facade) {
 		super(options, facade);
 		this.random = new Random(options.getRandomSeed());
-		this.objectInfoProvider = createObjectInfoProvider();
-		this.evilTwinProvider = createEvilTwinInfoProvider();
+		this.modelAlienInfoProvider = createModelAlienInfoProvider();
+		this.modelWorldInfoProvider = createModelWorldInfoProvider();
+		this.modelObjectInfoProvider = createObjectInfoProvider();
+		this.modelEvilTwinProvider = createEvilTwinInfoProvider();
+		if (options.isRenderThreadEnabled()) {
+			this.objectInfoProvider = RenderSnapshot
+					.createObjectInfoProvider(this::getPaintedSnapshot);
+			this.evilTwinProvider = RenderSnapshot.createAlienInfoProvider(
+					this::getPaintedSnapshot, RenderSnapshot::getEvilTwin);
+		} else {
+			this.objectInfoProvider = modelObjectInfoProvider;
+			this.evilTwinProvider = modelEvilTwinProvider;
+		}
 	}
 
 	@Override
-	public void restart() {
+	public synchronized void restart() {
 		this.world = null;
 		this.alien = null;
 
@@ -95,6 +104,12 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 			}
 
 			tileSize = map.getTileSizeY();
+
+			java.util.Map<String, Sprite[]> spriteSets = LevelAtlas
+					.getSpriteSets();
+			spriteSets.put("buzam", Resources.BUZAM_SPRITESET);
+			System.out.println("Loaded " + filename + ": "
+					+ LevelAtlas.install(map, spriteSets));
 		} catch (Throwable e) {
 			addMessage(new Message(MessageType.ERROR, "Error while reading "
 					+ filename + ": " + e.getMessage()));
@@ -128,8 +143,17 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 		addMazub();
 
+		if (getOptions().getTickRate() > 0) {
+			getWorld().setFixedTimeStep(1.0 / getOptions().getTickRate(),
+					getOptions().getMaxTicksPerFrame());
+		}
+
 		// no more object creations or tile changes after starting
 		getFacade().startGame(getWorld());
+
+		if (getOptions().isRenderThreadEnabled()) {
+			publishRenderSnapshot();
+		}
 	}
 
 	private void addGameObjects() {
@@ -163,28 +187,8 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		getFacade().addBuzam(getWorld(), buzam);
 	}
 
-	@SuppressWarnings("unchecked")
 	private Optional<Program> parseProgram(String filename) {
-		try {
-			InputStream is = GUIUtils.openResource(filename);
-			BufferedReader br = new BufferedReader(new InputStreamReader(is));
-			String text = br.lines().collect(Collectors.joining("\n"));
-			ParseOutcome<?> outcome = getFacade().parse(text);
-			if (outcome.isSuccess()) {
-				return Optional.ofNullable((Program) outcome.getResult());
-			} else {
-				System.out.println("Errors while parsing program '" + filename
-						+ "':");
-				for (String error : (List<String>) outcome.getResult()) {
-					System.out.println(error);
-				}
-			}
-		} catch (IOException e) {
-			System.out.println("Error while opening '" + filename + "': "
-					+ e.getMessage());
-			e.printStackTrace();
-		}
-		return Optional.empty();
+		return ProgramCache.getProgram(filename);
 	}
 
 	private void setTileTypes() {
@@ -300,6 +304,7 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 	private java.util.Map<Integer, School> schools = new HashMap<Integer, School>();
 
+	private final AlienInfoProvider2<Buzam> modelEvilTwinProvider;
 	private final AlienInfoProvider2<Buzam> evilTwinProvider;
 
 	private School getSlimeSchool(int nb) {
@@ -332,6 +337,90 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		return world;
 	}
 
+	@Override
+	protected synchronized void doUpdate(double dt) {
+		boolean wasRunning = isRunning();
+		super.doUpdate(dt);
+		if (getOptions().isRenderThreadEnabled() && wasRunning) {
+			publishRenderSnapshot();
+		}
+	}
+
+	/**
+	 * With a separate render thread, the painters only see the model through
+	 * render snapshots. The simulation thread publishes a new snapshot after
+	 * every update in which the world may have changed; the render thread
+	 * takes the last published one at the start of every frame, and paints
+	 * that one for the whole frame. Neither thread waits for the other.
+	 */
+	private final AtomicReference<RenderSnapshot> publishedSnapshot = new AtomicReference<>(
+			RenderSnapshot.EMPTY);
+
+	private volatile RenderSnapshot paintedSnapshot = RenderSnapshot.EMPTY;
+
+	private long nbRenderSnapshots;
+
+	private void publishRenderSnapshot() {
+		publishedSnapshot.set(takeRenderSnapshot());
+	}
+
+	/**
+	 * Paint the last snapshot published by the simulation from now on, until
+	 * this method is called again. Only needed if the render thread is
+	 * enabled.
+	 */
+	public void beginFrame() {
+		paintedSnapshot = publishedSnapshot.get();
+	}
+
+	/**
+	 * Return the snapshot that is painted in the current frame.
+	 */
+	public RenderSnapshot getPaintedSnapshot() {
+		return paintedSnapshot;
+	}
+
+	/**
+	 * Read everything that is painted from the model.
+	 */
+	private RenderSnapshot takeRenderSnapshot() {
+		ObjectInfoProvider objects = modelObjectInfoProvider;
+		java.util.Map<Slime, RenderSnapshot.ObjectState> slimes = new LinkedHashMap<>();
+		for (Slime slime : objects.getSlimes()) {
+			slimes.put(slime, new RenderSnapshot.ObjectState(objects
+					.getLocation(slime), objects.getCurrentSprite(slime),
+					objects.getSchool(slime)));
+		}
+		java.util.Map<Shark, RenderSnapshot.ObjectState> sharks = new LinkedHashMap<>();
+		for (Shark shark : objects.getSharks()) {
+			sharks.put(shark, new RenderSnapshot.ObjectState(objects
+					.getLocation(shark), objects.getCurrentSprite(shark),
+					Optional.empty()));
+		}
+		java.util.Map<Plant, RenderSnapshot.ObjectState> plants = new LinkedHashMap<>();
+		for (Plant plant : objects.getPlants()) {
+			plants.put(plant, new RenderSnapshot.ObjectState(objects
+					.getLocation(plant), objects.getCurrentSprite(plant),
+					Optional.empty()));
+		}
+		Part2WorldInfoProvider worldInfo = modelWorldInfoProvider;
+		return new RenderSnapshot(nbRenderSnapshots++, getWorld(),
+				worldInfo.getVisibleWindow(), worldInfo.getWorldSize(),
+				Optional.of(worldInfo.getTileLength()), worldInfo.isGameOver(),
+				worldInfo.didPlayerWin(), takeAlienState(modelAlienInfoProvider),
+				buzam == null ? null : takeAlienState(modelEvilTwinProvider),
+				slimes, sharks, plants);
+	}
+
+	private static <T> RenderSnapshot.AlienState<T> takeAlienState(
+			AlienInfoProvider2<T> provider) {
+		return new RenderSnapshot.AlienState<T>(provider.getAlien(),
+				provider.getAlienXY(), provider.getAlienSize(),
+				provider.getPlayerSprite(), provider.getAlienVelocity(),
+				provider.getAlienAcceleration(), provider.getAlienHealth(),
+				provider.isImmune());
+	}
+
 	@Override
 	protected void advanceTime(double dt) {
 		getFacade().advanceTime(getWorld(), dt);
@@ -352,6 +441,14 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 	@Override
 	protected AlienInfoProvider2<Mazub> createAlienInfoProvider() {
+		if (getOptions().isRenderThreadEnabled()) {
+			return RenderSnapshot.createAlienInfoProvider(
+					this::getPaintedSnapshot, RenderSnapshot::getAlien);
+		}
+		return createModelAlienInfoProvider();
+	}
+
+	private AlienInfoProvider2<Mazub> createModelAlienInfoProvider() {
 		return new AlienInfoProvider2<Mazub>() {
 
 			@Override
@@ -449,6 +546,13 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 	@Override
 	protected WorldInfoProvider createWorldInfoProvider() {
+		if (getOptions().isRenderThreadEnabled()) {
+			return createSnapshotWorldInfoProvider();
+		}
+		return createModelWorldInfoProvider();
+	}
+
+	private Part2WorldInfoProvider createModelWorldInfoProvider() {
 		return new Part2WorldInfoProvider() {
 
 			@Override
@@ -504,6 +608,66 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		};
 	}
 
+	/**
+	 * Return a provider of the world in the painted snapshot. Its tiles are
+	 * read from the model: they do not change once the game has started.
+	 */
+	private Part2WorldInfoProvider createSnapshotWorldInfoProvider() {
+		return new Part2WorldInfoProvider() {
+
+			@Override
+			public Optional<int[]> getVisibleWindow() {
+				return getPaintedSnapshot().getVisibleWindow();
+			}
+
+			@Override
+			public Optional<int[][]> getTilesIn(int left, int bottom,
+					int right, int top) {
+				return getPaintedSnapshot().getWorld().flatMap(
+						world -> catchErrorGet(() -> getFacade()
+								.getTilePositionsIn(world, left, bottom,
+										right, top)));
+			}
+
+			@Override
+			public Optional<TileType> getGeologicalFeature(int bottomLeftX,
+					int bottomLeftY) {
+				return getPaintedSnapshot().getWorld().flatMap(
+						world -> catchErrorGet(() -> TileType
+								.fromValue(getFacade().getGeologicalFeature(
+										world, bottomLeftX, bottomLeftY))));
+			}
+
+			@Override
+			public Optional<int[]> getBottomLeftPixelOfTile(int tileX, int tileY) {
+				return getPaintedSnapshot().getWorld().flatMap(
+						world -> catchErrorGet(() -> getFacade()
+								.getBottomLeftPixelOfTile(world, tileX, tileY)));
+			}
+
+			@Override
+			public Optional<int[]> getWorldSize() {
+				return getPaintedSnapshot().getWorldSize();
+			}
+
+			@Override
+			public int getTileLength() {
+				return getPaintedSnapshot().getTileLength().orElse(tileSize);
+			}
+
+			@Override
+			public Optional<Boolean> isGameOver() {
+				return getPaintedSnapshot().isGameOver();
+			}
+
+			@Override
+			public Optional<Boolean> didPlayerWin() {
+				return getPaintedSnapshot().didPlayerWin();
+			}
+
+		};
+	}
+
 	@Override
 	public Part2WorldInfoProvider getWorldInfoProvider() {
 		return (Part2WorldInfoProvider) super.getWorldInfoProvider();
@@ -0,0 +1,343 @@
+package jumpingalien.part3.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import jumpingalien.model.game.Buzam;
+import jumpingalien.model.game.CollisionMode;
+import jumpingalien.model.game.School;
+import jumpingalien.model.game.World;
+import jumpingalien.model.program.programs.Program;
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.MapObject;
+import jumpingalien.part3.facade.IFacadePart3;
+import jumpingalien.util.Sprite;
+
+/**
+ * Builds a started world from a TMX level file through the facade, without
+ * any GUI. The world is populated in the same way as
+ * {@link JumpingAlienGamePart3} does.
+ */
+public class LevelLoader {
+
+	/**
+	 * Determines which game objects are controlled by a program.
+	 */
+	public enum ProgramMode {
+		/** No game object gets a program. */
+		NATIVE,
+		/** Every game object gets a program. */
+		PROGRAM,
+		/** Each game object gets a program with a chance of 50%, like in the game. */
+		RANDOM
+	}
+
+	private static final String ATTR_BUZAM_INITIAL_Y = "initialBuzamY";
+	private static final String ATTR_BUZAM_INITIAL_X = "initialBuzamX";
+
+	public static final int DEFAULT_VISIBLE_WIDTH = 1024;
+	public static final int DEFAULT_VISIBLE_HEIGHT = 768;
+
+	private final IFacadePart3 facade;
+	private final TMXFileReader reader;
+
+	private ProgramMode programMode = ProgramMode.RANDOM;
+	private long randomSeed = 123;
+	private int maxObjects = Integer.MAX_VALUE;
+	private CollisionMode collisionMode = CollisionMode.STEPPED;
+	private double reducedDistance = Double.POSITIVE_INFINITY;
+	private double frozenDistance = Double.POSITIVE_INFINITY;
+	private boolean sleepingAllowed = true;
+	private int visibleWidth = DEFAULT_VISIBLE_WIDTH;
+	private int visibleHeight = DEFAULT_VISIBLE_HEIGHT;
+	private String plantProgramFilename = Resources.PLANT_PROGRAM_FILENAME;
+	private String sharkProgramFilename = Resources.SHARK_PROGRAM_FILENAME;
+	private String slimeProgramFilename = Resources.SLIME_PROGRAM_FILENAME;
+	private String buzamProgramFilename = Resources.BUZAM_PROGRAM_FILENAME;
+
+	public LevelLoader(IFacadePart3 facade) {
+		this(facade, "levels/");
+	}
+
+	public LevelLoader(IFacadePart3 facade, String levelsFolder) {
+		this.facade = facade;
+		this.reader = new TMXFileReader(levelsFolder);
+	}
+
+	public IFacadePart3 getFacade() {
+		return facade;
+	}
+
+	public ProgramMode getProgramMode() {
+		return programMode;
+	}
+
+	public LevelLoader setProgramMode(ProgramMode programMode) {
+		this.programMode = programMode;
+		return this;
+	}
+
+	public long getRandomSeed() {
+		return randomSeed;
+	}
+
+	public LevelLoader setRandomSeed(long randomSeed) {
+		this.randomSeed = randomSeed;
+		return this;
+	}
+
+	public int getMaxObjects() {
+		return maxObjects;
+	}
+
+	/**
+	 * Limit the number of plants, sharks and slimes that are added to the
+	 * world. Map objects are taken in the order of their id.
+	 */
+	public LevelLoader setMaxObjects(int maxObjects) {
+		this.maxObjects = maxObjects;
+		return this;
+	}
+
+	public CollisionMode getCollisionMode() {
+		return collisionMode;
+	}
+
+	/**
+	 * Set the collision mode of the worlds created by this loader.
+	 */
+	public LevelLoader setCollisionMode(CollisionMode collisionMode) {
+		this.collisionMode = collisionMode;
+		return this;
+	}
+
+	/**
+	 * Set the distances to the visible window beyond which the game objects
+	 * of the worlds created by this loader are simulated at a reduced level
+	 * of detail and are frozen.
+	 */
+	public LevelLoader setSimulationDistances(double reducedDistance,
+			double frozenDistance) {
+		this.reducedDistance = reducedDistance;
+		this.frozenDistance = frozenDistance;
+		return this;
+	}
+
+	/**
+	 * Set whether game objects in the worlds created by this loader may be
+	 * put to sleep while they are at rest.
+	 */
+	public LevelLoader setSleepingAllowed(boolean sleepingAllowed) {
+		this.sleepingAllowed = sleepingAllowed;
+		return this;
+	}
+
+	public LevelLoader setVisibleWindow(int width, int height) {
+		this.visibleWidth = width;
+		this.visibleHeight = height;
+		return this;
+	}
+
+	public LevelLoader setPlantProgramFilename(String filename) {
+		this.plantProgramFilename = filename;
+		return this;
+	}
+
+	public LevelLoader setSharkProgramFilename(String filename) {
+		this.sharkProgramFilename = filename;
+		return this;
+	}
+
+	public LevelLoader setSlimeProgramFilename(String filename) {
+		this.slimeProgramFilename = filename;
+		return this;
+	}
+
+	public LevelLoader setBuzamProgramFilename(String filename) {
+		this.buzamProgramFilename = filename;
+		return this;
+	}
+
+	/**
+	 * Use the files plant.txt, shark.txt, slime.txt and buzam.txt in the given
+	 * folder as the programs of the game objects.
+	 */
+	public LevelLoader setProgramFolder(String folder) {
+		String prefix = folder.endsWith("/") ? folder : folder + "/";
+		return setPlantProgramFilename(prefix + "plant.txt")
+				.setSharkProgramFilename(prefix + "shark.txt")
+				.setSlimeProgramFilename(prefix + "slime.txt")
+				.setBuzamProgramFilename(prefix + "buzam.txt");
+	}
+
+	/**
+	 * Read the given level file from the levels folder of this loader.
+	 *
+	 * @throws IllegalArgumentException
+	 *             The file cannot be read or is not a valid level.
+	 */
+	public Map readMap(String filename) throws IllegalArgumentException {
+		Map map = reader.read(filename);
+		if (map.getTileSizeY() != map.getTileSizeX()) {
+			throw new IllegalArgumentException(
+					"Can only work with square tile sizes");
+		}
+		if (map.getLayer("Terrain") == null) {
+			throw new IllegalArgumentException(
+					"The map must have a layer called 'Terrain'");
+		}
+		return map;
+	}
+
+	/**
+	 * Create and start a world for the given level file.
+	 */
+	public World load(String filename) throws IllegalArgumentException {
+		return load(readMap(filename));
+	}
+
+	/**
+	 * Create and start a world for the given map.
+	 */
+	public World load(Map map) {
+		Random random = new Random(randomSeed);
+		java.util.Map<Integer, School> schools = new HashMap<Integer, School>();
+		World world = facade.createWorld(map.getTileSizeX(),
+				map.getNbTilesX(), map.getNbTilesY(), visibleWidth,
+				visibleHeight, map.getTargetTileX(), map.getTargetTileY());
+		world.setCollisionMode(collisionMode);
+		world.setSleepingAllowed(sleepingAllowed);
+		world.setSeed(randomSeed);
+		if (reducedDistance != Double.POSITIVE_INFINITY) {
+			world.setSimulationDistances(reducedDistance, frozenDistance,
+					world.getReducedTimeStep());
+		}
+		setTileTypes(world, map);
+		List<MapObject> objects = new ArrayList<MapObject>(map.getObjects());
+		objects.sort(Comparator.comparingInt(MapObject::getId));
+		int nbObjects = 0;
+		for (MapObject obj : objects) {
+			if (nbObjects >= maxObjects) {
+				break;
+			}
+			if (addObject(world, obj, random, schools)) {
+				nbObjects++;
+			}
+		}
+		addBuzam(world, map, random);
+		facade.setMazub(world, facade.createMazub(map.getInitialPositionX(),
+				map.getInitialPositionY(), Resources.ALIEN_SPRITESET));
+		facade.startGame(world);
+		return world;
+	}
+
+	private void setTileTypes(World world, Map map) {
+		Layer terrainLayer = map.getLayer("Terrain");
+		for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
+			for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
+				ImageTile tile = terrainLayer.getTile(tileX, tileY);
+				if (tile != null) {
+					facade.setGeologicalFeature(world, tileX, tileY, tile
+							.getType().getValue());
+				} else {
+					facade.setGeologicalFeature(world, tileX, tileY,
+							TileType.AIR.getValue());
+				}
+			}
+		}
+	}
+
+	private boolean addObject(World world, MapObject obj, Random random,
+			java.util.Map<Integer, School> schools) {
+		switch (obj.getTile().getOSIndependentFilename()) {
+		case Resources.PLANT_LEFT_FILENAME: {
+			Sprite[] sprites = new Sprite[] { Resources.PLANT_SPRITE_LEFT,
+					Resources.PLANT_SPRITE_RIGHT };
+			Optional<Program> program = getProgram(
+					plantProgramFilename, random);
+			facade.addPlant(world, program.isPresent() ? facade
+					.createPlantWithProgram(obj.getX(), obj.getY(), sprites,
+							program.get()) : facade.createPlant(obj.getX(),
+					obj.getY(), sprites));
+			return true;
+		}
+		case Resources.SHARK_LEFT_FILENAME:
+		case Resources.SHARK_LEFT2_FILENAME:
+		case Resources.SHARK_DEAD_FILENAME: {
+			Sprite[] sprites = new Sprite[] { Resources.SHARK_SPRITE_LEFT,
+					Resources.SHARK_SPRITE_RIGHT };
+			Optional<Program> program = getProgram(
+					sharkProgramFilename, random);
+			facade.addShark(world, program.isPresent() ? facade
+					.createSharkWithProgram(obj.getX(), obj.getY(), sprites,
+							program.get()) : facade.createShark(obj.getX(),
+					obj.getY(), sprites));
+			return true;
+		}
+		case Resources.SLIME_LEFT_FILENAME:
+		case Resources.SLIME_LEFT2_FILENAME:
+		case Resources.SLIME_DEAD_FILENAME: {
+			Sprite[] sprites = new Sprite[] { Resources.SLIME_SPRITE_LEFT,
+					Resources.SLIME_SPRITE_RIGHT };
+			School school = schools.computeIfAbsent(obj.getIntAttribute("school")
+					.orElse(0), i -> facade.createSchool());
+			Optional<Program> program = getProgram(
+					slimeProgramFilename, random);
+			facade.addSlime(world, program.isPresent() ? facade
+					.createSlimeWithProgram(obj.getX(), obj.getY(), sprites,
+							school, program.get()) : facade.createSlime(
+					obj.getX(), obj.getY(), sprites, school));
+			return true;
+		}
+		default:
+			System.out
+					.println("ERROR while loading level: don't know how to deal with object "
+							+ obj);
+			return false;
+		}
+	}
+
+	private void addBuzam(World world, Map map, Random random) {
+		if (!map.hasAttribute(ATTR_BUZAM_INITIAL_X)
+				|| !map.hasAttribute(ATTR_BUZAM_INITIAL_Y)) {
+			return;
+		}
+		int buzamX = Integer.parseInt(map.getAttribute(ATTR_BUZAM_INITIAL_X));
+		int buzamY = Integer.parseInt(map.getAttribute(ATTR_BUZAM_INITIAL_Y));
+		Optional<Program> program = getProgram(
+				buzamProgramFilename, random);
+		Buzam buzam;
+		if (program.isPresent()) {
+			buzam = facade.createBuzamWithProgram(buzamX, buzamY,
+					Resources.BUZAM_SPRITESET, program.get());
+		} else {
+			buzam = facade.createBuzam(buzamX, buzamY,
+					Resources.BUZAM_SPRITESET);
+		}
+		facade.addBuzam(world, buzam);
+	}
+
+	/**
+	 * Return a fresh program for a single game object, according to the
+	 * program mode of this loader.
+	 */
+	private Optional<Program> getProgram(String filename, Random random) {
+		if (programMode == ProgramMode.NATIVE
+				|| (programMode == ProgramMode.RANDOM && !random.nextBoolean())) {
+			return Optional.empty();
+		}
+		return parseProgram(filename);
+	}
+
+	public Optional<Program> parseProgram(String filename) {
+		return ProgramCache.getProgram(filename);
+	}
+}
@@ -109,6 +109,12 @@ public class Part3GameScreen extends
 							.map(ar -> String.format("(%d,%d), (%d, %d)",
 									ar[0], ar[1], ar[2], ar[3]))
 							.orElse("Unknown"));
+			debugInfoPainter.addInfo("Slime sprites", () -> GameObjectPainter
+					.getSlimeSpriteCache().toString());
+			if (getOptions().isRenderThreadEnabled()) {
+				debugInfoPainter.addInfo("Render snapshot", () -> getGame()
+						.getPaintedSnapshot().toString());
+			}
 			addPainter(debugInfoPainter);
 		}
 
@@ -165,8 +171,15 @@ public class Part3GameScreen extends
 		addPainter(new GameOverPainter(this, getGame().getWorldInfoProvider()));
 	}
 
+	@Override
+	public void screenStarted() {
+		super.screenStarted();
+		getGame().beginFrame();
+	}
+
 	@Override
 	public void updateState(double dt) {
+		getGame().beginFrame();
 		positionMainCamera();
 		positionZoomCamera();
 
@@ -14,6 +14,45 @@ public class Part3Options extends Part2Options {
 		this.randomSeed = randomSeed;
 	}
 
+	private int tickRate = 0;
+	
+	/**
+	 * The number of fixed ticks per second the world is advanced in, or zero
+	 * to advance the world once per frame.
+	 */
+	public int getTickRate() {
+		return tickRate;
+	}
+	
+	public void setTickRate(int tickRate) {
+		this.tickRate = tickRate;
+	}
+	
+	private int maxTicksPerFrame = 5;
+	
+	public int getMaxTicksPerFrame() {
+		return maxTicksPerFrame;
+	}
+	
+	public void setMaxTicksPerFrame(int maxTicksPerFrame) {
+		this.maxTicksPerFrame = maxTicksPerFrame;
+	}
+
+	private boolean renderThread = false;
+
+	/**
+	 * Whether the world is advanced on a simulation thread of its own, while
+	 * the screen is painted from the last snapshot of the world it published.
+	 */
+	@Override
+	public boolean isRenderThreadEnabled() {
+		return renderThread;
+	}
+
+	public void setRenderThreadEnabled(boolean renderThread) {
+		this.renderThread = renderThread;
+	}
+
 	public static Part3Options parse(String[] args) {
 		Part3Options options = new Part3Options();
 
@@ -23,6 +62,15 @@ public class Part3Options extends Part2Options {
 			case "-seed":
 				options.setRandomSeed(Long.parseLong(args[++i]));
 				break;
+			case "-tickrate":
+				options.setTickRate(Integer.parseInt(args[++i]));
+				break;
+			case "-maxticks":
+				options.setMaxTicksPerFrame(Integer.parseInt(args[++i]));
+				break;
+			case "-renderthread":
+				options.setRenderThreadEnabled(Boolean.parseBoolean(args[++i]));
+				break;
 			case "-targetfps":
 				options.setTargetFPS(Integer.parseInt(args[++i]));
 				break;
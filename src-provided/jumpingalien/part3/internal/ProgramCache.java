@@ -0,0 +1,100 @@
+package jumpingalien.part3.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import jumpingalien.model.program.ProgramFactory;
+import jumpingalien.model.program.expressions.Expression;
+import jumpingalien.model.program.programs.Program;
+import jumpingalien.model.program.statements.Statement;
+import jumpingalien.model.program.types.Type;
+import jumpingalien.part3.programs.ProgramParser;
+import jumpingalien.part3.programs.ProgramTemplate;
+import ogp.framework.util.GUIUtils;
+
+/**
+ * Parses each program file only once and hands out a fresh program for every
+ * game object that needs one.
+ * 
+ * Templates are keyed by the name of the resource and the hash of its
+ * contents, so an edited program file is parsed again. Every call of
+ * {@link #getProgram(String)} returns a new program, because a program can
+ * only be attached to a single game object.
+ */
+public class ProgramCache {
+
+	private static final ConcurrentMap<String, Optional<ProgramTemplate>> templates = new ConcurrentHashMap<>();
+
+	private ProgramCache() {
+	}
+
+	/**
+	 * Return a new program for the program text in the given resource, or an
+	 * empty optional if the resource cannot be read or parsed. Errors are
+	 * printed on standard output.
+	 */
+	public static Optional<Program> getProgram(String filename) {
+		String text;
+		try {
+			text = readResource(filename);
+		} catch (IOException e) {
+			System.out.println("Error while opening '" + filename + "': "
+					+ e.getMessage());
+			return Optional.empty();
+		}
+		String key = filename + "#" + Integer.toHexString(text.hashCode());
+		Optional<ProgramTemplate> template = templates.computeIfAbsent(key,
+				k -> parseTemplate(filename, text));
+		if (!template.isPresent()) {
+			return Optional.empty();
+		}
+		ProgramParser<Expression, Statement, Type, Program> parser = createParser();
+		Optional<Program> program = parser.instantiate(template.get());
+		if (!program.isPresent()) {
+			printErrors(filename, parser.getErrors());
+		}
+		return program;
+	}
+
+	/**
+	 * Forget all parsed templates.
+	 */
+	public static void clear() {
+		templates.clear();
+	}
+
+	private static Optional<ProgramTemplate> parseTemplate(String filename,
+			String text) {
+		ProgramParser<Expression, Statement, Type, Program> parser = createParser();
+		Optional<ProgramTemplate> template = parser.parseTemplate(text);
+		if (!template.isPresent()) {
+			printErrors(filename, parser.getErrors());
+		}
+		return template;
+	}
+
+	private static ProgramParser<Expression, Statement, Type, Program> createParser() {
+		return new ProgramParser<>(new ProgramFactory());
+	}
+
+	private static String readResource(String filename) throws IOException {
+		InputStream is = GUIUtils.openResource(filename);
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
+			return br.lines().collect(Collectors.joining("\n"));
+		}
+	}
+
+	private static void printErrors(String filename, List<String> errors) {
+		System.out.println("Errors while parsing program '" + filename + "':");
+		for (String error : errors) {
+			System.out.println(error);
+		}
+	}
+}
@@ -0,0 +1,355 @@
+package jumpingalien.part3.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.model.game.Plant;
+import jumpingalien.model.game.School;
+import jumpingalien.model.game.Shark;
+import jumpingalien.model.game.Slime;
+import jumpingalien.model.game.World;
+import jumpingalien.part2.internal.AlienInfoProvider2;
+import jumpingalien.part2.internal.ObjectInfoProvider;
+import jumpingalien.util.Sprite;
+
+/**
+ * The state of a world that is needed to paint it, as it was at the end of
+ * one update of the game.
+ *
+ * A snapshot is never modified once it has been taken, so it can be painted
+ * on another thread than the one that advances the world. The arrays it
+ * returns are copies. The only reference to the live world is used to look
+ * up its tiles, which do not change once the game has started.
+ */
+public final class RenderSnapshot {
+
+	/**
+	 * The snapshot of no world at all.
+	 */
+	public static final RenderSnapshot EMPTY = new RenderSnapshot(0, null,
+			Optional.empty(), Optional.empty(), Optional.empty(),
+			Optional.empty(), Optional.empty(), null, null,
+			Collections.emptyMap(), Collections.emptyMap(),
+			Collections.emptyMap());
+
+	private final long number;
+	private final long takenAt;
+	private final World world;
+	private final int[] visibleWindow;
+	private final int[] worldSize;
+	private final Integer tileLength;
+	private final Boolean gameOver;
+	private final Boolean playerWon;
+	private final AlienState<?> alien;
+	private final AlienState<?> evilTwin;
+	private final Map<Slime, ObjectState> slimes;
+	private final Map<Shark, ObjectState> sharks;
+	private final Map<Plant, ObjectState> plants;
+
+	/**
+	 * Values that could not be read from the model are empty. The given maps
+	 * must not be modified after the snapshot is created.
+	 */
+	RenderSnapshot(long number, World world, Optional<int[]> visibleWindow,
+			Optional<int[]> worldSize, Optional<Integer> tileLength,
+			Optional<Boolean> gameOver, Optional<Boolean> playerWon,
+			AlienState<?> alien, AlienState<?> evilTwin,
+			Map<Slime, ObjectState> slimes, Map<Shark, ObjectState> sharks,
+			Map<Plant, ObjectState> plants) {
+		this.number = number;
+		this.takenAt = System.nanoTime();
+		this.world = world;
+		this.visibleWindow = copy(visibleWindow.orElse(null));
+		this.worldSize = copy(worldSize.orElse(null));
+		this.tileLength = tileLength.orElse(null);
+		this.gameOver = gameOver.orElse(null);
+		this.playerWon = playerWon.orElse(null);
+		this.alien = alien;
+		this.evilTwin = evilTwin;
+		this.slimes = Collections.unmodifiableMap(slimes);
+		this.sharks = Collections.unmodifiableMap(sharks);
+		this.plants = Collections.unmodifiableMap(plants);
+	}
+
+	/**
+	 * Return the number of snapshots that were taken before this one.
+	 */
+	public long getNumber() {
+		return number;
+	}
+
+	/**
+	 * Return the time, in milliseconds, that has passed since this snapshot
+	 * was taken.
+	 */
+	public double getAgeMillis() {
+		return (System.nanoTime() - takenAt) / 1e6;
+	}
+
+	public Optional<World> getWorld() {
+		return Optional.ofNullable(world);
+	}
+
+	public Optional<int[]> getVisibleWindow() {
+		return Optional.ofNullable(copy(visibleWindow));
+	}
+
+	public Optional<int[]> getWorldSize() {
+		return Optional.ofNullable(copy(worldSize));
+	}
+
+	public Optional<Integer> getTileLength() {
+		return Optional.ofNullable(tileLength);
+	}
+
+	public Optional<Boolean> isGameOver() {
+		return Optional.ofNullable(gameOver);
+	}
+
+	public Optional<Boolean> didPlayerWin() {
+		return Optional.ofNullable(playerWon);
+	}
+
+	public Optional<AlienState<?>> getAlien() {
+		return Optional.ofNullable(alien);
+	}
+
+	public Optional<AlienState<?>> getEvilTwin() {
+		return Optional.ofNullable(evilTwin);
+	}
+
+	public Collection<Slime> getSlimes() {
+		return slimes.keySet();
+	}
+
+	public Collection<Shark> getSharks() {
+		return sharks.keySet();
+	}
+
+	public Collection<Plant> getPlants() {
+		return plants.keySet();
+	}
+
+	public Optional<ObjectState> getState(Slime slime) {
+		return Optional.ofNullable(slimes.get(slime));
+	}
+
+	public Optional<ObjectState> getState(Shark shark) {
+		return Optional.ofNullable(sharks.get(shark));
+	}
+
+	public Optional<ObjectState> getState(Plant plant) {
+		return Optional.ofNullable(plants.get(plant));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("#%d, %d objects, %.1f ms old", getNumber(),
+				slimes.size() + sharks.size() + plants.size(), getAgeMillis());
+	}
+
+	private static int[] copy(int[] array) {
+		return array == null ? null : array.clone();
+	}
+
+	private static double[] copy(double[] array) {
+		return array == null ? null : array.clone();
+	}
+
+	/**
+	 * The state of a slime, shark or plant in a snapshot.
+	 */
+	public static final class ObjectState {
+
+		private final int[] location;
+		private final ImageSprite sprite;
+		private final School school;
+
+		ObjectState(Optional<int[]> location, Optional<ImageSprite> sprite,
+				Optional<School> school) {
+			this.location = copy(location.orElse(null));
+			this.sprite = sprite.orElse(null);
+			this.school = school.orElse(null);
+		}
+
+		public Optional<int[]> getLocation() {
+			return Optional.ofNullable(copy(location));
+		}
+
+		public Optional<ImageSprite> getCurrentSprite() {
+			return Optional.ofNullable(sprite);
+		}
+
+		/**
+		 * Return the school of the slime, or an empty optional for sharks and
+		 * plants.
+		 */
+		public Optional<School> getSchool() {
+			return Optional.ofNullable(school);
+		}
+	}
+
+	/**
+	 * The state of Mazub or Buzam in a snapshot. Values that could not be
+	 * read from the model are empty.
+	 */
+	public static final class AlienState<T> {
+
+		private final T alien;
+		private final int[] location;
+		private final int[] size;
+		private final Sprite sprite;
+		private final double[] velocity;
+		private final double[] acceleration;
+		private final Integer health;
+		private final Boolean immune;
+
+		AlienState(T alien, Optional<int[]> location, Optional<int[]> size,
+				Optional<Sprite> sprite, Optional<double[]> velocity,
+				Optional<double[]> acceleration, Optional<Integer> health,
+				Optional<Boolean> immune) {
+			this.alien = alien;
+			this.location = copy(location.orElse(null));
+			this.size = copy(size.orElse(null));
+			this.sprite = sprite.orElse(null);
+			this.velocity = copy(velocity.orElse(null));
+			this.acceleration = copy(acceleration.orElse(null));
+			this.health = health.orElse(null);
+			this.immune = immune.orElse(null);
+		}
+
+		public T getAlien() {
+			return alien;
+		}
+	}
+
+	/**
+	 * Return a provider of the slimes, sharks and plants in the snapshot
+	 * returned by the given supplier at the time of each call.
+	 */
+	public static ObjectInfoProvider createObjectInfoProvider(
+			Supplier<RenderSnapshot> snapshot) {
+		return new ObjectInfoProvider() {
+
+			@Override
+			public Collection<Slime> getSlimes() {
+				return snapshot.get().getSlimes();
+			}
+
+			@Override
+			public Collection<Shark> getSharks() {
+				return snapshot.get().getSharks();
+			}
+
+			@Override
+			public Collection<Plant> getPlants() {
+				return snapshot.get().getPlants();
+			}
+
+			@Override
+			public Optional<int[]> getLocation(Plant plant) {
+				return snapshot.get().getState(plant)
+						.flatMap(ObjectState::getLocation);
+			}
+
+			@Override
+			public Optional<int[]> getLocation(Shark shark) {
+				return snapshot.get().getState(shark)
+						.flatMap(ObjectState::getLocation);
+			}
+
+			@Override
+			public Optional<int[]> getLocation(Slime slime) {
+				return snapshot.get().getState(slime)
+						.flatMap(ObjectState::getLocation);
+			}
+
+			@Override
+			public Optional<ImageSprite> getCurrentSprite(Plant plant) {
+				return snapshot.get().getState(plant)
+						.flatMap(ObjectState::getCurrentSprite);
+			}
+
+			@Override
+			public Optional<ImageSprite> getCurrentSprite(Shark shark) {
+				return snapshot.get().getState(shark)
+						.flatMap(ObjectState::getCurrentSprite);
+			}
+
+			@Override
+			public Optional<ImageSprite> getCurrentSprite(Slime slime) {
+				return snapshot.get().getState(slime)
+						.flatMap(ObjectState::getCurrentSprite);
+			}
+
+			@Override
+			public Optional<School> getSchool(Slime slime) {
+				return snapshot.get().getState(slime)
+						.flatMap(ObjectState::getSchool);
+			}
+		};
+	}
+
+	/**
+	 * Return a provider of the alien that the given function selects from the
+	 * snapshot returned by the given supplier at the time of each call. The
+	 * alien is null if the snapshot does not contain it.
+	 */
+	public static <T> AlienInfoProvider2<T> createAlienInfoProvider(
+			Supplier<RenderSnapshot> snapshot,
+			Function<RenderSnapshot, Optional<AlienState<?>>> selector) {
+		return new AlienInfoProvider2<T>() {
+
+			private Optional<AlienState<?>> getState() {
+				return selector.apply(snapshot.get());
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public T getAlien() {
+				return getState().map(state -> (T) state.getAlien()).orElse(
+						null);
+			}
+
+			@Override
+			public Optional<int[]> getAlienXY() {
+				return getState().map(state -> copy(state.location));
+			}
+
+			@Override
+			public Optional<int[]> getAlienSize() {
+				return getState().map(state -> copy(state.size));
+			}
+
+			@Override
+			public Optional<Sprite> getPlayerSprite() {
+				return getState().map(state -> state.sprite);
+			}
+
+			@Override
+			public Optional<double[]> getAlienVelocity() {
+				return getState().map(state -> copy(state.velocity));
+			}
+
+			@Override
+			public Optional<double[]> getAlienAcceleration() {
+				return getState().map(state -> copy(state.acceleration));
+			}
+
+			@Override
+			public Optional<Integer> getAlienHealth() {
+				return getState().map(state -> state.health);
+			}
+
+			@Override
+			public Optional<Boolean> isImmune() {
+				return getState().map(state -> state.immune);
+			}
+		};
+	}
+}
@@ -13,11 +13,7 @@ public class Resources extends jumpingalien.part2.internal.Resources {
 
 	public static final String BUZAM_PROGRAM_FILENAME = "resources/programs/buzam.txt";
 	
-	public static final Sprite[] BUZAM_SPRITESET = new Sprite[ALIEN_SPRITESET.length];
-	static {
-		for (int i = 0; i < BUZAM_SPRITESET.length; i++) {
-			BUZAM_SPRITESET[i] = ((ImageSprite) ALIEN_SPRITESET[i]).shiftHue(8);
-		}
-	}
+	public static final Sprite[] BUZAM_SPRITESET = ImageSprite.shiftHue(
+			ALIEN_SPRITESET, 8);
 
 }
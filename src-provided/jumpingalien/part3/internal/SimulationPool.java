@@ -0,0 +1,158 @@
+package jumpingalien.part3.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import jumpingalien.part3.internal.HeadlessSimulation.Result;
+
+/**
+ * Runs many independent headless simulations concurrently on a fixed number
+ * of worker threads.
+ *
+ * Every simulation is created by its supplier on the worker thread that runs
+ * it, so a world is only ever touched by a single thread. Worlds do not share
+ * any mutable state, hence no synchronization is needed while stepping them.
+ */
+public class SimulationPool {
+
+	private final int nbThreads;
+
+	public SimulationPool() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public SimulationPool(int nbThreads) {
+		if (nbThreads <= 0) {
+			throw new IllegalArgumentException("Invalid number of threads: "
+					+ nbThreads);
+		}
+		this.nbThreads = nbThreads;
+	}
+
+	public int getNbThreads() {
+		return nbThreads;
+	}
+
+	/**
+	 * Create and run all given simulations for the given number of simulated
+	 * seconds each, and return their results in the order of the suppliers.
+	 */
+	public Summary run(List<? extends Supplier<HeadlessSimulation>> simulations,
+			double simulatedSeconds) {
+		List<Callable<Result>> tasks = new ArrayList<Callable<Result>>();
+		for (Supplier<HeadlessSimulation> simulation : simulations) {
+			tasks.add(() -> simulation.get().run(simulatedSeconds));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(
+				nbThreads, Math.max(1, tasks.size())));
+		try {
+			long start = System.nanoTime();
+			List<Future<Result>> futures = executor.invokeAll(tasks);
+			List<Result> results = new ArrayList<Result>();
+			for (Future<Result> future : futures) {
+				results.add(future.get());
+			}
+			return new Summary(results, System.nanoTime() - start, nbThreads);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while simulating", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A simulation failed",
+					e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The aggregated results of running a batch of simulations in a pool.
+	 */
+	public static class Summary {
+
+		private final List<Result> results;
+		private final long wallNanos;
+		private final int nbThreads;
+
+		private Summary(List<Result> results, long wallNanos, int nbThreads) {
+			this.results = Collections.unmodifiableList(results);
+			this.wallNanos = wallNanos;
+			this.nbThreads = nbThreads;
+		}
+
+		public List<Result> getResults() {
+			return results;
+		}
+
+		public long getWallNanos() {
+			return wallNanos;
+		}
+
+		public int getNbThreads() {
+			return nbThreads;
+		}
+
+		public long getTotalTicks() {
+			long ticks = 0;
+			for (Result result : results) {
+				ticks += result.getTicks();
+			}
+			return ticks;
+		}
+
+		/**
+		 * Return the sum of the time each simulation spent stepping its world.
+		 */
+		public long getTotalSimulationNanos() {
+			long nanos = 0;
+			for (Result result : results) {
+				nanos += result.getElapsedNanos();
+			}
+			return nanos;
+		}
+
+		/**
+		 * Return the number of ticks of all simulations together per second of
+		 * wall clock time.
+		 */
+		public double getTicksPerSecond() {
+			return getTotalTicks() / (wallNanos / 1e9);
+		}
+
+		public int getNbWon() {
+			int won = 0;
+			for (Result result : results) {
+				if (result.didPlayerWin()) {
+					won++;
+				}
+			}
+			return won;
+		}
+
+		public int getNbLost() {
+			int lost = 0;
+			for (Result result : results) {
+				if (result.isGameOver() && !result.didPlayerWin()) {
+					lost++;
+				}
+			}
+			return lost;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"%d runs on %d threads: %d ticks in %.3f s wall time "
+							+ "(%.1f ticks/s, %.3f s simulation time), %d won, %d lost",
+					results.size(), nbThreads, getTotalTicks(), wallNanos / 1e9,
+					getTicksPerSecond(), getTotalSimulationNanos() / 1e9,
+					getNbWon(), getNbLost());
+		}
+	}
+}
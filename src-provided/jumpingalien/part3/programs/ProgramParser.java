@@ -105,7 +105,40 @@ public class ProgramParser<E, S, T, P> {
 	 */
 	protected Optional<P> parse(CharStream input) {
 		reset();
+		JumpingAlienProgParser.ProgramContext tree = parseTree(input);
+		if (errors.isEmpty()) {
+			return build(tree);
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Parse the given string into a template from which programs can be
+	 * created without parsing the text again.
+	 * 
+	 * @return The template, or an empty optional if the string has syntax
+	 *         errors. The errors can be retrieved with {@link #getErrors()}.
+	 */
+	public Optional<ProgramTemplate> parseTemplate(String string) {
+		reset();
+		JumpingAlienProgParser.ProgramContext tree = parseTree(new ANTLRInputStream(
+				string));
+		if (errors.isEmpty()) {
+			return Optional.of(new ProgramTemplate(tree));
+		}
+		return Optional.empty();
+	}
 
+	/**
+	 * Create a new program from the given template, using the factory of this
+	 * parser.
+	 */
+	public Optional<P> instantiate(ProgramTemplate template) {
+		reset();
+		return build(template.getTree());
+	}
+
+	private JumpingAlienProgParser.ProgramContext parseTree(CharStream input) {
 		JumpingAlienProgLexer lexer = new JumpingAlienProgLexer(input);
 		JumpingAlienProgParser parser = new JumpingAlienProgParser(
 				new CommonTokenStream(lexer));
@@ -117,9 +150,13 @@ public class ProgramParser<E, S, T, P> {
 				errors.add(msg + " (" + line + ", " + charPositionInLine + ")");
 			}
 		});
+		return parser.program();
+	}
+
+	private Optional<P> build(JumpingAlienProgParser.ProgramContext tree) {
 		ParserVisitor<E, S, T> visitor = new ParserVisitor<E, S, T>(factory);
 		try {
-			visitor.visit(parser.program());
+			visitor.visit(tree);
 			if (errors.isEmpty()) {
 				return Optional.ofNullable(factory.createProgram(
 						visitor.getMainStatement(), visitor.getGlobals()));
@@ -0,0 +1,25 @@
+package jumpingalien.part3.programs;
+
+import jumpingalien.part3.programs.internal.generated.JumpingAlienProgParser;
+
+/**
+ * The parse tree of a syntactically correct program text.
+ * 
+ * A template is created once with {@link ProgramParser#parseTemplate(String)}
+ * and can then be turned into any number of independent programs with
+ * {@link ProgramParser#instantiate(ProgramTemplate)}, which only visits the
+ * tree with the factory of the parser. A template is never modified, so it
+ * can be shared between threads.
+ */
+public final class ProgramTemplate {
+
+	private final JumpingAlienProgParser.ProgramContext tree;
+
+	ProgramTemplate(JumpingAlienProgParser.ProgramContext tree) {
+		this.tree = tree;
+	}
+
+	JumpingAlienProgParser.ProgramContext getTree() {
+		return tree;
+	}
+}
@@ -32,8 +32,20 @@ public abstract class GUI<TGame extends Game> {
 		return options;
 	}
 
+	/**
+	 * Return the statistics of the frames painted recently. When the game is
+	 * updated on a thread of its own, the game update time is the one of that
+	 * thread.
+	 */
 	public PerformanceStats getCurrentStats() {
-		return fpsCounter.getStats();
+		PerformanceStats result = fpsCounter.getStats();
+		PerformanceStats simulation = simulationStats;
+		if (simulation != null) {
+			result = new PerformanceStats(simulation.avgGameUpdateTime,
+					result.avgPaintTime, result.avgSleepTime, result.fps,
+					result.targetFPS);
+		}
+		return result;
 	}
 
 	public Frame getFrame() {
@@ -70,6 +82,10 @@ public abstract class GUI<TGame extends Game> {
 	private volatile boolean stopped = false;
 
 	private void gameLoop() {
+		if (options.isRenderThreadEnabled()) {
+			renderLoop();
+			return;
+		}
 
 		fpsCounter.start();
 
@@ -96,6 +112,73 @@ public abstract class GUI<TGame extends Game> {
 		}
 	}
 
+	private volatile PerformanceStats simulationStats;
+
+	private volatile Throwable simulationError;
+
+	/**
+	 * Update the game on a simulation thread, and paint the screen on this
+	 * thread at the same time, such that a slow update does not delay the
+	 * next frame and a slow frame does not delay the next update.
+	 * 
+	 * The game must be prepared to be updated on another thread than the one
+	 * that paints it.
+	 */
+	private void renderLoop() {
+		Thread simulation = new Thread(this::simulationLoop, "Simulation");
+		simulation.setDaemon(true);
+		simulation.start();
+
+		fpsCounter.start();
+
+		while (!stopped) {
+
+			double dt = fpsCounter.getTimeToAdvance();
+
+			fpsCounter.gameUpdated();
+
+			if (simulationError != null) {
+				throw new IllegalStateException("The game could not be updated",
+						simulationError);
+			}
+
+			screenPanel.update(dt);
+
+			fpsCounter.framePainted();
+
+			try {
+				Thread.sleep(fpsCounter.getTimeToSleep());
+			} catch (InterruptedException e) {
+			}
+
+			fpsCounter.frameDone();
+		}
+	}
+
+	private void simulationLoop() {
+		TimeKeeper updateCounter = new TimeKeeper(options.getTargetFPS());
+		updateCounter.start();
+		try {
+			while (!stopped) {
+
+				game.update(updateCounter.getTimeToAdvance());
+
+				updateCounter.gameUpdated();
+				updateCounter.framePainted();
+
+				try {
+					Thread.sleep(updateCounter.getTimeToSleep());
+				} catch (InterruptedException e) {
+				}
+
+				updateCounter.frameDone();
+				simulationStats = updateCounter.getStats();
+			}
+		} catch (Throwable e) {
+			simulationError = e;
+		}
+	}
+
 	public void exit() {
 		stopped = true;
 		frame.setVisible(false);
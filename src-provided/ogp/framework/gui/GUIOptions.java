@@ -5,4 +5,12 @@ public interface GUIOptions {
 	public double getTargetFPS();
 	
 	public boolean isFullScreenEnabled();
+
+	/**
+	 * Whether the game is updated on a thread of its own, separate from the
+	 * thread that paints the screen.
+	 */
+	public default boolean isRenderThreadEnabled() {
+		return false;
+	}
 }
@@ -1,7 +0,0 @@
-package jumpingalien.model.exceptions;
-
-public class BreakException extends RuntimeException {
-	
-	private static final long serialVersionUID = 100200307L;
-
-}
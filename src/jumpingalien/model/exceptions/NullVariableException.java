@@ -1,8 +0,0 @@
-package jumpingalien.model.exceptions;
-
-public class NullVariableException extends RuntimeException {
-	
-	private static final long serialVersionUID = 100200308L;
-}
-
-
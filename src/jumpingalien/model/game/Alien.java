@@ -1,12 +1,12 @@
 package jumpingalien.model.game;
 
 import java.util.HashSet;
+import java.util.List;
 
 import be.kuleuven.cs.som.annotate.*;
 import jumpingalien.model.exceptions.*;
 import jumpingalien.model.program.programs.Program;
 import jumpingalien.util.Sprite;
-import static jumpingalien.tests.util.TestUtils.doubleArray;
 
 public abstract class Alien extends Character implements JumpInterface{
 		
@@ -434,13 +434,13 @@ public abstract class Alien extends Character implements JumpInterface{
 	/**
 	 * Method to end the ducking movement of the Alien.
 	 * 
-	 * @effect	If one of the following conditions hold, no actions are taken.
+	 * @effect	If one of the following conditions hold, this Alien keeps ducking.
 	 * 			At least one of the tile the Alien overlaps with is not passable
 	 * 			and Alien is colliding with this tile in the upper direction.
 	 * 			| let
-	 * 			|	affectedTiles = getWorld().getTilesIn(getPosition().getDisplayedXPosition(),
-	 *			|	getPosition().getDisplayedYPosition(),getPosition().getDisplayedXPosition()
-	 *			|	+getWidth()-1, getPosition().getDisplayedYPosition()+getHeight()-1)
+	 * 			|	affectedTiles = getWorld().getTilesIn(getDisplayedXPosition(),
+	 *			|	getDisplayedYPosition(),getDisplayedXPosition()
+	 *			|	+getWidth()-1, getDisplayedYPosition()+getHeight()-1)
 	 *			| in 
 	 *			|	for some tile in affectedTiles:
 	 *			|		(!(tile.getGeoFeature().isPassable()) && isColliding(Direction.UP, tile))
@@ -463,45 +463,57 @@ public abstract class Alien extends Character implements JumpInterface{
 	 * 			Else if the ducking movement stops when moving to the left, the Alien starts running to the left.
 	 * 			| if (isMovingLeft())
 	 *			|	startMoveLeft()
-	 * @throws	CollisionException()
-	 * 			This Alien is colliding if there is a world and at least one of the tiles is not passable and colliding
-	 * 			with the Alien in the upper direction.
-	 * 			| ((getWorld()!= null) && (!(tile.getGeoFeature().isPassable()) && isColliding(Direction.UP, tile)))
-	 * 			This Alien is colliding if there is a world and at least one of the game objects is colliding
-	 * 			with the Alien in the upper direction.
-	 * 			| ((getWorld()!= null) && (object != this && isColliding(Direction.UP, object)))
+	 * @effect	If this Alien is blocked above once it stands up, it keeps ducking 
+	 * 			and it stands up as soon as it can.
+	 * 			| if ((getWorld()!= null) && isBlockedAbove())
+	 * 			|	then setIsDucked(true), updateSpriteIndex(), setEnableStandUp(true)
 	 */
 	public void endDuck(){
-		try {
-			setIsDucked(false);
-			if(getWorld()!= null){
+		setIsDucked(false);
+		if(getWorld()!= null){
+			updateSpriteIndex();
+			if(isBlockedAbove()){
+				setIsDucked(true);
 				updateSpriteIndex();
-				HashSet<Tile> affectedTiles = getWorld().getTilesIn(getPosition().getDisplayedXPosition(),
-						getPosition().getDisplayedYPosition(),getPosition().getDisplayedXPosition()
-						+getWidth()-1, getPosition().getDisplayedYPosition()+getHeight()-1);
-				for(Tile tile: affectedTiles){
-					if(!(tile.getGeoFeature().isPassable()) &&
-					   isColliding(Direction.UP, tile))
-						throw new CollisionException();
-				}
-				for(GameObject object: getWorld().getAllGameObjects()){
-					if(object != this && isColliding(Direction.UP, object))
-						throw new CollisionException();
-				}
-				setEnableStandUp(false);
-				setMaxHorVelocity(getMaxHorVelocityRunning());
-				if (isMoving(Direction.RIGHT))
-					startMove(Direction.RIGHT);
-				else if (isMoving(Direction.LEFT))
-					startMove(Direction.LEFT);
+				setEnableStandUp(true);
+				return;
 			}
-		} catch (CollisionException e) {
-			setIsDucked(true);
-			updateSpriteIndex();
-			setEnableStandUp(true);
+			setEnableStandUp(false);
+			setMaxHorVelocity(getMaxHorVelocityRunning());
+			if (isMoving(Direction.RIGHT))
+				startMove(Direction.RIGHT);
+			else if (isMoving(Direction.LEFT))
+				startMove(Direction.LEFT);
 		}
 	}
 	
+	/**
+	 * Check whether this Alien collides in the upper direction with an 
+	 * impassable tile or with another game object.
+	 * 
+	 * @return	...
+	 * 			| result == 
+	 * 			|	(for some tile in getOverlappingImpassableTiles():
+	 * 			|		isColliding(Direction.UP, tile)) ||
+	 * 			|	(for some object in getOverlappingGameObjects():
+	 * 			|		object != this && isColliding(Direction.UP, object))
+	 */
+	@Model
+	private boolean isBlockedAbove(){
+		List<Tile> impassableTiles = getOverlappingImpassableTiles();
+		for (int index = 0; index < impassableTiles.size(); index++){
+			if(isColliding(Direction.UP, impassableTiles.get(index)))
+				return true;
+		}
+		List<GameObject> overlappingObjects = getOverlappingGameObjects();
+		for (int index = 0; index < overlappingObjects.size(); index++){
+			GameObject object = overlappingObjects.get(index);
+			if(object != this && isColliding(Direction.UP, object))
+				return true;
+		}
+		return false;
+	}
+	
 	/**
 	 * Returns whether the Alien is able to stand up or not.
 	 */
@@ -526,7 +538,7 @@ public abstract class Alien extends Character implements JumpInterface{
 	
 	/**
 	 * A method that receives a position in the form of a double array 
-	 * and returns the corrected position, after the given position has been checked 
+	 * and corrects it in place, after the given position has been checked 
 	 * for whether or not this game object would collide with impassable tiles
 	 * if the given position would be assigned to this game object.
 	 * 
@@ -537,51 +549,44 @@ public abstract class Alien extends Character implements JumpInterface{
 	 * @pre		The given position must have 2 entries.
 	 * 			| newPos.length == 2
 	 * @note	In the current state, this method violates several rules connected
-	 * 			to good programming. It changes the state of an object and returns a value.
-	 * 			We are aware of this problem and we will solve it by defensive programming
-	 * 			before we hand in the final solution. 
+	 * 			to good programming. It changes the state of an object and corrects
+	 * 			the given position. We are aware of this problem and we will solve it 
+	 * 			by defensive programming before we hand in the final solution. 
 	 */
 	@Override
-	protected double[] updatePositionTileCollision(double[] newPos){
+	protected void updatePositionTileCollision(double[] newPos){
 		assert newPos.length == 2;
-		double newXPos = newPos[0];
-		double newYPos = newPos[1];
-		for (Tile impassableTile: getWorld().getImpassableTiles()){
+		List<Tile> impassableTiles = getOverlappingImpassableTiles();
+		for (int index = 0; index < impassableTiles.size(); index++){
+			Tile impassableTile = impassableTiles.get(index);
 			if (this.isOverlappingWith(impassableTile)){
 				if (isColliding(Direction.DOWN, impassableTile)){
-					//System.out.println("Colliding down");
 					if (isMoving(Direction.DOWN))
-						newYPos = this.getPosition().getYPosition();
+						newPos[1] = this.getYPosition();
 					endMovement(Direction.DOWN);
 					setCanFall(false);
 				}
 				else if(isColliding(Direction.UP, impassableTile)){
 					if (isMoving(Direction.UP))
-						newYPos = this.getPosition().getYPosition();
+						newPos[1] = this.getYPosition();
 					endMovement(Direction.UP);
-					//System.out.println("Colliding up");
 				}
 				if(isColliding(Direction.LEFT, impassableTile)){
-					if (isMoving(Direction.LEFT)){
-						newXPos = this.getPosition().getXPosition();
-					}
+					if (isMoving(Direction.LEFT))
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.LEFT);
 					if(isMoving(Direction.UP))
 						endJump();
-					//System.out.println("Colliding left");
 				}
 				else if(isColliding(Direction.RIGHT, impassableTile)){
-					if (isMoving(Direction.RIGHT)){
-						newXPos = this.getPosition().getXPosition();
-					}
+					if (isMoving(Direction.RIGHT))
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.RIGHT);
 					if(isMoving(Direction.UP))
 						endJump();
-					//System.out.println("Colliding right");
 				}
 			}
 		}
-		return doubleArray(newXPos,newYPos);
 	}
 	
 	/**
@@ -638,32 +643,30 @@ public abstract class Alien extends Character implements JumpInterface{
 	 * 			of Alien. If there is no world attached to this Alien, this position
 	 * 			will be the new position for this Alien.
 	 * 			Else, some checkers inspect whether this Alien can have the newly 
-	 * 			calculated position as its position. They return the corrected position.
+	 * 			calculated position as its position. They correct that position in place.
 	 * 			This corrected position is than set as the new position for this Alien.
 	 * 			| let
-	 * 			|	oldPos = getPosition(),
 	 * 			| 	if(getWorld() != null)
 	 * 			|	newPos = f(getPosition(),getHorDirection(),getHorVelocity(),
 	 * 			|			   getHorAcceleration(),getVertDirection(),
 	 * 			|			   getVertVelocity(),getVertAcceleration(),timeDuration),
-	 * 			|	newPos = updatePositionTileCollision(newPos.toDoubleArray()),
-	 * 			|	newPos = updatePositionObjectCollision(newPos)
+	 * 			|	updatePositionTileCollision(newPos),
+	 * 			|	updatePositionObjectCollision(newPos)
 	 * 			| in
-	 * 			|	setPosition(toPosition(newPos,getWorld())),
-	 * 			|	oldPosition.terminate()
+	 * 			|	moveWithinWorld(newPos[0],newPos[1])
 	 */
 	@Override
 	protected void updatePosition(double timeDuration){
-		double newXPos = getPosition().getXPosition() + getHorDirection().getFactor()*
+		double newXPos = getXPosition() + getHorDirection().getFactor()*
 				(getHorVelocity()*timeDuration+ 0.5*getHorAcceleration()*Math.pow(timeDuration, 2))*100;
-		double newYPos = getPosition().getYPosition() + 
+		double newYPos = getYPosition() + 
 				((getVertDirection().getFactor()*getVertVelocity()*timeDuration)+ 
 				0.5*getVertAcceleration()*Math.pow(timeDuration, 2))*100;
 
-		double[] newPos = doubleArray(newXPos,newYPos);
+		double[] newPos = getNewPosition(newXPos,newYPos);
 		if(getWorld() != null){
-			newPos = updatePositionTileCollision(doubleArray(newXPos,newYPos));
-			newPos = updatePositionObjectCollision(newPos);
+			updatePositionTileCollision(newPos);
+			updatePositionObjectCollision(newPos);
 			
 			if (canFall() && !isMoving(Direction.UP)){
 				startFall();
@@ -671,8 +674,7 @@ public abstract class Alien extends Character implements JumpInterface{
 			else
 				setCanFall(true);
 		}
-		getPosition().terminate();
-		setPosition(toPosition(newPos, getWorld()));
+		moveWithinWorld(newPos[0], newPos[1]);
 	}
 
 	/**
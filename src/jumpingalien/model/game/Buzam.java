@@ -1,6 +1,6 @@
 package jumpingalien.model.game;
 
-import java.util.Set;
+import java.util.List;
 
 import jumpingalien.model.program.programs.Program;
 import jumpingalien.util.Sprite;
@@ -131,7 +131,6 @@ public class Buzam extends Alien{
 	 * 			| if(isDead() && getHpTimer().getTimeSum()>= 0.6)
 	 * 			|	 terminate()
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	protected void updateHitPoints(){
 		Mazub alien = getWorld().getMazub();
@@ -145,10 +144,13 @@ public class Buzam extends Alien{
 			if(isOverlappingWith(Terrain.MAGMA)){
 				updateHitPointsTerrain(Terrain.MAGMA);
 			}
+			List<GameObject> overlappingObjects = getOverlappingGameObjects();
 			if(canConsumePlant()){
-				for(Plant plant: getWorld().getAllPlants()){
-					if(!isDead() && !plant.isDead() && isOverlappingWith(plant) && canConsumePlant()){
-						this.hurt(plant);
+				for(int index = 0; index < overlappingObjects.size(); index++){
+					GameObject object = overlappingObjects.get(index);
+					if(object instanceof Plant && !isDead() && !object.isDead() 
+							&& isOverlappingWith(object) && canConsumePlant()){
+						this.hurt(object);
 					}
 				}
 			}
@@ -161,16 +163,11 @@ public class Buzam extends Alien{
 					isHurt = true;
 				}
 			}
-			for (Character object: (Set<Character>)getWorld().filterAllGameObjects(
-					t->((t instanceof Slime) || t instanceof Shark))){
-				if(!isDead() && isOverlappingWith(object)){
-					if(!isImmune()){
-						getHurtBy(object);
-						isHurt = true;
-					}
-					if(!object.isImmune())
-						object.getHurtBy(this);
-				}
+			for (int index = 0; index < overlappingObjects.size(); index++){
+				GameObject object = overlappingObjects.get(index);
+				if(((object instanceof Slime) || (object instanceof Shark))
+						&& fightWith((Character)object))
+					isHurt = true;
 			}
 		}
 		if(isHurt)
@@ -182,6 +179,33 @@ public class Buzam extends Alien{
 		}
 	}
 	
+	/**
+	 * Let this buzam and the given character hurt each other if they overlap.
+	 * 
+	 * @param 	object
+	 * 			The character to fight with.
+	 * @effect	...
+	 * 			| if(!isDead() && isOverlappingWith(object) && !isImmune())
+	 * 			|	then getHurtBy(object)
+	 * @effect	...
+	 * 			| if(!isDead() && isOverlappingWith(object) && !object.isImmune())
+	 * 			|	then object.getHurtBy(this)
+	 * @return	...
+	 * 			| result == (!isDead() && isOverlappingWith(object) && !isImmune())
+	 */
+	private boolean fightWith(Character object){
+		boolean isHurt = false;
+		if(!isDead() && isOverlappingWith(object)){
+			if(!isImmune()){
+				getHurtBy(object);
+				isHurt = true;
+			}
+			if(!object.isImmune())
+				object.getHurtBy(this);
+		}
+		return isHurt;
+	}
+	
 	/**
 	 * A method to get damage by another game object.
 	 * 
@@ -1,11 +1,11 @@
 package jumpingalien.model.game;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import jumpingalien.model.exceptions.*;
 import jumpingalien.model.program.programs.Program;
 import jumpingalien.util.Sprite;
 import be.kuleuven.cs.som.annotate.*;
-import static jumpingalien.tests.util.TestUtils.doubleArray;
 
 /**
  * A class concerning characters as a subclass of game objects.
@@ -165,7 +165,7 @@ public abstract class Character extends GameObject{
 	 */
 	@Basic
 	public Direction getVertDirection() {
-		return vertDirection;
+		return getKinematics().vertDirections[getSlot()];
 	}
 	
 	/**
@@ -195,14 +195,9 @@ public abstract class Character extends GameObject{
 	@Model
 	protected void setVertDirection(Direction vertDirection) {
 		assert isValidVertDirection(vertDirection);
-		this.vertDirection = vertDirection;
+		getKinematics().vertDirections[getSlot()] = vertDirection;
 	}
 	
-	/**
-	 * A variable storing the vertical direction.
-	 */
-	private Direction vertDirection = Direction.NULL;
-	
 	/**
 	 * Return the initial vertical velocity of this character.
 	 */
@@ -221,7 +216,7 @@ public abstract class Character extends GameObject{
 	 */
 	@Basic
 	public double getVertVelocity() {
-		return vertVelocity;
+		return getKinematics().vertVelocities[getSlot()];
 	}
 	
 	/**
@@ -250,15 +245,9 @@ public abstract class Character extends GameObject{
 	@Model
 	protected void setVertVelocity(double vertVelocity) {
 		if (isValidVertVelocity(vertVelocity))
-			this.vertVelocity = vertVelocity;
+			getKinematics().vertVelocities[getSlot()] = vertVelocity;
 	}
 	
-	/**
-	 * A variable storing the current vertical velocity.
-	 * This value will always be a positive number of type double.
-	 */
-	private double vertVelocity = 0;
-	
 	/**
 	 * Return the maximum vertical acceleration.
 	 */
@@ -279,7 +268,7 @@ public abstract class Character extends GameObject{
 	 */
 	@Basic
 	public double getVertAcceleration() {
-		return vertAcceleration;
+		return getKinematics().vertAccelerations[getSlot()];
 	}
 	
 	/**
@@ -310,13 +299,8 @@ public abstract class Character extends GameObject{
 	@Model
 	protected void setVertAcceleration(double vertAcceleration) {
 		if (canHaveAsVertAcceleration(vertAcceleration))
-			this.vertAcceleration = vertAcceleration;
+			getKinematics().vertAccelerations[getSlot()] = vertAcceleration;
 	}
-	
-	/**
-	 * A variable storing the current vertical acceleration.
-	 */
-	private double vertAcceleration = 0;	
 
 	/**
 	 * Method to update the position and velocity of the character based on the current position,
@@ -337,6 +321,11 @@ public abstract class Character extends GameObject{
 	 * 			|	timeLeft = timeLeft - time
 	 * 			| in
 	 * 			|	simulateMovement(time)
+	 * @effect	If the collision mode of the world of this character is not stepped,
+	 * 			every time this character can move freely for longer than the time 
+	 * 			to move one pixel, it is moved for that time in a single step.
+	 * 			| if(getTimeOfFreeMovement(timeLeft, time) > time)
+	 * 			|	then moveFreely(getTimeOfFreeMovement(timeLeft, time))
 	 * @effect	All timers are updated.
 	 * 			| updateTimers(timeDuration)
 	 * @effect	Hit points are updated if and only if this character is not terminated.
@@ -356,9 +345,19 @@ public abstract class Character extends GameObject{
 			updateMovement();
 		double td = getTimeToMoveOnePixel(timeDuration);
 		double timeLeft = timeDuration;
+		boolean continuous = (getWorld() != null) &&
+				(getWorld().getCollisionMode() != CollisionMode.STEPPED ||
+				getSimulationTier() == SimulationTier.REDUCED);
 		while (timeLeft>td){
-			simulateMovement(td);
-			timeLeft -= td;
+			double freeTime = continuous ? getTimeOfFreeMovement(timeLeft, td) : 0;
+			if (freeTime > td){
+				moveFreely(freeTime);
+				timeLeft -= freeTime;
+			}
+			else{
+				simulateMovement(td);
+				timeLeft -= td;
+			}
 		}
 		simulateMovement(timeLeft);
 		updateTimers(timeDuration);
@@ -379,33 +378,259 @@ public abstract class Character extends GameObject{
 	 * @effect	The vertical velocity is updated with the given time duration.
 	 * 			| updateVertVelocity(td)
 	 * @effect	If this character ends up outside the borders of the game world,
-	 * 			the hit points are set to zero, the time sum of the hit points 
-	 * 			timer is set to 100 and this character is terminated.
+	 * 			it leaves the world and its velocities are left unchanged.
 	 * 			| let newPos = f(getPosition(),getHorVelocity(),getVertVelocity(),
 	 * 			|			     getHorAcceleration(),getVertAcceleration()),
 	 * 			| in
-	 * 			| 	  if(!Position.isValidXPosition(newPos.getXPosition()) ||
-	 * 			|		 !Position.isValidYPosition(newPos.getYPosition()))
-	 * 			|			then setHitPoints(0),getHpTimer().setTimeSum(100),
-	 * 			|				 terminate() 
-	 * 
+	 * 			| 	  if(!Position.isValidPosition(newPos[0],newPos[1],getWorld()))
+	 * 			|			then leaveWorld()
+	 * @note	A terminated character does not move anymore.
 	 */
 	private void simulateMovement(double td) {
-		try {
-			updatePosition(td);
-			updateHorVelocity(td);
-			updateVertVelocity(td);
-		} catch (NullPointerException e) {
-		}
-		catch(IllegalXPositionException | IllegalYPositionException exc){
-			setHitPoints(0);
-			getHpTimer().setTimeSum(100);
-			terminate();
-		}
+		if (isTerminated())
+			return;
+		updatePosition(td);
+		if (isTerminated())
+			return;
+		updateHorVelocity(td);
+		updateVertVelocity(td);
 	}	
 	
+	/**
+	 * Move this character to the given x and y position, if that position 
+	 * lies within its world.
+	 * 
+	 * @param 	xPosition
+	 * 			The new x position.
+	 * @param 	yPosition
+	 * 			The new y position.
+	 * @effect	...
+	 * 			| if (Position.isValidPosition(xPosition,yPosition,getWorld()))
+	 * 			|	then setPosition(xPosition,yPosition)
+	 * 			| else leaveWorld()
+	 */
+	@Model
+	protected void moveWithinWorld(double xPosition, double yPosition){
+		if (Position.isValidPosition(xPosition, yPosition, getWorld()))
+			setPosition(xPosition, yPosition);
+		else
+			leaveWorld();
+	}
+	
+	/**
+	 * Let this character die because it left the borders of its world.
+	 * 
+	 * @effect	...
+	 * 			| setHitPoints(0), getHpTimer().setTimeSum(100), terminate()
+	 */
+	@Model
+	private void leaveWorld(){
+		setHitPoints(0);
+		getHpTimer().setTimeSum(100);
+		terminate();
+	}
+	
 
 	
+	/**
+	 * Return the longest time, not longer than the given maximum time, during 
+	 * which this character can move without touching any impassable tile or
+	 * blocking game object, and without changing the way in which it moves.
+	 * 
+	 * @param 	maxTime
+	 * 			The maximum time to return.
+	 * @param 	minTime
+	 * 			The time below which no free movement is searched for.
+	 * @return	Zero if this character is touching an impassable tile or a 
+	 * 			blocking game object, or if it is not moving in a stable way.
+	 * @return	Else, the result is the largest time among the given maximum
+	 * 			time, halved as many times as needed, during which the region 
+	 * 			swept by this character is free and within the borders of its world.
+	 * 			If no such time is longer than the given minimum time, the result
+	 * 			is zero.
+	 * @note	The time is also limited to the moment at which the horizontal
+	 * 			velocity of this character reaches its maximum and to the moment
+	 * 			at which its vertical velocity changes sign, since the movement
+	 * 			changes at these moments.
+	 */
+	@Model
+	protected double getTimeOfFreeMovement(double maxTime, double minTime){
+		if(getWorld() == null || isTerminated())
+			return 0;
+		int xPos = getDisplayedXPosition();
+		int yPos = getDisplayedYPosition();
+		if(!isFreeRegion(xPos, yPos, xPos+getWidth()-1, yPos+getHeight()-1))
+			return 0;
+		double time = maxTime;
+		if(!isDead() && getHorAcceleration() > 0)
+			time = Math.min(time, (getMaxHorVelocity()-getHorVelocity())/getHorAcceleration());
+		double vertVelocity = getVertDirection().getFactor()*getVertVelocity();
+		if(vertVelocity*getVertAcceleration() < 0)
+			time = Math.min(time, -vertVelocity/getVertAcceleration());
+		while(time > minTime){
+			int[] region = getSweptRegion(time);
+			if(region != null && isFreeRegion(region[0], region[1], region[2], region[3]))
+				return hasStableMovementIn(region[0], region[1], region[2], region[3]) ? time : 0;
+			time /= 2;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Return the rectangular region of pixels occupied by this character at 
+	 * some moment while it moves for the given time without any collision,
+	 * as an array of the left, bottom, right and top pixel.
+	 * 
+	 * @return	Null if this character would leave the borders of its world.
+	 * @note	The same array is returned on every invocation.
+	 */
+	@Model
+	private int[] getSweptRegion(double time){
+		getRange(getXPosition(), getHorDirection().getFactor()*getHorVelocity(), 
+				getHorDirection().getFactor()*getHorAcceleration(), time, range);
+		int left = (int) Math.floor(range[0]);
+		int right = (int) Math.floor(range[1]);
+		getRange(getYPosition(), getVertDirection().getFactor()*getVertVelocity(), 
+				getVertAcceleration(), time, range);
+		int bottom = (int) Math.floor(range[0]);
+		int top = (int) Math.floor(range[1]);
+		if(left < 0 || bottom < 0 || right >= getWorld().getWorldWidth() 
+				|| top >= getWorld().getWorldHeight())
+			return null;
+		sweptRegion[0] = left;
+		sweptRegion[1] = bottom;
+		sweptRegion[2] = right+getWidth()-1;
+		sweptRegion[3] = top+getHeight()-1;
+		return sweptRegion;
+	}
+	
+	/**
+	 * Buffers storing the last swept region of this character and the range
+	 * of one of its coordinates while that region was computed.
+	 */
+	private final int[] sweptRegion = new int[4];
+	private final double[] range = new double[2];
+	
+	/**
+	 * Store the smallest and largest value of the coordinate that starts at 
+	 * the given position and moves with the given velocity and acceleration
+	 * during the given time in the given array.
+	 */
+	private static void getRange(double position, double velocity,
+			double acceleration, double time, double[] result){
+		double end = position + (velocity*time + 0.5*acceleration*time*time)*100;
+		double min = Math.min(position, end);
+		double max = Math.max(position, end);
+		if(acceleration != 0){
+			double turn = -velocity/acceleration;
+			if(turn > 0 && turn < time){
+				double extreme = position + (velocity*turn + 0.5*acceleration*turn*turn)*100;
+				min = Math.min(min, extreme);
+				max = Math.max(max, extreme);
+			}
+		}
+		result[0] = min;
+		result[1] = max;
+	}
+	
+	/**
+	 * Check whether no impassable tile and no game object that blocks this 
+	 * character is located in the given rectangular region.
+	 */
+	@Model
+	private boolean isFreeRegion(int pixelLeft, int pixelBottom, int pixelRight, int pixelTop){
+		if(getWorld().hasImpassableTileIn(pixelLeft, pixelBottom, pixelRight, pixelTop))
+			return false;
+		getWorld().collectGameObjectsIn(pixelLeft, pixelBottom, pixelRight, pixelTop, regionGameObjects);
+		for(int index = 0; index < regionGameObjects.size(); index++){
+			GameObject other = regionGameObjects.get(index);
+			if(other != this && isBlockedBy(other))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * A list storing the game objects found by the last invocation of isFreeRegion.
+	 */
+	private final List<GameObject> regionGameObjects = new ArrayList<GameObject>();
+	
+	/**
+	 * Check whether this character keeps moving in the same way while it moves 
+	 * freely through the given rectangular region.
+	 * 
+	 * @return	True if and only if this character can fall, and it is moving 
+	 * 			vertically with the maximum vertical acceleration, so that 
+	 * 			starting to fall does not change its movement.
+	 * 			| result == (canFall() && getVertDirection() != Direction.NULL &&
+	 * 			|			 getVertAcceleration() == getMaxVertAcceleration())
+	 */
+	@Model
+	protected boolean hasStableMovementIn(int pixelLeft, int pixelBottom, 
+			int pixelRight, int pixelTop){
+		return (canFall() && getVertDirection() != Direction.NULL &&
+				getVertAcceleration() == getMaxVertAcceleration());
+	}
+	
+	/**
+	 * A method to move this character for the given time in a single step.
+	 * 
+	 * @param 	time
+	 * 			The time to move.
+	 * @effect	The movement is simulated for the given time.
+	 * 			| simulateMovement(time)
+	 * @effect	If the collision mode of the world of this character is validated,
+	 * 			the outcome is compared against simulating the movement one pixel
+	 * 			at a time, and registered in the world. Both moves match if they 
+	 * 			end in the same directions, at positions less than a millionth 
+	 * 			of a pixel apart.
+	 */
+	@Model
+	private void moveFreely(double time){
+		if(getWorld().getCollisionMode() != CollisionMode.VALIDATED){
+			simulateMovement(time);
+			return;
+		}
+		World world = getWorld();
+		double xPos = getXPosition();
+		double yPos = getYPosition();
+		double horVelocity = getHorVelocity();
+		double vertVelocity = getVertVelocity();
+		double horAcceleration = getHorAcceleration();
+		double vertAcceleration = getVertAcceleration();
+		Direction horDirection = getHorDirection();
+		Direction vertDirection = getVertDirection();
+		boolean canFall = canFall();
+		double td = getTimeToMoveOnePixel(time);
+		double timeLeft = time;
+		while (timeLeft>td){
+			simulateMovement(td);
+			timeLeft -= td;
+		}
+		simulateMovement(timeLeft);
+		double steppedXPos = getXPosition();
+		double steppedYPos = getYPosition();
+		Direction steppedHorDirection = getHorDirection();
+		Direction steppedVertDirection = getVertDirection();
+		
+		setPosition(xPos, yPos);
+		setHorVelocity(horVelocity);
+		setVertVelocity(vertVelocity);
+		setHorAcceleration(horAcceleration);
+		setVertAcceleration(vertAcceleration);
+		setHorDirection(horDirection);
+		setVertDirection(vertDirection);
+		setCanFall(canFall);
+		simulateMovement(time);
+		
+		double deviation = Math.hypot(getXPosition()-steppedXPos,
+				getYPosition()-steppedYPos);
+		boolean mismatch = (deviation > 1E-6)
+				|| (getHorDirection() != steppedHorDirection)
+				|| (getVertDirection() != steppedVertDirection);
+		world.registerValidatedMove(deviation, mismatch);
+	}
+	
 	/**
 	 * A method to update the movements of this game object.
 	 * As an effect of this method, certain movements may be started
@@ -604,127 +829,103 @@ public abstract class Character extends GameObject{
 	
 	/**
 	 * A method that receives a position in the form of a double array 
-	 * and returns the corrected position, after the given position has been checked 
+	 * and corrects it in place, after the given position has been checked 
 	 * for whether or not this game object would collide with impassable tiles
 	 * if the given position would be assigned to this game object.
 	 * 
 	 * @note	In the current state, this method violates several rules connected
-	 * 			to good programming. It changes the state of an object and returns a value.
-	 * 			We are aware of this problem and we will solve it by defensive programming
-	 * 			before we hand in the final solution. 
+	 * 			to good programming. It changes the state of an object and corrects
+	 * 			the given position. We are aware of this problem and we will solve it 
+	 * 			by defensive programming before we hand in the final solution. 
 	 */
-	protected double[] updatePositionTileCollision(double[] newPos){
+	protected void updatePositionTileCollision(double[] newPos){
 		assert newPos.length == 2;
-		double newXPos = newPos[0];
-		double newYPos = newPos[1];
-		for (Tile impassableTile: getWorld().getImpassableTiles()){
+		List<Tile> impassableTiles = getOverlappingImpassableTiles();
+		for (int index = 0; index < impassableTiles.size(); index++){
+			Tile impassableTile = impassableTiles.get(index);
 			if (this.isOverlappingWith(impassableTile)){
 				if (isColliding(Direction.DOWN, impassableTile)){
-					//System.out.println("Colliding down");
 					if (isMoving(Direction.DOWN))
-						//newYPos = impassableTile.getYPosition() + getWorld().getTileSize() -1; 
-						newYPos = this.getPosition().getYPosition();
+						newPos[1] = this.getYPosition();
 					endMovement(Direction.DOWN);
 				}
 				else if(isColliding(Direction.UP, impassableTile)){
 					if (isMoving(Direction.UP))
-						newYPos = this.getPosition().getYPosition();
+						newPos[1] = this.getYPosition();
 					endMovement(Direction.UP);
-					//System.out.println("Colliding up");
 				}
 				if(isColliding(Direction.LEFT, impassableTile)){
-					if (isMoving(Direction.LEFT)){
-						newXPos = this.getPosition().getXPosition();
-					}
+					if (isMoving(Direction.LEFT))
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.LEFT);
-					//System.out.println("Colliding left");
 				}
 				else if(isColliding(Direction.RIGHT, impassableTile)){
 					if (isMoving(Direction.RIGHT))
-						newXPos = this.getPosition().getXPosition();
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.RIGHT);
-					//System.out.println("Colliding right");
 				}
 			}
 		}
-		return doubleArray(newXPos,newYPos);
 	}
 	
 	/**
 	 * A method that receives a position in the form of a double array 
-	 * and returns the corrected position, after the given position has been checked 
+	 * and corrects it in place, after the given position has been checked 
 	 * for whether or not this game object would collide with other game objects 
-	 * of a given collection if the given position would be assigned to this game object.
+	 * of a given list if the given position would be assigned to this game object.
 	 *  
 	 * @param 	newPos
 	 * 			The position to check in the form of a double array.
 	 * 			The first entry of this array represents the x position, the
 	 * 			second entry represents the y position.
-	 * @param 	collection
-	 * 			The collection to check for collisions against.
+	 * @param 	objects
+	 * 			The game objects to check for collisions against.
 	 * @pre		The given position must have 2 entries.
 	 * 			| newPos.length == 2
-	 * @return	If the given position would be assigned to this game object and
+	 * @post	If the given position would be assigned to this game object and
 	 * 			as a result of that, this game object would collide with another
-	 * 			game object out of the given collection in a horizontal direction, 
-	 * 			then the returned array will have as first entry the current x position.
-	 * 			Else, the returned array will have as first entry the first entry 
-	 * 			of the given position.
-	 * @return	If the given position would be assigned to this game object and
+	 * 			game object out of the given list in a horizontal direction, 
+	 * 			then the first entry of the given array is set to the current 
+	 * 			x position.
+	 * @post	If the given position would be assigned to this game object and
 	 * 			as a result of that, this game object would collide with another
-	 * 			game object out of the given collection in a vertical direction, 
-	 * 			then the returned array will have as second entry the current y position.
-	 * 			Else, the returned array will have as second entry the second entry 
-	 * 			of the given position.
+	 * 			game object out of the given list in a vertical direction, 
+	 * 			then the second entry of the given array is set to the current 
+	 * 			y position. If this character collides down, it can no longer fall.
 	 * @note	In the current state, this method violates several rules connected
-	 * 			to good programming. It changes the state of an object and returns a value.
-	 * 			We are aware of this problem and we will solve it by defensive programming
-	 * 			before we hand in the final solution. 
+	 * 			to good programming. It changes the state of an object and corrects
+	 * 			the given position. We are aware of this problem and we will solve it 
+	 * 			by defensive programming before we hand in the final solution. 
 	 */
 	@Override
-	protected double[] getPositionAfterCollision(double[] newPos, Set<GameObject> collection){
+	protected void updatePositionAfterCollision(double[] newPos, List<? extends GameObject> objects){
 		assert newPos.length == 2;
-		double newXPos = newPos[0];
-		double newYPos = newPos[1];
-		for (GameObject other: collection){
+		for (int index = 0; index < objects.size(); index++){
+			GameObject other = objects.get(index);
 			if ((other != this) && this.isOverlappingWith(other)){
 				if (isColliding(Direction.DOWN, other)){
-					//System.out.print("Colliding down with object");
-					//System.out.print(object.toString());
-					if (this.isMoving(Direction.DOWN) || other.isMoving(Direction.UP)){
-						//newYPos = gameObject.getPosition().getYPosition()+gameObject.getHeight()-1;
-						newYPos = this.getPosition().getYPosition();
-					}
+					if (this.isMoving(Direction.DOWN) || other.isMoving(Direction.UP))
+						newPos[1] = this.getYPosition();
 					endMovement(Direction.DOWN);
 					setCanFall(false);
 				}
 				else if(isColliding(Direction.UP, other)){
-					if (isMoving(Direction.UP) || other.isMoving(Direction.DOWN)){
-						//newYPos = gameObject.getPosition().getYPosition()-getHeight()+1;
-						newYPos = this.getPosition().getYPosition();
-					}
+					if (isMoving(Direction.UP) || other.isMoving(Direction.DOWN))
+						newPos[1] = this.getYPosition();
 					endMovement(Direction.UP);
-					//System.out.println("Colliding up");
 				}
 				if(isColliding(Direction.LEFT, other)){
-					if (isMoving(Direction.LEFT) || other.isMoving(Direction.RIGHT)){
-						//newXPos = gameObject.getPosition().getXPosition()+gameObject.getWidth()-1;
-						newXPos = this.getPosition().getXPosition();
-					}
+					if (isMoving(Direction.LEFT) || other.isMoving(Direction.RIGHT))
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.LEFT);
-					//System.out.println("Colliding left");
 				}
 				else if(isColliding(Direction.RIGHT, other)){
-					if (isMoving(Direction.RIGHT) || other.isMoving(Direction.LEFT)){
-						//newXPos = gameObject.getPosition().getXPosition()-getWidth()+1;
-						newXPos = this.getPosition().getXPosition();
-					}
+					if (isMoving(Direction.RIGHT) || other.isMoving(Direction.LEFT))
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.RIGHT);
-					//System.out.println("Colliding right");
 				}
 			}
 		}
-		return doubleArray(newXPos,newYPos);
 	}
 	
 	/**
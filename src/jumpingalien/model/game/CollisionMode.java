@@ -0,0 +1,32 @@
+package jumpingalien.model.game;
+
+/**
+ * An enumeration involving the ways in which the characters of a world
+ * are moved during a time step of that world.
+ * 
+ * @author Jakob Festraets, Vincent Kemps
+ * @version	1.0
+ *
+ */
+public enum CollisionMode {
+	
+	/**
+	 * Characters are moved one pixel at a time, and collisions are checked
+	 * after every pixel.
+	 */
+	STEPPED,
+	
+	/**
+	 * Characters that do not touch anything are moved in a single step up to 
+	 * the first moment at which they could touch an impassable tile or a 
+	 * blocking game object. From there on they are moved one pixel at a time.
+	 */
+	CONTINUOUS,
+	
+	/**
+	 * Characters are moved as in continuous mode, but every single step is 
+	 * compared against moving one pixel at a time. The outcome of the 
+	 * comparisons is kept by the world.
+	 */
+	VALIDATED;
+}
@@ -56,13 +56,31 @@ public enum Direction {
 	public static jumpingalien.model.game.Direction convertDirection(
 			Expression dir)
 			throws IllegalArgumentException{
-		if (dir.outcome() == jumpingalien.part3.programs.IProgramFactory.Direction.LEFT)
+		return convertDirection(dir.outcome());
+	}
+	
+	/**
+	 * A method to convert a direction of the enumeration in IProgramFactory
+	 * to a direction of this enumeration.
+	 * 
+	 * @param 	dir
+	 * 			The direction to convert.
+	 * @return	The direction of this enumeration with the same name as
+	 * 			the given direction.
+	 * @throws 	IllegalArgumentException
+	 * 			The given object is not a direction from the enumeration
+	 * 			in IProgramFactory.
+	 */
+	public static jumpingalien.model.game.Direction convertDirection(
+			Object dir)
+			throws IllegalArgumentException{
+		if (dir == jumpingalien.part3.programs.IProgramFactory.Direction.LEFT)
 			return jumpingalien.model.game.Direction.LEFT;
-		else if (dir.outcome() == jumpingalien.part3.programs.IProgramFactory.Direction.RIGHT)
+		else if (dir == jumpingalien.part3.programs.IProgramFactory.Direction.RIGHT)
 			return jumpingalien.model.game.Direction.RIGHT;
-		else if (dir.outcome() == jumpingalien.part3.programs.IProgramFactory.Direction.DOWN)
+		else if (dir == jumpingalien.part3.programs.IProgramFactory.Direction.DOWN)
 			return jumpingalien.model.game.Direction.DOWN;
-		else if (dir.outcome() == jumpingalien.part3.programs.IProgramFactory.Direction.UP)
+		else if (dir == jumpingalien.part3.programs.IProgramFactory.Direction.UP)
 			return jumpingalien.model.game.Direction.UP;
 		else
 			throw new IllegalArgumentException();
@@ -1,15 +1,16 @@
 package jumpingalien.model.game;
 
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import be.kuleuven.cs.som.annotate.*;
 import jumpingalien.model.exceptions.*;
 import jumpingalien.model.program.programs.Program;
 import jumpingalien.model.program.types.ObjectOfWorld;
 import jumpingalien.util.Sprite;
-import static jumpingalien.tests.util.TestUtils.doubleArray;
 
 /**
  * A class concerning game objects with a position, a horizontal velocity,
@@ -92,6 +93,7 @@ public abstract class GameObject extends ObjectOfWorld{
 		assert isValidInitHorVelocity(initHorVelocity);
 		assert canHaveAsMaxHorVelocity(maxHorVelocity,initHorVelocity);
 		assert (program == null || canHaveProgram());
+		new KinematicsStore(1).add(this);
 		if(!isValidPosition(position,null))
 			throw new IllegalArgumentException("Invalid position!");
 		setPosition(position);
@@ -200,7 +202,51 @@ public abstract class GameObject extends ObjectOfWorld{
 	 */
 	@Basic
 	public Position getPosition(){
-		return position.copy();
+		return new Position(getXPosition(),getYPosition(),positionWorld);
+	}
+	
+	/**
+	 * Return the x component of the position of this game object.
+	 * 
+	 * @return	...
+	 * 			| result == getPosition().getXPosition()
+	 */
+	@Model
+	protected double getXPosition(){
+		return kinematics.xPositions[slot];
+	}
+	
+	/**
+	 * Return the y component of the position of this game object.
+	 * 
+	 * @return	...
+	 * 			| result == getPosition().getYPosition()
+	 */
+	@Model
+	protected double getYPosition(){
+		return kinematics.yPositions[slot];
+	}
+	
+	/**
+	 * Return the displayed x component of the position of this game object.
+	 * 
+	 * @return	...
+	 * 			| result == getPosition().getDisplayedXPosition()
+	 */
+	@Model
+	protected int getDisplayedXPosition(){
+		return (int) Math.floor(getXPosition());
+	}
+	
+	/**
+	 * Return the displayed y component of the position of this game object.
+	 * 
+	 * @return	...
+	 * 			| result == getPosition().getDisplayedYPosition()
+	 */
+	@Model
+	protected int getDisplayedYPosition(){
+		return (int) Math.floor(getYPosition());
 	}
 	
 	/**
@@ -224,51 +270,302 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * 
 	 * @param	position
 	 * 			The position to set.
-	 * @post	The game object refers to the given position.
-	 * 			| new.getPosition() == position
+	 * @post	The game object has a position equal to the given position.
+	 * 			| new.getPosition().equals(position)
+	 * @effect	The spatial index of the world of this game object is updated.
+	 * 			| if (getWorld() != null)
+	 * 			|	then getWorld().updateSpatialIndex(this)
 	 * @throws	IllegalArgumentException
 	 * 			The given position is not a valid position for this game object.
 	 * 			| !isValidPosition(position,getWorld()) 
+	 * @note	This game object does not keep the given position: its x and y
+	 * 			position are stored in its slot in its kinematics store.
 	 */
 	@Model
 	protected void setPosition(Position position)
 			throws IllegalArgumentException{
 		if(!isValidPosition(position, getWorld()))
 			throw new IllegalArgumentException("Invalid world!");
-		this.position = position;
+		kinematics.xPositions[slot] = position.getXPosition();
+		kinematics.yPositions[slot] = position.getYPosition();
+		positionWorld = position.getWorld();
+		if(getWorld() != null)
+			getWorld().updateSpatialIndex(this);
 	}
 	
 	/**
-	 * A method to convert a double array to a position with a given world.
+	 * Move this game object to the given x and y position in its world.
 	 * 
-	 * @param 	doubleArray
-	 * 			The position in the form of a double array.
-	 * @param 	world
-	 * 			The world to add to this new position.
-	 * @pre		The given double array must have two entries.
-	 * 			| doubleArray.length() == 2
-	 * @return	A new position with the first entry of the double array
-	 * 			as its x position, the second entry of the double array
-	 * 			as its y position and the given world as its world.
-	 * 			| result == new Position(doubleArray[0],doubleArray[1],world)
+	 * @param 	xPosition
+	 * 			The new x position.
+	 * @param 	yPosition
+	 * 			The new y position.
+	 * @effect	...
+	 * 			| setPosition(new Position(xPosition,yPosition,getWorld()))
 	 * @throws	IllegalXPositionException
-	 * 			The first entry is not a valid x position in the given world.
-	 * 			| !Position.isValidXPosition(doubleArray[0],world)
+	 * 			...
+	 * 			| !Position.isValidXPosition(xPosition,getWorld())
 	 * @throws	IllegalYPositionException
-	 * 			The first entry is not a valid y position in the given world.
-	 * 			| !Position.isValidYPosition(doubleArray[1],world)
+	 * 			...
+	 * 			| !Position.isValidYPosition(yPosition,getWorld())
+	 * @note	The position of this game object is changed in its slot in its
+	 * 			kinematics store, so that moving a game object does not create 
+	 * 			a new position.
 	 */
 	@Model
-	protected static Position toPosition(double[] doubleArray, World world)
-		throws IllegalXPositionException,IllegalYPositionException{
-		assert doubleArray.length == 2;
-		return new Position(doubleArray[0],doubleArray[1],world);
+	protected void setPosition(double xPosition, double yPosition)
+			throws IllegalXPositionException,IllegalYPositionException{
+		Position.checkPosition(xPosition, yPosition, getWorld());
+		kinematics.xPositions[slot] = xPosition;
+		kinematics.yPositions[slot] = yPosition;
+		positionWorld = getWorld();
+		if(getWorld() != null)
+			getWorld().updateSpatialIndex(this);
 	}
 	
 	/**
-	 * A variable storing the current position of this game object.
+	 * Return the buffer in which this game object computes its new position
+	 * while it moves, filled with the given x and y position.
+	 * 
+	 * @param 	xPosition
+	 * 			The x position to fill in.
+	 * @param 	yPosition
+	 * 			The y position to fill in.
+	 * @return	...
+	 * 			| result.length == 2 &&
+	 * 			| result[0] == xPosition && result[1] == yPosition
+	 * @note	The same array is returned on every invocation, so that the 
+	 * 			movement of a game object does not allocate any new arrays.
 	 */
-	private Position position;
+	@Model
+	protected double[] getNewPosition(double xPosition, double yPosition){
+		newPosition[0] = xPosition;
+		newPosition[1] = yPosition;
+		return newPosition;
+	}
+	
+	/**
+	 * A buffer storing the new position of this game object while it moves.
+	 */
+	private final double[] newPosition = new double[2];
+	
+	/**
+	 * Return the position of this game object to be displayed, in between 
+	 * its position at the start of the last tick of its world and its 
+	 * current position, in the form of a double array.
+	 * 
+	 * @return	If this game object has a world with a fixed time step, the 
+	 * 			result is interpolated linearly between both positions by the 
+	 * 			interpolation factor of that world. The position at the start 
+	 * 			of the last tick is kept by the kinematics store of that world.
+	 * 			| if (getWorld() != null && getWorld().hasFixedTimeStep())
+	 * 			|	then result == doubleArray(
+	 * 			|		previousXPosition + (getXPosition()-previousXPosition)*
+	 * 			|			getWorld().getInterpolationFactor(),
+	 * 			|		previousYPosition + (getYPosition()-previousYPosition)*
+	 * 			|			getWorld().getInterpolationFactor())
+	 * @return	Else, the result is the current position.
+	 * 			| else result == doubleArray(getXPosition(),
+	 * 			|		getYPosition())
+	 */
+	public double[] getInterpolatedPosition(){
+		double xPos = getXPosition();
+		double yPos = getYPosition();
+		if (getWorld() == null || !getWorld().hasFixedTimeStep())
+			return new double[]{xPos, yPos};
+		double factor = getWorld().getInterpolationFactor();
+		double previousXPosition = kinematics.previousXPositions[slot];
+		double previousYPosition = kinematics.previousYPositions[slot];
+		return new double[]{previousXPosition + (xPos-previousXPosition)*factor,
+				previousYPosition + (yPos-previousYPosition)*factor};
+	}
+	
+	/**
+	 * Return the displayed position of this game object, in the form of an 
+	 * int array.
+	 * 
+	 * @return	...
+	 * 			| result == intArray((int) Math.floor(getInterpolatedPosition()[0]),
+	 * 			|		(int) Math.floor(getInterpolatedPosition()[1]))
+	 * @note	This method is called for every game object on every frame, so 
+	 * 			it interpolates without building the interpolated position.
+	 */
+	public int[] getDisplayedPosition(){
+		double xPos = getXPosition();
+		double yPos = getYPosition();
+		if (getWorld() != null && getWorld().hasFixedTimeStep()){
+			double factor = getWorld().getInterpolationFactor();
+			double previousXPosition = kinematics.previousXPositions[slot];
+			double previousYPosition = kinematics.previousYPositions[slot];
+			xPos = previousXPosition + (xPos-previousXPosition)*factor;
+			yPos = previousYPosition + (yPos-previousYPosition)*factor;
+		}
+		return new int[]{(int) Math.floor(xPos), (int) Math.floor(yPos)};
+	}
+	
+	/**
+	 * Return the level of detail at which this game object was last 
+	 * simulated by its world.
+	 */
+	@Basic
+	SimulationTier getSimulationTier() {
+		return simulationTier;
+	}
+	
+	/**
+	 * Set the level of detail at which this game object is simulated.
+	 */
+	void setSimulationTier(SimulationTier simulationTier) {
+		this.simulationTier = simulationTier;
+	}
+	
+	private SimulationTier simulationTier = SimulationTier.FULL;
+	
+	/**
+	 * Check whether this game object is asleep in its world.
+	 */
+	@Basic
+	public boolean isAsleep() {
+		return asleep;
+	}
+	
+	/**
+	 * Set whether this game object is asleep in its world.
+	 */
+	void setAsleep(boolean asleep) {
+		this.asleep = asleep;
+	}
+	
+	private boolean asleep = false;
+	
+	/**
+	 * Check whether advancing the time of this game object now would do 
+	 * nothing else than letting its timers run, as long as no other game 
+	 * object touches it.
+	 * 
+	 * @return	...
+	 * 			| result == false
+	 */
+	@Model
+	protected boolean canSleep(){
+		return false;
+	}
+	
+	/**
+	 * Advance the time of this sleeping game object with the given time duration.
+	 * 
+	 * @param 	timeDuration
+	 * 			The time duration to advance.
+	 * @effect	...
+	 * 			| updateTimers(timeDuration)
+	 */
+	void advanceAsleep(double timeDuration){
+		updateTimers(timeDuration);
+	}
+	
+	/**
+	 * Return the time that has passed in the world of this game object 
+	 * without this game object being advanced.
+	 */
+	@Basic
+	double getPendingTime() {
+		return pendingTime;
+	}
+	
+	/**
+	 * Set the time that has passed in the world of this game object without 
+	 * this game object being advanced to the given time.
+	 */
+	void setPendingTime(double pendingTime) {
+		this.pendingTime = pendingTime;
+	}
+	
+	private double pendingTime = 0;
+	
+	/**
+	 * Return the cell of the spatial index of the world of this game object
+	 * it is registered in, or -1 if it is not registered in any cell.
+	 */
+	@Basic
+	int getCell() {
+		return cell;
+	}
+	
+	/**
+	 * Register this game object in the given cell of the spatial index of 
+	 * its world.
+	 */
+	void setCell(int cell) {
+		this.cell = cell;
+	}
+	
+	private int cell = -1;
+	
+	/**
+	 * Return the slot of this game object in its kinematics store.
+	 */
+	@Basic
+	int getSlot() {
+		return slot;
+	}
+	
+	/**
+	 * Let this game object keep its kinematic state in the given slot of the
+	 * given store from now on. The state has already been moved there.
+	 * 
+	 * @effect	...
+	 * 			| updateSpriteSize()
+	 */
+	void attachKinematics(KinematicsStore kinematics, int slot){
+		this.kinematics = kinematics;
+		this.slot = slot;
+		updateSpriteSize();
+	}
+	
+	/**
+	 * Let this game object keep its kinematic state in the given slot of its
+	 * store from now on. The state has already been moved there.
+	 */
+	void moveKinematics(int slot){
+		this.slot = slot;
+	}
+	
+	/**
+	 * Write the size of the current sprite of this game object into its slot
+	 * in its kinematics store.
+	 * 
+	 * @note	This method is invoked each time the current sprite changes.
+	 */
+	@Model
+	private void updateSpriteSize(){
+		if (getAllSprites() != null && getCurrentSprite() != null){
+			kinematics.widths[slot] = getWidth();
+			kinematics.heights[slot] = getHeight();
+		}
+	}
+	
+	/**
+	 * Return the kinematics store that keeps the position, velocity, 
+	 * acceleration and directions of this game object.
+	 */
+	@Basic
+	KinematicsStore getKinematics() {
+		return kinematics;
+	}
+	
+	/**
+	 * The kinematics store keeping the kinematic state of this game object,
+	 * and the slot that state is kept in. The store is that of the world of
+	 * this game object, or a store of its own if it has no world.
+	 */
+	private KinematicsStore kinematics = null;
+	private int slot = -1;
+	
+	/**
+	 * A variable storing the world the position of this game object belongs
+	 * to. The x and y position themselves are kept in its kinematics store.
+	 */
+	private World positionWorld;
 	
 	/**
 	 * Return the width of the current sprite of this game object.
@@ -297,16 +594,16 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * @return	Each row will have as first entry the current displayed x position
 	 * 			of this game object.
 	 * 			| for each rowNb in 0..(result.length-1)
-	 * 			|	result[rowNb][0] = getPosition().getDisplayedXPosition()
+	 * 			|	result[rowNb][0] = getDisplayedXPosition()
 	 * @return	Each row will have as second entry the current displayed y position
 	 * 			incremented with the number of the row.
 	 *			| for each rowNb in 0..(result.length-1)
-	 * 			|	result[rowNb][1] = getPosition().getDisplayedYPosition() + rowNb 			
+	 * 			|	result[rowNb][1] = getDisplayedYPosition() + rowNb 			
 	 */
 	@Model
 	protected int[][] getLeftPerimeter(){
-		int xPos = getPosition().getDisplayedXPosition();
-		int yPos = getPosition().getDisplayedYPosition();
+		int xPos = getDisplayedXPosition();
+		int yPos = getDisplayedYPosition();
 		int [][] result = new int[getHeight()][2];
 		for(int index=0;index<getHeight();index++){
 			result[index][0] = xPos;
@@ -329,17 +626,17 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * 			of this game object incremented with the width of this game object
 	 * 			and decremented with 1.
 	 * 			| for each rowNb in 0..(result.length-1)
-	 * 			|	result[rowNb][0] = getPosition().getDisplayedXPosition() +
+	 * 			|	result[rowNb][0] = getDisplayedXPosition() +
 	 * 			|					   getWidth() - 1
 	 * @return	Each row will have as second entry the current displayed y position
 	 * 			incremented with the number of the row.
 	 *			| for each rowNb in 0..(result.length-1)
-	 * 			|	result[rowNb][1] = getPosition().getDisplayedYPosition() + rowNb 	
+	 * 			|	result[rowNb][1] = getDisplayedYPosition() + rowNb 	
 	 */
 	@Model
 	protected int[][] getRightPerimeter(){
-		int xPos = getPosition().getDisplayedXPosition() + getWidth()-1;
-		int yPos = getPosition().getDisplayedYPosition();
+		int xPos = getDisplayedXPosition() + getWidth()-1;
+		int yPos = getDisplayedYPosition();
 		int [][] result = new int[getHeight()][2];
 		for(int index=0;index<getHeight();index++){
 			result[index][0] = xPos;
@@ -361,15 +658,15 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * @return	Each row will have as first entry the current displayed x position
 	 * 			of this game object incremented with the number of the row.
 	 * 			| for each rowNb in 0..(result.length-1)
-	 * 			|	result[rowNb][0] = getPosition().getDisplayedXPosition() + rowNb
+	 * 			|	result[rowNb][0] = getDisplayedXPosition() + rowNb
 	 * @return	Each row will have as second entry the current displayed y position.
 	 *			| for each rowNb in 0..(result.length-1)
-	 * 			|	result[rowNb][1] = getPosition().getDisplayedYPosition() 	
+	 * 			|	result[rowNb][1] = getDisplayedYPosition() 	
 	 */
 	@Model
 	protected int[][] getLowerPerimeter(){
-		int xPos = getPosition().getDisplayedXPosition();
-		int yPos = getPosition().getDisplayedYPosition();
+		int xPos = getDisplayedXPosition();
+		int yPos = getDisplayedYPosition();
 		int [][] result = new int[getWidth()][2];
 		for(int index=0;index<getWidth();index++){
 			result[index][0] = xPos + index;
@@ -391,17 +688,17 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * @return	Each row will have as first entry the current displayed x position
 	 * 			of this game object incremented with the number of the row.
 	 * 			| for each rowNb in 0..(result.length-1)
-	 * 			|	result[rowNb][0] = getPosition().getDisplayedXPosition() + rowNb
+	 * 			|	result[rowNb][0] = getDisplayedXPosition() + rowNb
 	 * @return	Each row will have as second entry the current displayed y position 
 	 * 			incremented with the height of this object and decremented with 1.
 	 *			| for each rowNb in 0..(result.length-1)
-	 * 			|	result[rowNb][1] = getPosition().getDisplayedYPosition() +
+	 * 			|	result[rowNb][1] = getDisplayedYPosition() +
 	 * 			|					   getHeigth() - 1 	
 	 */
 	@Model
 	protected int[][] getUpperPerimeter(){
-		int xPos = getPosition().getDisplayedXPosition();
-		int yPos = getPosition().getDisplayedYPosition() + getHeight()-1;
+		int xPos = getDisplayedXPosition();
+		int yPos = getDisplayedYPosition() + getHeight()-1;
 		int [][] result = new int[getWidth()][2];
 		for(int index=0;index<getWidth();index++){
 			result[index][0] = xPos + index;
@@ -456,19 +753,19 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * @return	True if the given position is located between the bottom left,
 	 * 			bottom right, top left and top right corner of this game object.
 	 * 			| result == 
-	 * 			| (position.getDisplayedXPosition() >= getPosition().getDisplayedXPosition() &&
-	 * 			|  position.getDisplayedXPosition() <= getPosition().getDisplayedXPosition() + getWidth() - 1 &&
-	 * 			|  position.getDisplayedYPosition() >= getPosition().getDisplayedYPosition() &&
-	 * 			|  position.getDisplayedYPosition() <= getPosition().getDisplayedYPosition() + getHeight() - 1)
+	 * 			| (position.getDisplayedXPosition() >= getDisplayedXPosition() &&
+	 * 			|  position.getDisplayedXPosition() <= getDisplayedXPosition() + getWidth() - 1 &&
+	 * 			|  position.getDisplayedYPosition() >= getDisplayedYPosition() &&
+	 * 			|  position.getDisplayedYPosition() <= getDisplayedYPosition() + getHeight() - 1)
 	 */
 	@Model
 	protected boolean occupiesPosition(Position position){
 		int xpos = position.getDisplayedXPosition();
 		int ypos = position.getDisplayedYPosition();
-		return (xpos>=getPosition().getDisplayedXPosition() &&
-				xpos<=getPosition().getDisplayedXPosition() + getWidth() - 1 &&
-				ypos>=getPosition().getDisplayedYPosition() &&
-				ypos<=getPosition().getDisplayedYPosition() + getHeight() - 1);
+		return (xpos>=getDisplayedXPosition() &&
+				xpos<=getDisplayedXPosition() + getWidth() - 1 &&
+				ypos>=getDisplayedYPosition() &&
+				ypos<=getDisplayedYPosition() + getHeight() - 1);
 	}
 	
 	/**
@@ -670,6 +967,40 @@ public abstract class GameObject extends ObjectOfWorld{
 	 */
 	private World world = null;
 	
+	/**
+	 * Return the random stream of this game object.
+	 * 
+	 * @note	Although this function is public, it is for internal use only.
+	 * @note	The random stream of a game object in a world is split off from
+	 * 			the random source of that world. It may only be used by the 
+	 * 			thread advancing that world.
+	 */
+	@Basic
+	public SplittableRandom getRandom() {
+		return random;
+	}
+	
+	/**
+	 * Set the random stream of this game object to the given stream.
+	 * 
+	 * @param 	random
+	 * 			The random stream to set.
+	 * @pre		...
+	 * 			| random != null
+	 * @post	...
+	 * 			| new.getRandom() == random
+	 */
+	void setRandom(SplittableRandom random) {
+		assert random != null;
+		this.random = random;
+	}
+	
+	/**
+	 * A variable storing the random stream from which this game object takes
+	 * all of its random decisions.
+	 */
+	private SplittableRandom random = new SplittableRandom();
+	
 	/**
 	 * Return the program belonging to this game object.
 	 * 
@@ -721,7 +1052,7 @@ public abstract class GameObject extends ObjectOfWorld{
 	 */
 	@Basic
 	public Direction getHorDirection() {
-		return horDirection;
+		return kinematics.horDirections[slot];
 	}
 	
 	/**
@@ -752,14 +1083,9 @@ public abstract class GameObject extends ObjectOfWorld{
 	@Model
 	protected void setHorDirection(Direction horDirection) {
 		assert isValidHorDirection(horDirection);
-		this.horDirection = horDirection;
+		kinematics.horDirections[slot] = horDirection;
 	}
 	
-	/**
-	 * A variable storing the horizontal direction.
-	 */
-	private Direction horDirection = Direction.NULL;
-	
 	/**
 	 * Return the initial horizontal velocity of this game object.
 	 */
@@ -841,7 +1167,7 @@ public abstract class GameObject extends ObjectOfWorld{
 	 */
 	@Basic
 	public double getHorVelocity() {
-		return horVelocity;
+		return kinematics.horVelocities[slot];
 	}
 	
 	/**
@@ -902,15 +1228,9 @@ public abstract class GameObject extends ObjectOfWorld{
 	@Model
 	protected void setHorVelocity(double horVelocity) {
 		if (canHaveAsHorVelocity(horVelocity))
-			this.horVelocity = horVelocity;
+			kinematics.horVelocities[slot] = horVelocity;
 	}
 	
-	/**
-	 * A variable storing the current horizontal velocity of this game object.
-	 * This value will always be a positive number of type double, or zero.
-	 */
-	private double horVelocity = 0;
-	
 	/**
 	 * Return the maximum horizontal acceleration of the character.
 	 */
@@ -929,7 +1249,7 @@ public abstract class GameObject extends ObjectOfWorld{
 	 */
 	@Basic
 	public double getHorAcceleration() {
-		return horAcceleration;
+		return kinematics.horAccelerations[slot];
 	}
 	
 	/**
@@ -955,16 +1275,9 @@ public abstract class GameObject extends ObjectOfWorld{
 	@Model
 	protected void setHorAcceleration(double horAcceleration) {
 		if (canHaveAsHorAcceleration(horAcceleration))
-			this.horAcceleration = horAcceleration;			
+			kinematics.horAccelerations[slot] = horAcceleration;
 	}
 
-	/**
-	 * A variable storing the current horizontal acceleration.
-	 * This variable will always store a positive number of type double, 
-	 * or it will store zero.
-	 */
-	private double horAcceleration = 0;
-
 	/**
 	 * Checks whether the game object is moving in horizontal direction.
 	 * 
@@ -1121,8 +1434,9 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * 
 	 * @param 	tile
 	 * 			The tile to check overlapping with.
-	 * @return	False if the given tile is not effective.
-	 * 			| if (tile == null)
+	 * @return	False if the given tile is not effective or if this game object
+	 * 			has no effective world.
+	 * 			| if (tile == null || getWorld() == null)
 	 * 			|	then result == false
 	 * 			Otherwise true if this game object and the other 
 	 * 			game object have at least one pixel in common. 
@@ -1131,14 +1445,12 @@ public abstract class GameObject extends ObjectOfWorld{
 	 */
 	@Model
 	protected boolean isOverlappingWith(Tile tile){
-		try {
-			return !(((getPosition().getDisplayedXPosition()+getWidth()-1) < tile.getXPosition()) ||
-					((tile.getXPosition()+getWorld().getTileSize()-1) < getPosition().getDisplayedXPosition())
-					|| ((getPosition().getDisplayedYPosition() + getHeight() -1) < tile.getYPosition())
-					|| ((tile.getYPosition()+getWorld().getTileSize()-1) < getPosition().getDisplayedYPosition()));
-		} catch (NullPointerException e) {
+		if (tile == null || getWorld() == null)
 			return false;
-		}
+		return !(((getDisplayedXPosition()+getWidth()-1) < tile.getXPosition()) ||
+				((tile.getXPosition()+getWorld().getTileSize()-1) < getDisplayedXPosition())
+				|| ((getDisplayedYPosition() + getHeight() -1) < tile.getYPosition())
+				|| ((tile.getYPosition()+getWorld().getTileSize()-1) < getDisplayedYPosition()));
 	}
 	
 	/**
@@ -1156,18 +1468,16 @@ public abstract class GameObject extends ObjectOfWorld{
 	 */
 	@Model
 	protected boolean isOverlappingWith(GameObject other){
-		try {
-			return !(((getPosition().getDisplayedXPosition()+getWidth()-1) < 
-					   other.getPosition().getDisplayedXPosition()) ||
-					((other.getPosition().getDisplayedXPosition()+ other.getWidth()-1) < 
-							getPosition().getDisplayedXPosition()) ||
-					((getPosition().getDisplayedYPosition() + getHeight() - 1) < 
-					  other.getPosition().getDisplayedYPosition()) ||
-					((other.getPosition().getDisplayedYPosition()+other.getHeight()-1) 
-					  < getPosition().getDisplayedYPosition()));
-		} catch (NullPointerException e) {
+		if (other == null)
 			return false;
-		}
+		return !(((getDisplayedXPosition()+getWidth()-1) < 
+				   other.getDisplayedXPosition()) ||
+				((other.getDisplayedXPosition()+ other.getWidth()-1) < 
+						getDisplayedXPosition()) ||
+				((getDisplayedYPosition() + getHeight() - 1) < 
+				  other.getDisplayedYPosition()) ||
+				((other.getDisplayedYPosition()+other.getHeight()-1) 
+				  < getDisplayedYPosition()));
 	}
 	
 	/**
@@ -1183,18 +1493,92 @@ public abstract class GameObject extends ObjectOfWorld{
 	 */
 	@Model
 	protected boolean isOverlappingWith(Terrain terrain){
+		return (getTerrainMask() & terrain.getMask()) != 0;
+	}
+	
+	/**
+	 * Return the terrain mask of the tiles in which this game object 
+	 * occupies at least one pixel.
+	 * 
+	 * @return	Zero if this game object has no effective world.
+	 * 			| if (getWorld() == null)
+	 * 			|	then result == 0
+	 * 			Else the union of the masks of the terrain types of all
+	 * 			tiles in which this game object occupies at least one pixel.
+	 * 			| else result == getWorld().getTerrainMaskIn(getDisplayedXPosition(),
+	 * 			|	getDisplayedYPosition(), getDisplayedXPosition()+getWidth()-1,
+	 * 			|	getDisplayedYPosition()+getHeight()-1)
+	 * @note	The mask is only computed anew after this game object has
+	 * 			moved or changed its size, or after a tile of its world has
+	 * 			changed its geological feature.
+	 * @note	Although this function is public, it is for internal use only.
+	 */
+	public int getTerrainMask(){
 		if (getWorld() == null)
-			return false;
-		HashSet<Tile> affectedTiles = getWorld().getTilesIn(getPosition().getDisplayedXPosition(),
-				getPosition().getDisplayedYPosition(), getPosition().getDisplayedXPosition()+getWidth()-1,
-				getPosition().getDisplayedYPosition()+getHeight()-1);
-		for (Tile tile: affectedTiles){
-			if (tile.getGeoFeature() == terrain)
-				return true;
-		}
-		return false;
+			return 0;
+		return terrainOccupancy.get(getWorld(), getDisplayedXPosition(),
+				getDisplayedYPosition(), getDisplayedXPosition()+getWidth()-1,
+				getDisplayedYPosition()+getHeight()-1);
+	}
+	
+	/**
+	 * A variable caching the terrain mask of the tiles occupied by this 
+	 * game object.
+	 */
+	private final TerrainOccupancy terrainOccupancy = new TerrainOccupancy();
+	
+	/**
+	 * Returns all game objects in the world of this game object that 
+	 * occupy at least one pixel that is also occupied by this game object.
+	 * 
+	 * @return	...
+	 * 			| new HashSet<GameObject>(result).equals(
+	 * 			|	getWorld().getGameObjectsIn(getDisplayedXPosition(),
+	 * 			|	getDisplayedYPosition(), 
+	 * 			|	getDisplayedXPosition()+getWidth()-1,
+	 * 			|	getDisplayedYPosition()+getHeight()-1))
+	 * @note	The resulting list is reused by the next invocation of this
+	 * 			method and of getOverlappingBlockingObjects().
+	 */
+	@Model
+	protected List<GameObject> getOverlappingGameObjects(){
+		getWorld().collectGameObjectsIn(getDisplayedXPosition(), getDisplayedYPosition(), 
+				getDisplayedXPosition()+getWidth()-1, getDisplayedYPosition()+getHeight()-1, 
+				overlappingGameObjects);
+		return overlappingGameObjects;
 	}
 	
+	/**
+	 * A list storing the game objects that overlapped with this game object
+	 * when they were last asked for.
+	 */
+	private final List<GameObject> overlappingGameObjects = new ArrayList<GameObject>();
+	
+	/**
+	 * Returns all impassable tiles underneath this game object.
+	 * 
+	 * @return	...
+	 * 			| new HashSet<Tile>(result).equals(
+	 * 			|	getWorld().getImpassableTilesIn(getDisplayedXPosition(),
+	 * 			|	getDisplayedYPosition(), 
+	 * 			|	getDisplayedXPosition()+getWidth()-1,
+	 * 			|	getDisplayedYPosition()+getHeight()-1))
+	 * @note	The resulting list is reused by the next invocation of this method.
+	 */
+	@Model
+	protected List<Tile> getOverlappingImpassableTiles(){
+		getWorld().collectImpassableTilesIn(getDisplayedXPosition(), getDisplayedYPosition(), 
+				getDisplayedXPosition()+getWidth()-1, getDisplayedYPosition()+getHeight()-1, 
+				overlappingImpassableTiles);
+		return overlappingImpassableTiles;
+	}
+	
+	/**
+	 * A list storing the impassable tiles underneath this game object when
+	 * they were last asked for.
+	 */
+	private final List<Tile> overlappingImpassableTiles = new ArrayList<Tile>();
+	
 	/**
 	 * Check whether this game object collides with a given tile in a given direction.
 	 * 
@@ -1215,15 +1599,10 @@ public abstract class GameObject extends ObjectOfWorld{
 		assert (direction != Direction.NULL);
 		if (!isOverlappingWith(tile))
 			return false;
-		int[][] positionsToCheck = getPerimeter(direction);
-		for(int index=1;index<positionsToCheck.length-1;index++){
-			if((getWorld().getBelongingTileXPosition(positionsToCheck[index][0]) == tile.getTileXPos()) 
-				&& getWorld().getBelongingTileYPosition(positionsToCheck[index][1]) == tile.getTileYPos())
-				return true;
-		}
-		return false;
+		int tileSize = getWorld().getTileSize();
+		return isEdgeOverlappingWith(direction, tile.getXPosition(), tile.getYPosition(),
+				tile.getXPosition()+tileSize-1, tile.getYPosition()+tileSize-1);
 	}
-
 	
 	/** 
 	 * Check whether this game object collides with another game object in a given direction.
@@ -1245,18 +1624,83 @@ public abstract class GameObject extends ObjectOfWorld{
 		assert (direction != Direction.NULL);
 		if (!isOverlappingWith(object))
 			return false;
-		int[][] positionsToCheck = getPerimeter(direction);
-		for(int index=1;index<positionsToCheck.length-1;index++){
-			if(object.occupiesPosition(new Position(positionsToCheck[index][0],
-			   positionsToCheck[index][1])))
-				return true;
+		int objectXPos = object.getDisplayedXPosition();
+		int objectYPos = object.getDisplayedYPosition();
+		return isEdgeOverlappingWith(direction, objectXPos, objectYPos,
+				objectXPos+object.getWidth()-1, objectYPos+object.getHeight()-1);
+	}
+	
+	/**
+	 * Check whether at least one pixel at the most far end in the given direction
+	 * of this game object, corners excluded, is located in the given rectangular region.
+	 * 
+	 * The side of this game object in the given direction is a line of pixels 
+	 * with one fixed coordinate. The check therefore reduces to testing whether 
+	 * that coordinate lies within the region and whether the interval of the
+	 * other coordinate intersects the region, which does not require to
+	 * enumerate the pixels of that side.
+	 * 
+	 * @param 	direction
+	 * 			The direction of the side to check.
+	 * @param 	pixelLeft
+	 *          The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *          The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *         	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *          The y-coordinate of the top side of the rectangular region.
+	 * @return	...
+	 * 			| let
+	 * 			|	positionsToCheck = getPerimeter(direction)
+	 * 			| in
+	 * 			|	result == (for some index in 1..positionsToCheck.length-2:
+	 * 			|		pixelLeft <= positionsToCheck[index][0] <= pixelRight &&
+	 * 			|		pixelBottom <= positionsToCheck[index][1] <= pixelTop)
+	 */
+	@Model
+	private boolean isEdgeOverlappingWith(Direction direction, int pixelLeft, int pixelBottom,
+			int pixelRight, int pixelTop){
+		int xPos = getDisplayedXPosition();
+		int yPos = getDisplayedYPosition();
+		if (direction == Direction.LEFT || direction == Direction.RIGHT){
+			int edgeXPos = (direction == Direction.LEFT) ? xPos : xPos+getWidth()-1;
+			return isInInterval(edgeXPos, pixelLeft, pixelRight) &&
+					areOverlappingIntervals(yPos+1, yPos+getHeight()-2, pixelBottom, pixelTop);
+		}
+		else if (direction == Direction.DOWN || direction == Direction.UP){
+			int edgeYPos = (direction == Direction.DOWN) ? yPos : yPos+getHeight()-1;
+			return isInInterval(edgeYPos, pixelBottom, pixelTop) &&
+					areOverlappingIntervals(xPos+1, xPos+getWidth()-2, pixelLeft, pixelRight);
 		}
 		return false;
 	}
 	
 	/**
-	 *  A method that receives a position in the form of a double array 
-	 * and returns the corrected position, after the given position has been checked 
+	 * Check whether the given value lies within the given closed interval.
+	 * 
+	 * @return	...
+	 * 			| result == (lower <= value && value <= upper)
+	 */
+	private static boolean isInInterval(int value, int lower, int upper){
+		return lower <= value && value <= upper;
+	}
+	
+	/**
+	 * Check whether the given non-empty first interval has at least one value
+	 * in common with the given second interval.
+	 * 
+	 * @return	...
+	 * 			| result == (firstLower <= firstUpper && 
+	 * 			|			 firstLower <= secondUpper && secondLower <= firstUpper)
+	 */
+	private static boolean areOverlappingIntervals(int firstLower, int firstUpper,
+			int secondLower, int secondUpper){
+		return firstLower <= firstUpper && firstLower <= secondUpper && secondLower <= firstUpper;
+	}	
+	/**
+	 * A method that receives a position in the form of a double array 
+	 * and corrects it in place, after the given position has been checked 
 	 * for whether or not this game object would collide with impassable tiles
 	 * if the given position would be assigned to this game object.
 	 * 
@@ -1266,27 +1710,23 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * 			second entry represents the y position.
 	 * @pre		The given position must have 2 entries.
 	 * 			| newPos.length == 2
-	 * @return	If the given position would be assigned to this game object and
+	 * @post	If the given position would be assigned to this game object and
 	 * 			as a result of that, this game object would collide with an
-	 * 			impassable tile in a horizontal direction, then the returned array 
-	 * 			will have as first entry the current x position.
-	 * 			Else, the returned array will have as first entry the first entry 
-	 * 			of the given position. In that case, the movement is ended
-	 * 			in that direction.
-	 * @return	If the given position would be assigned to this game object and
+	 * 			impassable tile in a horizontal direction, then the first entry 
+	 * 			of the given array is set to the current x position.
+	 * 			In that case, the movement is ended in that direction.
+	 * @post	If the given position would be assigned to this game object and
 	 * 			as a result of that, this game object would collide with an
-	 * 			impassable tile in a vertical direction, then the returned array
-	 * 			will have as second entry the current y position.
-	 * 			Else, the returned array will have as second entry the second entry 
-	 * 			of the given position. In that case, the movement is ended
-	 * 			in that direction.
+	 * 			impassable tile in a vertical direction, then the second entry 
+	 * 			of the given array is set to the current y position.
+	 * 			In that case, the movement is ended in that direction.
 	 */
 	@Model
-	protected abstract double[] updatePositionTileCollision(double[] newPos);
+	protected abstract void updatePositionTileCollision(double[] newPos);
 	
 	/**
 	 * A method that receives a position in the form of a double array 
-	 * and returns the corrected position, after the given position has been checked 
+	 * and corrects it in place, after the given position has been checked 
 	 * for whether or not this game object would collide with other game objects 
 	 * of a given collection if the given position would be assigned to this game object.
 	 *  
@@ -1294,73 +1734,54 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * 			The position to check in the form of a double array.
 	 * 			The first entry of this array represents the x position, the
 	 * 			second entry represents the y position.
-	 * @param 	set
-	 * 			The collection to check for collisions against.
+	 * @param 	objects
+	 * 			The game objects to check for collisions against.
 	 * @pre		The given position must have 2 entries.
 	 * 			| newPos.length == 2
-	 * @return	If the given position would be assigned to this game object and
+	 * @post	If the given position would be assigned to this game object and
 	 * 			as a result of that, this game object would collide with another
-	 * 			game object out of the given collection in a horizontal direction, 
-	 * 			then the returned array will have as first entry the current x position.
-	 * 			Else, the returned array will have as first entry the first entry 
-	 * 			of the given position. In that case, the movement is ended
-	 * 			in that direction.
-	 * @return	If the given position would be assigned to this game object and
+	 * 			game object out of the given list in a horizontal direction, 
+	 * 			then the first entry of the given array is set to the current 
+	 * 			x position. In that case, the movement is ended in that direction.
+	 * @post	If the given position would be assigned to this game object and
 	 * 			as a result of that, this game object would collide with another
-	 * 			game object out of the given collection in a vertical direction, 
-	 * 			then the returned array will have as second entry the current y position.
-	 * 			Else, the returned array will have as second entry the second entry 
-	 * 			of the given position. In that case, the movement is ended
-	 * 			in that direction.
+	 * 			game object out of the given list in a vertical direction, 
+	 * 			then the second entry of the given array is set to the current 
+	 * 			y position. In that case, the movement is ended in that direction.
 	 */
 	@Model
-	protected double[] getPositionAfterCollision(double[] newPos, Set<GameObject> set){
+	protected void updatePositionAfterCollision(double[] newPos, List<? extends GameObject> objects){
 		assert newPos.length == 2;
-		double newXPos = newPos[0];
-		double newYPos = newPos[1];
-		for (GameObject other: set){
+		for (int index = 0; index < objects.size(); index++){
+			GameObject other = objects.get(index);
 			if ((other != this) && this.isOverlappingWith(other)){
 				if (isColliding(Direction.DOWN, other)){
-					//System.out.print("Colliding down with object");
-					//System.out.print(object.toString());
-					if (this.isMoving(Direction.DOWN) || other.isMoving(Direction.UP)){
-						//newYPos = gameObject.getPosition().getYPosition()+gameObject.getHeight()-1;
-						newYPos = this.getPosition().getYPosition();
-					}
+					if (this.isMoving(Direction.DOWN) || other.isMoving(Direction.UP))
+						newPos[1] = this.getYPosition();
 					endMovement(Direction.DOWN);
 				}
 				else if(isColliding(Direction.UP, other)){
-					if (isMoving(Direction.UP) || other.isMoving(Direction.DOWN)){
-						//newYPos = gameObject.getPosition().getYPosition()-getHeight()+1;
-						newYPos = this.getPosition().getYPosition();
-					}
+					if (isMoving(Direction.UP) || other.isMoving(Direction.DOWN))
+						newPos[1] = this.getYPosition();
 					endMovement(Direction.UP);
-					//System.out.println("Colliding up");
 				}
 				if(isColliding(Direction.LEFT, other)){
-					if (isMoving(Direction.LEFT) || other.isMoving(Direction.RIGHT)){
-						//newXPos = gameObject.getPosition().getXPosition()+gameObject.getWidth()-1;
-						newXPos = this.getPosition().getXPosition();
-					}
+					if (isMoving(Direction.LEFT) || other.isMoving(Direction.RIGHT))
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.LEFT);
-					//System.out.println("Colliding left");
 				}
 				else if(isColliding(Direction.RIGHT, other)){
-					if (isMoving(Direction.RIGHT) || other.isMoving(Direction.LEFT)){
-						//newXPos = gameObject.getPosition().getXPosition()-getWidth()+1;
-						newXPos = this.getPosition().getXPosition();
-					}
+					if (isMoving(Direction.RIGHT) || other.isMoving(Direction.LEFT))
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.RIGHT);
-					//System.out.println("Colliding right");
 				}
 			}
 		}
-		return doubleArray(newXPos,newYPos);
 	}
 	
 	/**
 	 * A method that receives a position in the form of a double array 
-	 * and returns the corrected position, after the given position has been checked 
+	 * and corrects it in place, after the given position has been checked 
 	 * for whether or not this game object would collide with other game objects
 	 * that can block the movement of this game object.
 	 * 
@@ -1370,13 +1791,12 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * 			second entry represents the y position.
 	 * @pre		The given position must have 2 entries.
 	 * 			| newPos.length == 2
-	 * @return	The result from the method getPositionAfterCollision(newPos,collection)
-	 * 			with as collection the game objects that can block the movement of this game object.
-	 * 			| result == getPositionAfterCollision(newPos,getBlockingObjects()) 
+	 * @effect	...
+	 * 			| updatePositionAfterCollision(newPos,getOverlappingBlockingObjects()) 
 	 */
 	@Model
-	protected double[] updatePositionObjectCollision(double[] newPos){
-		return getPositionAfterCollision(newPos, getBlockingObjects());
+	protected void updatePositionObjectCollision(double[] newPos){
+		updatePositionAfterCollision(newPos, getOverlappingBlockingObjects());
 	}
 	
 	/**
@@ -1385,7 +1805,45 @@ public abstract class GameObject extends ObjectOfWorld{
 	 * @return	A set of all game objects that can block the movement of this game object.
 	 */
 	@Model
-	protected abstract Set<GameObject> getBlockingObjects();
+	protected abstract Set<? extends GameObject> getBlockingObjects();
+	
+	/**
+	 * Check whether the given game object can block the movement of this game object.
+	 * 
+	 * @param 	other
+	 * 			The game object to check.
+	 * @return	...
+	 * 			| result == getBlockingObjects().contains(other)
+	 */
+	@Model
+	protected boolean isBlockedBy(GameObject other){
+		return getBlockingObjects().contains(other);
+	}
+	
+	/**
+	 * Returns all game objects that overlap with this game object and that
+	 * can block the movement of this game object.
+	 * 
+	 * @return	...
+	 * 			| for each other in getOverlappingGameObjects():
+	 * 			|	result.contains(other) == isBlockedBy(other)
+	 * @note	The resulting list is the one returned by getOverlappingGameObjects(),
+	 * 			from which the game objects that cannot block this game object
+	 * 			have been removed.
+	 */
+	@Model
+	protected List<GameObject> getOverlappingBlockingObjects(){
+		List<GameObject> result = getOverlappingGameObjects();
+		int nbBlocking = 0;
+		for (int index = 0; index < result.size(); index++){
+			GameObject other = result.get(index);
+			if (isBlockedBy(other))
+				result.set(nbBlocking++, other);
+		}
+		while (result.size() > nbBlocking)
+			result.remove(result.size()-1);
+		return result;
+	}
 	
 	/**
 	 * A method to update the horizontal velocity over a given time interval.
@@ -1493,6 +1951,7 @@ public abstract class GameObject extends ObjectOfWorld{
 	protected void setIndex(int index) {
 		assert isValidIndex(index);
 		this.index = index;
+		updateSpriteSize();
 	}
 	
 	/**
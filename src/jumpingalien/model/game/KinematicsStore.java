@@ -0,0 +1,305 @@
+package jumpingalien.model.game;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of tables storing the kinematic state of the game objects of a
+ * world in parallel arrays. Each game object in the world owns one slot,
+ * which is the index of its state in every array. The slots in use are
+ * always the first getSize() ones.
+ *
+ * @invar	...
+ * 			| for each slot in 0..getSize()-1:
+ * 			|	getGameObjectAt(slot).getSlot() == slot
+ *
+ * @note	The store is the only owner of this state: the getters and setters
+ * 			of a game object read and write its slot directly. A game object
+ * 			that is not in a world has a store of its own with a single slot.
+ * 			The world reads the arrays directly in the passes that inspect all
+ * 			of its game objects at once.
+ *
+ * @author Jakob Festraets, Vincent Kemps
+ * @version	1.0
+ *
+ */
+final class KinematicsStore {
+
+	/**
+	 * Initialize this new store without any game objects.
+	 */
+	KinematicsStore(){
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Initialize this new store without any game objects, with room for the
+	 * given number of game objects.
+	 */
+	KinematicsStore(int capacity){
+		allocate(capacity);
+	}
+
+	/**
+	 * Return the number of slots of this store in use.
+	 */
+	@Basic
+	int getSize() {
+		return size;
+	}
+
+	private int size = 0;
+
+	/**
+	 * Return the game object owning the given slot.
+	 */
+	GameObject getGameObjectAt(int slot){
+		assert slot >= 0 && slot < getSize();
+		return gameObjects[slot];
+	}
+
+	/**
+	 * Give the given game object a slot in this store, and move its kinematic
+	 * state from the store it had until now into that slot.
+	 *
+	 * @param 	object
+	 * 			The game object to add.
+	 * @post	...
+	 * 			| new.getSize() == getSize()+1 &&
+	 * 			| new.getGameObjectAt(getSize()) == object
+	 * @post	If the given game object has no store yet, its state is that 
+	 * 			of a game object at rest at the origin.
+	 * @effect	...
+	 * 			| object.attachKinematics(this, getSize())
+	 */
+	void add(GameObject object){
+		if (size == gameObjects.length)
+			allocate(2*size);
+		gameObjects[size] = object;
+		KinematicsStore source = object.getKinematics();
+		if (source == null)
+			clear(size);
+		else
+			copy(source, object.getSlot(), size);
+		previousXPositions[size] = xPositions[size];
+		previousYPositions[size] = yPositions[size];
+		object.attachKinematics(this, size);
+		size++;
+	}
+
+	/**
+	 * Reset every column of the given slot, such that a new game object does
+	 * not inherit the state of a previous owner.
+	 */
+	private void clear(int slot){
+		xPositions[slot] = 0;
+		yPositions[slot] = 0;
+		previousXPositions[slot] = 0;
+		previousYPositions[slot] = 0;
+		horVelocities[slot] = 0;
+		vertVelocities[slot] = 0;
+		horAccelerations[slot] = 0;
+		vertAccelerations[slot] = 0;
+		horDirections[slot] = Direction.NULL;
+		vertDirections[slot] = Direction.NULL;
+		widths[slot] = 0;
+		heights[slot] = 0;
+	}
+
+	/**
+	 * Copy every column of the given slot of the given store into the given
+	 * slot of this store.
+	 */
+	private void copy(KinematicsStore source, int sourceSlot, int slot){
+		xPositions[slot] = source.xPositions[sourceSlot];
+		yPositions[slot] = source.yPositions[sourceSlot];
+		previousXPositions[slot] = source.previousXPositions[sourceSlot];
+		previousYPositions[slot] = source.previousYPositions[sourceSlot];
+		horVelocities[slot] = source.horVelocities[sourceSlot];
+		vertVelocities[slot] = source.vertVelocities[sourceSlot];
+		horAccelerations[slot] = source.horAccelerations[sourceSlot];
+		vertAccelerations[slot] = source.vertAccelerations[sourceSlot];
+		horDirections[slot] = source.horDirections[sourceSlot];
+		vertDirections[slot] = source.vertDirections[sourceSlot];
+		widths[slot] = source.widths[sourceSlot];
+		heights[slot] = source.heights[sourceSlot];
+	}
+
+	/**
+	 * Release the slot of the given game object, which takes its kinematic 
+	 * state along into a store of its own. The game object in the last slot
+	 * takes its place.
+	 *
+	 * @param 	object
+	 * 			The game object to remove.
+	 * @post	...
+	 * 			| new.getSize() == getSize()-1
+	 * @effect	...
+	 * 			| new KinematicsStore(1).add(object)
+	 */
+	void remove(GameObject object){
+		int slot = object.getSlot();
+		assert slot >= 0 && gameObjects[slot] == object;
+		new KinematicsStore(1).add(object);
+		int last = size-1;
+		if (slot != last){
+			GameObject moved = gameObjects[last];
+			gameObjects[slot] = moved;
+			copy(this, last, slot);
+			moved.moveKinematics(slot);
+		}
+		gameObjects[last] = null;
+		size--;
+	}
+
+	/**
+	 * Release the slots of all game objects in this store.
+	 *
+	 * @post	...
+	 * 			| new.getSize() == 0
+	 * @effect	...
+	 * 			| for each slot in 0..getSize()-1:
+	 * 			|	new KinematicsStore(1).add(getGameObjectAt(slot))
+	 */
+	void removeAll(){
+		for (int slot = 0; slot < size; slot++){
+			new KinematicsStore(1).add(gameObjects[slot]);
+			gameObjects[slot] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Store the current position of every game object in this store as its
+	 * previous position.
+	 */
+	void rememberPositions(){
+		System.arraycopy(xPositions, 0, previousXPositions, 0, size);
+		System.arraycopy(yPositions, 0, previousYPositions, 0, size);
+	}
+
+	/**
+	 * Check whether the game object in the given slot neither moves nor
+	 * accelerates.
+	 */
+	boolean isAtRest(int slot){
+		int horFactor = horDirections[slot].getFactor();
+		return horFactor*horVelocities[slot] == 0 && horFactor*horAccelerations[slot] == 0 &&
+				vertDirections[slot].getFactor()*vertVelocities[slot] == 0 && 
+				vertAccelerations[slot] == 0;
+	}
+
+	/**
+	 * Check whether the game object in the given slot occupies at least one 
+	 * pixel of the given rectangular region.
+	 * 
+	 * @return	...
+	 * 			| let xPos = floor(xPositions[slot]), yPos = floor(yPositions[slot])
+	 * 			| in result == 
+	 * 			|	!((xPos+widths[slot]-1 < pixelLeft) || (pixelRight < xPos)
+	 * 			|	|| (yPos+heights[slot]-1 < pixelBottom) || (pixelTop < yPos))
+	 */
+	boolean overlaps(int slot, int pixelLeft, int pixelBottom, int pixelRight, int pixelTop){
+		int xPos = (int) Math.floor(xPositions[slot]);
+		int yPos = (int) Math.floor(yPositions[slot]);
+		return !((xPos+widths[slot]-1 < pixelLeft) || (pixelRight < xPos)
+				|| (yPos+heights[slot]-1 < pixelBottom) || (pixelTop < yPos));
+	}
+	
+	/**
+	 * Return the distance in pixels between the game object in the given
+	 * slot and the given rectangle, measured along the axis on which they
+	 * lie farthest apart.
+	 *
+	 * @return	...
+	 * 			| result == max(0, left-(xPositions[slot]+widths[slot]),
+	 * 			|		xPositions[slot]-right,
+	 * 			|		bottom-(yPositions[slot]+heights[slot]),
+	 * 			|		yPositions[slot]-top)
+	 */
+	double getDistanceTo(int slot, double left, double bottom, double right, double top){
+		double horDistance = Math.max(left-(xPositions[slot]+widths[slot]), xPositions[slot]-right);
+		double vertDistance = Math.max(bottom-(yPositions[slot]+heights[slot]), yPositions[slot]-top);
+		return Math.max(0, Math.max(horDistance, vertDistance));
+	}
+
+	/**
+	 * Let all arrays of this store have the given capacity.
+	 */
+	private void allocate(int capacity){
+		if (gameObjects == null){
+			gameObjects = new GameObject[capacity];
+			xPositions = new double[capacity];
+			yPositions = new double[capacity];
+			previousXPositions = new double[capacity];
+			previousYPositions = new double[capacity];
+			horVelocities = new double[capacity];
+			vertVelocities = new double[capacity];
+			horAccelerations = new double[capacity];
+			vertAccelerations = new double[capacity];
+			horDirections = new Direction[capacity];
+			vertDirections = new Direction[capacity];
+			widths = new int[capacity];
+			heights = new int[capacity];
+		}
+		else{
+			gameObjects = Arrays.copyOf(gameObjects, capacity);
+			xPositions = Arrays.copyOf(xPositions, capacity);
+			yPositions = Arrays.copyOf(yPositions, capacity);
+			previousXPositions = Arrays.copyOf(previousXPositions, capacity);
+			previousYPositions = Arrays.copyOf(previousYPositions, capacity);
+			horVelocities = Arrays.copyOf(horVelocities, capacity);
+			vertVelocities = Arrays.copyOf(vertVelocities, capacity);
+			horAccelerations = Arrays.copyOf(horAccelerations, capacity);
+			vertAccelerations = Arrays.copyOf(vertAccelerations, capacity);
+			horDirections = Arrays.copyOf(horDirections, capacity);
+			vertDirections = Arrays.copyOf(vertDirections, capacity);
+			widths = Arrays.copyOf(widths, capacity);
+			heights = Arrays.copyOf(heights, capacity);
+		}
+	}
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private GameObject[] gameObjects;
+
+	/**
+	 * Arrays storing the position of each game object, in pixels.
+	 */
+	double[] xPositions;
+	double[] yPositions;
+
+	/**
+	 * Arrays storing the position of each game object at the start of the
+	 * last tick of a world with a fixed time step.
+	 */
+	double[] previousXPositions;
+	double[] previousYPositions;
+
+	/**
+	 * Arrays storing the velocity and the acceleration of each game object,
+	 * in meters per second and meters per second squared, as returned by 
+	 * its getters. Except for the vertical acceleration, they are the size
+	 * of the velocity or acceleration along the direction of that object.
+	 */
+	double[] horVelocities;
+	double[] vertVelocities;
+	double[] horAccelerations;
+	double[] vertAccelerations;
+
+	/**
+	 * Arrays storing the horizontal and the vertical direction of each game
+	 * object.
+	 */
+	Direction[] horDirections;
+	Direction[] vertDirections;
+
+	/**
+	 * Arrays storing the size of the current sprite of each game object. 
+	 * Unlike the other columns, they are derived from the sprite, and the 
+	 * game object writes them each time its current sprite changes.
+	 */
+	int[] widths;
+	int[] heights;
+}
@@ -2,11 +2,11 @@ package jumpingalien.model.game;
 
 import jumpingalien.model.exceptions.*;
 import jumpingalien.model.program.programs.Program;
-import static jumpingalien.tests.util.TestUtils.doubleArray;
 import jumpingalien.util.Sprite;
 
-import java.util.Random;
+import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import be.kuleuven.cs.som.annotate.*;
 
@@ -80,7 +80,7 @@ public class Plant extends GameObject {
 	 */
 	@Model
 	private void setRandomDirection() {
-		Random rn = new Random();
+		SplittableRandom rn = getRandom();
 		int startIndex = rn.nextInt(2);
 		if(startIndex == 0){
 			setHorDirection(Direction.LEFT);
@@ -92,6 +92,25 @@ public class Plant extends GameObject {
 		}
 	}	
 	
+	/**
+	 * Set the world of this plant to the given world.
+	 * 
+	 * @param	world
+	 * 			The world to set.
+	 * @effect	...
+	 * 			| super.setWorld(world)
+	 * @effect	A plant that is added to a world chooses its direction again
+	 * 			with the random stream it received from that world.
+	 * 			| if (world != null)
+	 * 			|	then setRandomDirection()
+	 */
+	@Override@Model
+	protected void setWorld(@Raw World world) {
+		super.setWorld(world);
+		if (world != null)
+			setRandomDirection();
+	}
+	
 	/**
 	 * A variable storing the velocity of a plant.
 	 * Its value is always the same.
@@ -218,6 +237,26 @@ public class Plant extends GameObject {
 		}
 	}
 	
+	/**
+	 * Check whether advancing the time of this plant now would do nothing 
+	 * else than letting its timers run, as long as no other game object 
+	 * touches it.
+	 * 
+	 * @return	A plant without a program that does not move, can sleep until it
+	 * 			changes its direction, or until it is removed once it is dead.
+	 * 			| result == (!hasProgram() && getHorVelocity() == 0 &&
+	 * 			|	(isDead() ? (getHorDirection() == Direction.NULL && getHpTimer().getTimeSum() <= 0.6)
+	 * 			|			  : getSpritesTimer().getTimeSum() <= 0.5))
+	 */
+	@Override@Model
+	protected boolean canSleep(){
+		if (hasProgram() || getHorVelocity() != 0)
+			return false;
+		if (isDead())
+			return getHorDirection() == Direction.NULL && getHpTimer().getTimeSum() <= 0.6;
+		return getSpritesTimer().getTimeSum() <= 0.5;
+	}
+	
 	/**
 	 * A method to estimate the time duration needed to travel 0.01 meters,
 	 * given a certain time duration.
@@ -242,50 +281,48 @@ public class Plant extends GameObject {
 	 * 
 	 * @post	...
 	 * 			| let
-	 * 			|	oldPos = getPosition(),
 	 * 			|	newPos = f(getPosition(),getHorDirection(),getHorVelocity(),timeDuration),
-	 * 			|	newPos = updatePositionTileCollision(newPos.toDoubleArray()),
-	 * 			|	newPos = updatePositionObjectCollision(newPos)
+	 * 			|	updatePositionTileCollision(newPos),
+	 * 			|	updatePositionObjectCollision(newPos)
 	 * 			| in
-	 * 			|	setPosition(toPosition(newPos,getWorld())),
-	 * 			|	oldPosition.terminate()
+	 * 			|	setPosition(newPos[0],newPos[1])
+	 * @note	The position corrected for the collision with impassable tiles 
+	 * 			is not used. Plants only stop moving into impassable tiles.
 	 */ 
 	@Override@Model
 	protected void updatePosition(double timeDuration) {		
-		double newXPos = getPosition().getXPosition() + getHorDirection().getFactor()*
+		double newXPos = getXPosition() + getHorDirection().getFactor()*
 				(getHorVelocity()*timeDuration)*100;
-		double[] newPos = updatePositionTileCollision(doubleArray(newXPos,getPosition().getYPosition()));
-		newPos = updatePositionObjectCollision(doubleArray(newXPos,this.getPosition().getYPosition()));
-		getPosition().terminate();
-		setPosition(toPosition(newPos, getWorld()));
+		updatePositionTileCollision(getNewPosition(newXPos,getYPosition()));
+		double[] newPos = getNewPosition(newXPos,getYPosition());
+		updatePositionObjectCollision(newPos);
+		setPosition(newPos[0], newPos[1]);
 	}
 	
 	/**
-	 *  A method that receives a position in the form of a double array 
-	 * and returns the corrected position, after the given position has been checked 
+	 * A method that receives a position in the form of a double array 
+	 * and corrects it in place, after the given position has been checked 
 	 * for whether or not this game object would collide with impassable tiles
 	 * if the given position would be assigned to this game object.
 	 */
 	@Override@Model
-	protected double[] updatePositionTileCollision(double[] newPos) {
-		double newXPos = newPos[0];
-		for (Tile impassableTile: getWorld().getImpassableTiles()){
+	protected void updatePositionTileCollision(double[] newPos) {
+		List<Tile> impassableTiles = getOverlappingImpassableTiles();
+		for (int index = 0; index < impassableTiles.size(); index++){
+			Tile impassableTile = impassableTiles.get(index);
 			if (this.isOverlappingWith(impassableTile)){
 				if(isColliding(Direction.LEFT, impassableTile)){
 					if (isMoving(Direction.LEFT))
-						newXPos = this.getPosition().getXPosition();
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.LEFT);
-					//System.out.println("Colliding left");
 				}
 				else if(isColliding(Direction.RIGHT, impassableTile)){
 					if (isMoving(Direction.RIGHT))
-						newXPos = this.getPosition().getXPosition();
-					//System.out.println("Colliding right");
+						newPos[0] = this.getXPosition();
 					endMovement(Direction.RIGHT);
 				}
 			}
 		}
-		return doubleArray(newXPos,newPos[1]);
 	}
 	
 	/**
@@ -304,6 +341,19 @@ public class Plant extends GameObject {
 		((t instanceof Plant) || t instanceof Alien));
 	}
 	
+	/**
+	 * Check whether the given game object can block the movement of this plant.
+	 * 
+	 * @param 	other
+	 * 			The game object to check.
+	 * @return	...
+	 * 			| result == ((other instanceof Plant) || (other instanceof Alien))
+	 */
+	@Override@Model
+	protected boolean isBlockedBy(GameObject other){
+		return (other instanceof Plant) || (other instanceof Alien);
+	}
+	
 	/**
 	 * A method to alternate the horizontal direction of this plant.
 	 * 
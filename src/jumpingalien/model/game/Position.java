@@ -3,7 +3,6 @@ package jumpingalien.model.game;
 import jumpingalien.model.exceptions.IllegalXPositionException;
 import jumpingalien.model.exceptions.IllegalYPositionException;
 import be.kuleuven.cs.som.annotate.*;
-import static jumpingalien.tests.util.TestUtils.*;
 
 /**
  * A class involving positions in a game world.
@@ -182,6 +181,50 @@ public class Position {
 	 */
 	private double yPosition = 0;	
 	
+	/**
+	 * Check whether the given x and y position are valid in the given world.
+	 * 
+	 * @param 	x
+	 * 			The x position to check.
+	 * @param 	y
+	 * 			The y position to check.
+	 * @param	world
+	 * 			The world to check against.
+	 * @return	...
+	 * 			| result == isValidXPosition(x,world) && isValidYPosition(y,world)
+	 */
+	static boolean isValidPosition(double x, double y, World world){
+		return isValidXPosition(x,world) && isValidYPosition(y,world);
+	}
+	
+	/**
+	 * Check whether the given x and y position form a valid position in the
+	 * given world.
+	 * 
+	 * @param 	x
+	 * 			The x position to check.
+	 * @param 	y
+	 * 			The y position to check.
+	 * @param 	world
+	 * 			The world to check against.
+	 * @throws 	IllegalXPositionException
+	 * 			...
+	 * 			| !isValidXPosition(x,world) 
+	 * @throws 	IllegalYPositionException
+	 * 			...
+	 * 			| !isValidYPosition(y,world)
+	 * @note	Game objects keep their position in their kinematics store, and
+	 * 			use this method to validate a new position without creating it.
+	 */
+	@Model
+	static void checkPosition(double x, double y, World world) throws 
+	IllegalXPositionException,IllegalYPositionException{
+		if (!isValidXPosition(x,world))
+			throw new IllegalXPositionException((int) Math.floor(x));
+		if (!isValidYPosition(y,world))
+			throw new IllegalYPositionException((int) Math.floor(y));
+	}
+	
 	/**
 	 * A method to format this position into a double array.
 	 * 
@@ -193,7 +236,7 @@ public class Position {
 	 */
 	@Model
 	protected double[] toDoubleArray(){
-		return doubleArray(this.getXPosition(),this.getYPosition());
+		return new double[]{this.getXPosition(),this.getYPosition()};
 	}
 	
 	/**
@@ -206,7 +249,7 @@ public class Position {
 	 * 			| result[1] == getDisplayedYPosition()
 	 */
 	public int[] toIntArray(){
-		return intArray(this.getDisplayedXPosition(),this.getDisplayedYPosition());
+		return new int[]{this.getDisplayedXPosition(),this.getDisplayedYPosition()};
 	}
 	
 	/**
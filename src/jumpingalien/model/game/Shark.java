@@ -1,13 +1,11 @@
 package jumpingalien.model.game;
 
-import java.util.HashSet;
-import java.util.Random;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import be.kuleuven.cs.som.annotate.*;
 import jumpingalien.model.program.programs.Program;
 import jumpingalien.util.Sprite;
-import static jumpingalien.tests.util.TestUtils.doubleArray;
 
 /**
  * A class concerning sharks as a subclass of characters with the ability to jump.
@@ -175,7 +173,7 @@ public class Shark extends Character implements JumpInterface{
 	 */
 	@Model
 	private void setRandomHorDirection() {
-		Random rn = new Random();
+		SplittableRandom rn = getRandom();
 		int startIndex = rn.nextInt(2);
 		if(startIndex == 0)
 			setHorDirection(Direction.LEFT);
@@ -193,7 +191,7 @@ public class Shark extends Character implements JumpInterface{
 	 */
 	@Model
 	private void setRandomVertDirection() {
-		Random rn = new Random();
+		SplittableRandom rn = getRandom();
 		int startIndex = rn.nextInt(2);
 		if(startIndex == 1)
 			setVertDirection(Direction.UP);
@@ -211,7 +209,7 @@ public class Shark extends Character implements JumpInterface{
 	 */
 	@Model
 	private void setRandomVertAcceleration(){
-		Random rn = new Random();
+		SplittableRandom rn = getRandom();
 		setVertAcceleration(SHARK_DIVING_ACCEL + 
 				((SHARK_RISING_ACCEL-SHARK_DIVING_ACCEL)*rn.nextDouble()));
 	}
@@ -281,8 +279,8 @@ public class Shark extends Character implements JumpInterface{
 	 * 			| result <= MAX_PERIOD && result >= MIN_PERIOD
 	 */
 	@Model
-	private static double randomPeriodDuration(){
-		Random rn = new Random();
+	private double randomPeriodDuration(){
+		SplittableRandom rn = getRandom();
 		return MIN_PERIOD + (MAX_PERIOD - MIN_PERIOD) * rn.nextDouble();
 	}
 	
@@ -618,29 +616,27 @@ public class Shark extends Character implements JumpInterface{
 	 * 
 	 * @post	...
 	 * 			| let
-	 * 			|	oldPos = getPosition(),
 	 * 			|	newPos = f(getPosition(),getHorDirection(),getHorVelocity(),
 	 * 			|			   getHorAcceleration(),getVertDirection(),
 	 * 			|			   getVertVelocity(),getVertAcceleration(),timeDuration)
 	 * 			| 	if(getWorld() != null)
-	 * 			|		then newPos = updatePositionTileCollision(newPos.toDoubleArray()),
-	 * 			|		     newPos = updatePositionObjectCollision(newPos)
+	 * 			|		then updatePositionTileCollision(newPos),
+	 * 			|		     updatePositionObjectCollision(newPos)
 	 * 			| in
-	 * 			|	setPosition(toPosition(newPos,getWorld())),
-	 * 			|	oldPosition.terminate()
+	 * 			|	moveWithinWorld(newPos[0],newPos[1])
 	 */
 	@Override@Model
 	protected void updatePosition(double timeDuration) {
-		double newXPos = getPosition().getXPosition() + getHorDirection().getFactor()*
+		double newXPos = getXPosition() + getHorDirection().getFactor()*
 				(getHorVelocity()*timeDuration+ 0.5*getHorAcceleration()*Math.pow(timeDuration, 2))*100;
-		double newYPos = getPosition().getYPosition() + 
+		double newYPos = getYPosition() + 
 				((getVertDirection().getFactor()*getVertVelocity()*timeDuration)+ 
 				0.5*getVertAcceleration()*Math.pow(timeDuration, 2))*100;
-		double[] newPos = doubleArray(newXPos,newYPos);
+		double[] newPos = getNewPosition(newXPos,newYPos);
 		
 		if(getWorld() != null){
-			newPos = updatePositionTileCollision(doubleArray(newXPos,newYPos));
-			newPos = updatePositionObjectCollision(newPos);
+			updatePositionTileCollision(newPos);
+			updatePositionObjectCollision(newPos);
 		}
 		
 		if ((canFall() && !isSubmergedIn(Terrain.WATER)) && !isMoving(Direction.UP))
@@ -648,8 +644,36 @@ public class Shark extends Character implements JumpInterface{
 		else
 			setCanFall(true);
 		
-		getPosition().terminate();
-		setPosition(toPosition(newPos,getWorld()));
+		moveWithinWorld(newPos[0], newPos[1]);
+	}
+	
+	/**
+	 * Check whether this shark keeps moving in the same way while it moves 
+	 * freely through the given rectangular region.
+	 * 
+	 * @return	If all tiles in the region, extended as in isSubmergedIn, are 
+	 * 			water tiles, true if and only if this shark is not sinking
+	 * 			without diving.
+	 * 			| if (all tiles in the extended region are water)
+	 * 			|	then result == !(isMoving(Direction.DOWN) && !isDiving())
+	 * @return	Else, if none of these tiles is a water tile, true if and only 
+	 * 			if this shark is not rising and it moves in a stable way as
+	 * 			a character.
+	 * 			| else if (no tile in the extended region is water)
+	 * 			|	then result == (!isRising() && 
+	 * 			|		super.hasStableMovementIn(pixelLeft, pixelBottom, pixelRight, pixelTop))
+	 * @return	Else, the result is false.
+	 */
+	@Override@Model
+	protected boolean hasStableMovementIn(int pixelLeft, int pixelBottom, 
+			int pixelRight, int pixelTop){
+		int mask = getWorld().getTerrainMaskIn(pixelLeft+1, pixelBottom, pixelRight-1, pixelTop+1);
+		if ((mask & ~Terrain.WATER.getMask()) == 0)
+			return !(isMoving(Direction.DOWN) && !isDiving());
+		if ((mask & Terrain.WATER.getMask()) == 0)
+			return !isRising() && 
+					super.hasStableMovementIn(pixelLeft, pixelBottom, pixelRight, pixelTop);
+		return false;
 	}
 	
 	/**
@@ -658,10 +682,9 @@ public class Shark extends Character implements JumpInterface{
 	 * @return	...
 	 * 			| result.contains(getWorld().getAllCharacters())
 	 */
-	@SuppressWarnings("unchecked")
 	@Override@Model
-	protected Set<GameObject> getBlockingObjects() {
-		return (Set<GameObject>)getWorld().filterAllGameObjects(t-> t instanceof Character);	
+	protected Set<? extends GameObject> getBlockingObjects() {
+		return getWorld().getAllCharacters();
 	}
 	
 	/**
@@ -675,15 +698,17 @@ public class Shark extends Character implements JumpInterface{
 	 */
 	@Model
 	private boolean isSubmergedIn(Terrain terrain){ 
-		HashSet<Tile> affectedTiles = getWorld().getTilesIn(getPosition().getDisplayedXPosition()+1,
-				getPosition().getDisplayedYPosition(), getPosition().getDisplayedXPosition()+getWidth()-2,
-				getPosition().getDisplayedYPosition()+getHeight());
-		for (Tile tile: affectedTiles){
-			if (tile.getGeoFeature() != terrain)
-				return false;
-		}
-		return true;
+		int mask = submergedOccupancy.get(getWorld(), getDisplayedXPosition()+1,
+				getDisplayedYPosition(), getDisplayedXPosition()+getWidth()-2,
+				getDisplayedYPosition()+getHeight());
+		return (mask & ~terrain.getMask()) == 0;
 	}
+	
+	/**
+	 * A variable caching the terrain mask of the region checked by 
+	 * isSubmergedIn.
+	 */
+	private final TerrainOccupancy submergedOccupancy = new TerrainOccupancy();
 
 	/**
 	 * A method to update the vertical velocity over a given time interval.
@@ -0,0 +1,31 @@
+package jumpingalien.model.game;
+
+/**
+ * An enumeration involving the levels of detail at which the game objects
+ * of a world are simulated, depending on their distance to the visible window.
+ * 
+ * @author Jakob Festraets, Vincent Kemps
+ * @version	1.0
+ *
+ */
+public enum SimulationTier {
+	
+	/**
+	 * Game objects are advanced on every tick of their world.
+	 */
+	FULL,
+	
+	/**
+	 * Game objects collect the time of the ticks of their world and are only 
+	 * advanced once the collected time reaches the reduced time step of their 
+	 * world. Characters are then moved as in continuous collision mode.
+	 */
+	REDUCED,
+	
+	/**
+	 * Game objects are not advanced at all. The time they miss, up to the 
+	 * maximum replay time of their world, is simulated as soon as they are 
+	 * no longer frozen.
+	 */
+	FROZEN;
+}
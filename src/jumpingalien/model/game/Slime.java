@@ -1,9 +1,9 @@
 package jumpingalien.model.game;
 
-import static jumpingalien.tests.util.TestUtils.doubleArray;
 
-import java.util.Random;
+import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import jumpingalien.model.exceptions.IllegalTimeIntervalException;
 import jumpingalien.model.exceptions.IllegalXPositionException;
@@ -203,7 +203,7 @@ public class Slime extends Character{
 	 */
 	@Model
 	private void setRandomHorDirection() {
-		Random rn = new Random();
+		SplittableRandom rn = getRandom();
 		int startIndex = rn.nextInt(2);
 		if(startIndex == 0)
 			setHorDirection(Direction.LEFT);
@@ -268,7 +268,7 @@ public class Slime extends Character{
 	 */
 	@Model
 	double randomPeriodDuration(){
-		Random rn = new Random();
+		SplittableRandom rn = getRandom();
 		return MIN_PERIOD + (MAX_PERIOD - MIN_PERIOD) * rn.nextDouble();
 	}
 	
@@ -378,37 +378,34 @@ public class Slime extends Character{
 	 * 
 	 * @post	...
 	 * 			| let
-	 * 			|	oldPos = getPosition(),
 	 * 			|	newPos = f(getPosition(),getHorDirection(),getHorVelocity(),
 	 * 			|			   getHorAcceleration(),getVertDirection(),
 	 * 			|			   getVertVelocity(),getVertAcceleration(),timeDuration)
 	 * 			|	if(getWorld() != null)
-	 * 			|		then newPos = updatePositionTileCollision(newPos.toDoubleArray()),
-	 * 			|			 newPos = updatePositionObjectCollision(newPos)
+	 * 			|		then updatePositionTileCollision(newPos),
+	 * 			|			 updatePositionObjectCollision(newPos)
 	 * 			| in
-	 * 			|	setPosition(toPosition(newPos,getWorld())),
-	 * 			|	oldPosition.terminate()
+	 * 			|	moveWithinWorld(newPos[0],newPos[1])
 	 */
 	@Override@Model
 	protected void updatePosition(double timeDuration) {
-		double newXPos = getPosition().getXPosition() + getHorDirection().getFactor()*
+		double newXPos = getXPosition() + getHorDirection().getFactor()*
 				(getHorVelocity()*timeDuration+ 0.5*getHorAcceleration()*Math.pow(timeDuration, 2))*100;
-		double newYPos = getPosition().getYPosition() + 
+		double newYPos = getYPosition() + 
 				((getVertDirection().getFactor()*getVertVelocity()*timeDuration)+ 
 				0.5*getVertAcceleration()*Math.pow(timeDuration, 2))*100;
-		double[] newPos = doubleArray(newXPos,newYPos);
+		double[] newPos = getNewPosition(newXPos,newYPos);
 		
 		if(getWorld() != null){
-			newPos = updatePositionTileCollision(doubleArray(newXPos,newYPos));
-			newPos = updatePositionObjectCollision(newPos);
+			updatePositionTileCollision(newPos);
+			updatePositionObjectCollision(newPos);
 		}
 		if (canFall() && !isMoving(Direction.UP)){
 			startFall();
 		}
 		else
 			setCanFall(true);
-		getPosition().terminate();
-		setPosition(toPosition(newPos, getWorld()));
+		moveWithinWorld(newPos[0], newPos[1]);
 	}
 	
 	/**
@@ -417,10 +414,9 @@ public class Slime extends Character{
 	 * @return	...
 	 * 			| result.contains(getWorld().getAllCharacters())
 	 */
-	@SuppressWarnings("unchecked")
 	@Override@Model
-	protected Set<GameObject> getBlockingObjects() {
-		return (Set<GameObject>)getWorld().filterAllGameObjects(t-> t instanceof Character);	
+	protected Set<? extends GameObject> getBlockingObjects() {
+		return getWorld().getAllCharacters();
 	}	
 	
 	/**
@@ -500,7 +496,12 @@ public class Slime extends Character{
 					isHurt = true;
 				}
 			}
-			for (Shark shark: getWorld().getAllSharks()){
+			List<GameObject> overlappingObjects = getOverlappingGameObjects();
+			for (int index = 0; index < overlappingObjects.size(); index++){
+				GameObject object = overlappingObjects.get(index);
+				if(!(object instanceof Shark))
+					continue;
+				Shark shark = (Shark)object;
 				if(!isDead() && isOverlappingWith(shark)){
 					if(!isImmune()){
 						getHurtBy(shark);
@@ -594,8 +595,13 @@ public class Slime extends Character{
 	 */
 	@Model
 	void updateSchool(){
-		if (getWorld() != null && getWorld().getAllSlimes()!= null){
-			for (Slime other: getWorld().getAllSlimes()){
+		if (getWorld() != null){
+			List<GameObject> overlappingObjects = getOverlappingGameObjects();
+			for (int index = 0; index < overlappingObjects.size(); index++){
+				GameObject object = overlappingObjects.get(index);
+				if(!(object instanceof Slime))
+					continue;
+				Slime other = (Slime)object;
 				if(isOverlappingWith(other)){
 					if(other.getSchool().getNbSlimes() > this.getSchool().getNbSlimes())
 						this.changeSchool(other);
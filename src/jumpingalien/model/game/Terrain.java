@@ -67,6 +67,17 @@ public enum Terrain {
 	 */
 	private final boolean isPassable;
 	
+	/**
+	 * Return the bit that represents this terrain type in a terrain mask.
+	 * A terrain mask is the union of the bits of a number of terrain types.
+	 * 
+	 * @return	...
+	 * 			| result == 1 << ordinal()
+	 */
+	public int getMask(){
+		return 1 << ordinal();
+	}
+	
 	/**
 	 * A method to transform a given value to a terrain type.
 	 * 
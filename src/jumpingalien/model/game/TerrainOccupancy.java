@@ -0,0 +1,54 @@
+package jumpingalien.model.game;
+
+/**
+ * A class of caches remembering the terrain mask of a single rectangular
+ * region of a world. The mask is only recomputed when it is asked for a
+ * different world or region, or when a tile of the world has changed its
+ * geological feature since the last computation.
+ *
+ * @note	A game object asks for the terrain mask of the region it occupies
+ * 			several times in the same tick. All of these questions are
+ * 			answered by a single scan of the tiles of the world.
+ *
+ * @author Jakob Festraets, Vincent Kemps
+ * @version	1.0
+ *
+ */
+final class TerrainOccupancy {
+
+	/**
+	 * Return the terrain mask of the tiles of the given world within the
+	 * given rectangular region.
+	 *
+	 * @return	...
+	 * 			| result == world.getTerrainMaskIn(pixelLeft, pixelBottom, pixelRight, pixelTop)
+	 */
+	int get(World world, int pixelLeft, int pixelBottom, int pixelRight, int pixelTop){
+		if (world != this.world || world.getTerrainVersion() != terrainVersion
+				|| pixelLeft != this.pixelLeft || pixelBottom != this.pixelBottom
+				|| pixelRight != this.pixelRight || pixelTop != this.pixelTop){
+			this.world = world;
+			this.terrainVersion = world.getTerrainVersion();
+			this.pixelLeft = pixelLeft;
+			this.pixelBottom = pixelBottom;
+			this.pixelRight = pixelRight;
+			this.pixelTop = pixelTop;
+			this.mask = world.getTerrainMaskIn(pixelLeft, pixelBottom, pixelRight, pixelTop);
+		}
+		return mask;
+	}
+
+	private World world;
+
+	private int terrainVersion;
+
+	/**
+	 * The rectangular region of the last computed terrain mask.
+	 */
+	private int pixelLeft;
+	private int pixelBottom;
+	private int pixelRight;
+	private int pixelTop;
+
+	private int mask;
+}
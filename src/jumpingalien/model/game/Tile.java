@@ -217,9 +217,12 @@ public class Tile extends ObjectOfWorld{
 	 * 			The geological feature to set.
 	 * @post	...
 	 * 			| new.getGeoFeature() == geoFeature
+	 * @effect	...
+	 * 			| getWorld().updateTerrainIndex(this)
 	 */
 	public void setGeoFeature(Terrain geoFeature) {
 		this.geoFeature = geoFeature;
+		getWorld().updateTerrainIndex(this);
 	}
 	
 	/**
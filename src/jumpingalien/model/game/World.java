@@ -1,17 +1,21 @@
 package jumpingalien.model.game;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import jumpingalien.model.exceptions.*;
+import jumpingalien.util.Sprite;
 import be.kuleuven.cs.som.annotate.*;
-import static jumpingalien.tests.util.TestUtils.intArray;
 
 /**
  * A class concerning the world in which the game is played.
@@ -100,6 +104,9 @@ public class World {
 		this.worldHeight = tileSize * nbTilesY;
 		maxWindowXPos = getWorldWidth()-getVisibleWindowWidth(); 
 		maxWindowYPos = getWorldHeight()-getVisibleWindowHeight();
+		this.impassableTiles = new boolean[nbTilesY][nbTilesX];
+		this.gameObjectCells = new ArrayList<List<GameObject>>(
+				Collections.nCopies(nbTilesX*nbTilesY, (List<GameObject>) null));
 		this.targetTile = new Tile(this,targetTileX*tileSize,targetTileY*tileSize,true);
 		this.worldTiles = new Tile[nbTilesY][nbTilesX];
 		for (int row = 0; row < nbTilesY; row++){
@@ -213,17 +220,233 @@ public class World {
 	 * Returns a set of all impassable tiles in the game world.
 	 * 
 	 * @return ...
-	 * 			| for each tile in result:
-	 * 			|	!tile.getGeoFeature().isPassable()
+	 * 			| result == getImpassableTilesIn(0, 0, getWorldWidth()-1, getWorldHeight()-1)
 	 * 
 	 * @note	Although this function is public, it is for internal use only.
 	 */
 	public Set<Tile> getImpassableTiles() {
-		Stream<Tile> stream = getAllTiles().stream();
-		Stream<Tile> filteredStream = stream.filter(t-> !t.getGeoFeature().isPassable());
-		return filteredStream.collect(Collectors.toSet());
+		return getImpassableTilesIn(0, 0, getWorldWidth()-1, getWorldHeight()-1);
+	}
+	
+	/**
+	 * Return the tile positions of the first and the last column and row of 
+	 * tiles of this world within the given rectangular region, in the form 
+	 * {firstTileXPos, firstTileYPos, lastTileXPos, lastTileYPos}. Columns 
+	 * and rows outside this world are left out, so the range is empty if 
+	 * the region lies outside this world.
+	 * 
+	 * @return	...
+	 * 			| result[0] == Math.max(getBelongingTileXPosition(pixelLeft), 0) &&
+	 * 			| result[1] == Math.max(getBelongingTileYPosition(pixelBottom), 0) &&
+	 * 			| result[2] == Math.min(getBelongingTileXPosition(pixelRight), worldTiles[0].length-1) &&
+	 * 			| result[3] == Math.min(getBelongingTileYPosition(pixelTop), worldTiles.length-1)
+	 * @note	The result is a buffer of this world, which the next invocation
+	 * 			overwrites: copy its elements before doing anything else.
+	 */
+	@Model
+	private int[] getTileRangeIn(int pixelLeft, int pixelBottom, int pixelRight, int pixelTop){
+		tileRange[0] = Math.max(getBelongingTileXPosition(pixelLeft), 0);
+		tileRange[1] = Math.max(getBelongingTileYPosition(pixelBottom), 0);
+		tileRange[2] = Math.min(getBelongingTileXPosition(pixelRight), worldTiles[0].length-1);
+		tileRange[3] = Math.min(getBelongingTileYPosition(pixelTop), worldTiles.length-1);
+		return tileRange;
+	}
+	
+	/**
+	 * A buffer storing the tile range computed last by getTileRangeIn.
+	 */
+	private final int[] tileRange = new int[4];
+	
+	/**
+	 * Returns a set of all impassable tiles within the given rectangular region.
+	 * Only the tiles underneath the given region are inspected, so the cost
+	 * of this method does not depend on the size of this world.
+	 * 
+	 * @param 	pixelLeft
+	 *          The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *          The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *         	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *          The y-coordinate of the top side of the rectangular region.
+	 * @return	...
+	 * 			| for each tile in getTilesIn(pixelLeft, pixelBottom, pixelRight, pixelTop):
+	 * 			|	result.contains(tile) == !tile.getGeoFeature().isPassable()
+	 * @note	Although this function is public, it is for internal use only.
+	 */
+	public Set<Tile> getImpassableTilesIn(int pixelLeft, int pixelBottom,
+			int pixelRight, int pixelTop){
+		List<Tile> tiles = new ArrayList<Tile>();
+		collectImpassableTilesIn(pixelLeft, pixelBottom, pixelRight, pixelTop, tiles);
+		return new HashSet<Tile>(tiles);
+	}
+	
+	/**
+	 * Replace the contents of the given list by all impassable tiles within 
+	 * the given rectangular region.
+	 * 
+	 * @param 	pixelLeft
+	 *          The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *          The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *         	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *          The y-coordinate of the top side of the rectangular region.
+	 * @param 	result
+	 * 			The list to fill.
+	 * @post	...
+	 * 			| new HashSet<Tile>(new.result).equals(
+	 * 			|	getImpassableTilesIn(pixelLeft, pixelBottom, pixelRight, pixelTop))
+	 * @note	Unlike getImpassableTilesIn, this method does not create any 
+	 * 			new objects once the given list is large enough.
+	 */
+	void collectImpassableTilesIn(int pixelLeft, int pixelBottom,
+			int pixelRight, int pixelTop, List<Tile> result){
+		result.clear();
+		int[] range = getTileRangeIn(pixelLeft, pixelBottom, pixelRight, pixelTop);
+		int firstTileXPos = range[0], firstTileYPos = range[1];
+		int lastTileXPos = range[2], lastTileYPos = range[3];
+		for (int row = firstTileYPos; row <= lastTileYPos; row++){
+			for (int col = firstTileXPos; col <= lastTileXPos; col++){
+				if (impassableTiles[row][col])
+					result.add(worldTiles[row][col]);
+			}
+		}
+	}
+	
+	/**
+	 * Return the terrain mask of the tiles within the given rectangular 
+	 * region.
+	 * 
+	 * @param 	pixelLeft
+	 *          The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *          The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *         	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *          The y-coordinate of the top side of the rectangular region.
+	 * @return	...
+	 * 			| for each terrain in Terrain.values():
+	 * 			|	((result & terrain.getMask()) != 0) == 
+	 * 			|		(for some tile in getTilesIn(pixelLeft, pixelBottom, pixelRight, pixelTop):
+	 * 			|			tile.getGeoFeature() == terrain)
+	 */
+	int getTerrainMaskIn(int pixelLeft, int pixelBottom, int pixelRight, int pixelTop){
+		int[] range = getTileRangeIn(pixelLeft, pixelBottom, pixelRight, pixelTop);
+		int firstTileXPos = range[0], firstTileYPos = range[1];
+		int lastTileXPos = range[2], lastTileYPos = range[3];
+		int mask = 0;
+		for (int row = firstTileYPos; row <= lastTileYPos; row++){
+			for (int col = firstTileXPos; col <= lastTileXPos; col++)
+				mask |= worldTiles[row][col].getGeoFeature().getMask();
+		}
+		return mask;
+	}
+	
+	/**
+	 * Check whether there is at least one impassable tile within the given 
+	 * rectangular region.
+	 * 
+	 * @param 	pixelLeft
+	 *          The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *          The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *         	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *          The y-coordinate of the top side of the rectangular region.
+	 * @return	...
+	 * 			| result == !getImpassableTilesIn(pixelLeft, pixelBottom, pixelRight, pixelTop).isEmpty()
+	 * @note	Although this function is public, it is for internal use only.
+	 */
+	public boolean hasImpassableTileIn(int pixelLeft, int pixelBottom,
+			int pixelRight, int pixelTop){
+		int[] range = getTileRangeIn(pixelLeft, pixelBottom, pixelRight, pixelTop);
+		int firstTileXPos = range[0], firstTileYPos = range[1];
+		int lastTileXPos = range[2], lastTileYPos = range[3];
+		for (int row = firstTileYPos; row <= lastTileYPos; row++){
+			for (int col = firstTileXPos; col <= lastTileXPos; col++){
+				if (impassableTiles[row][col])
+					return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Check whether the tile at the given tile position is impassable.
+	 * 
+	 * @param 	tileXPos
+	 * 			The given tile position in x-direction
+	 * @param 	tileYPos
+	 * 			The given tile position in y-direction
+	 * @return	False if the given tile position lies outside this world.
+	 * 			| if (tileXPos < 0 || tileXPos >= impassableTiles[0].length ||
+	 * 			|	tileYPos < 0 || tileYPos >= impassableTiles.length)
+	 * 			|	then result == false
+	 * @return	Else, whether the tile at the given tile position is impassable.
+	 * 			| else result == 
+	 * 			|	!getTileAtTilePos(tileXPos,tileYPos).getGeoFeature().isPassable()
+	 */
+	public boolean isImpassableTileAt(int tileXPos, int tileYPos){
+		if (tileXPos < 0 || tileXPos >= impassableTiles[0].length ||
+				tileYPos < 0 || tileYPos >= impassableTiles.length)
+			return false;
+		return impassableTiles[tileYPos][tileXPos];
+	}
+	
+	/**
+	 * Update the impassable tile index and the terrain version of this world 
+	 * for the given tile.
+	 * 
+	 * @param 	tile
+	 * 			The tile whose geological feature has changed.
+	 * @post	...
+	 * 			| new.isImpassableTileAt(tile.getTileXPos(),tile.getTileYPos())
+	 * 			|	== !tile.getGeoFeature().isPassable()
+	 * @post	...
+	 * 			| new.getTerrainVersion() == getTerrainVersion()+1
+	 * @note	This method is invoked by the tile itself, also while
+	 * 			this world is still being constructed. Tiles outside the
+	 * 			boundaries of this world are ignored.
+	 */
+	@Raw
+	void updateTerrainIndex(Tile tile){
+		terrainVersion++;
+		if (impassableTiles == null || tile == null)
+			return;
+		int row = tile.getTileYPos();
+		int col = tile.getTileXPos();
+		if (row < impassableTiles.length && col < impassableTiles[row].length)
+			impassableTiles[row][col] = !tile.getGeoFeature().isPassable();
+	}
+	
+	/**
+	 * Return the number of times the geological feature of a tile of this 
+	 * world has been set.
+	 */
+	@Basic
+	int getTerrainVersion() {
+		return terrainVersion;
 	}
 	
+	private int terrainVersion = 0;
+	
+	/**
+	 * A matrix indicating for each tile position whether the tile
+	 * at that position is impassable.
+	 * 
+	 * @invar	...
+	 * 			| for each row in 0..impassableTiles.length-1:
+	 * 			|	for each col in 0..impassableTiles[row].length-1:
+	 * 			|		impassableTiles[row][col] == 
+	 * 			|			!getTileAtTilePos(col,row).getGeoFeature().isPassable()
+	 */
+	private final boolean[][] impassableTiles;
+	
 	/**
 	 * Returns the tile positions of all tiles within the given rectangular region.
 	 * 
@@ -257,10 +480,10 @@ public class World {
 		int lastTileYPos = getBelongingTileYPosition(pixelTop);
 		int numberHorTiles = (lastTileXPos-firstTileXPos+1);
 		int numberVerTiles = (lastTileYPos-firstTileYPos+1);
-		int[][] result = new int[numberHorTiles * numberVerTiles][2];
+		int[][] result = new int[numberHorTiles * numberVerTiles][];
 		for (int index = 0; index < (numberHorTiles * numberVerTiles); index++){
-			result[index] = intArray(index%numberHorTiles+firstTileXPos
-					,index/numberHorTiles + firstTileYPos);
+			result[index] = new int[]{index%numberHorTiles+firstTileXPos
+					,index/numberHorTiles + firstTileYPos};
 		}
 		return result;
 	}
@@ -527,6 +750,48 @@ public class World {
 	 */
 	private int windowYPos;
 	
+	/**
+	 * Return the x-position of the visible window to be displayed, in between 
+	 * its x-position at the start of the last tick of this world and its 
+	 * current x-position, like the displayed positions of the game objects.
+	 * 
+	 * @return	...
+	 * 			| if (!hasFixedTimeStep())
+	 * 			|	then result == getWindowXPos()
+	 * 			| else result == (int) Math.floor(previousWindowXPos + 
+	 * 			|	(getWindowXPos()-previousWindowXPos)*getInterpolationFactor())
+	 */
+	public int getDisplayedWindowXPos() {
+		if (!hasFixedTimeStep())
+			return getWindowXPos();
+		return (int) Math.floor(previousWindowXPos + 
+				(getWindowXPos()-previousWindowXPos)*getInterpolationFactor());
+	}
+	
+	/**
+	 * Return the y-position of the visible window to be displayed, in between 
+	 * its y-position at the start of the last tick of this world and its 
+	 * current y-position, like the displayed positions of the game objects.
+	 * 
+	 * @return	...
+	 * 			| if (!hasFixedTimeStep())
+	 * 			|	then result == getWindowYPos()
+	 * 			| else result == (int) Math.floor(previousWindowYPos + 
+	 * 			|	(getWindowYPos()-previousWindowYPos)*getInterpolationFactor())
+	 */
+	public int getDisplayedWindowYPos() {
+		if (!hasFixedTimeStep())
+			return getWindowYPos();
+		return (int) Math.floor(previousWindowYPos + 
+				(getWindowYPos()-previousWindowYPos)*getInterpolationFactor());
+	}
+	
+	/**
+	 * Variables storing the position of the visible window at the start of 
+	 * the last tick of this world.
+	 */
+	private int previousWindowXPos, previousWindowYPos;
+	
 	/**
 	 * Returns the maximum x-position of the visible window.
 	 */
@@ -582,7 +847,8 @@ public class World {
 	 * 			The Mazub to set
 	 * @effect	...
 	 * 			| if (getMazub() != null)
-	 *			|	then getMazub().setWorld(null), getAllGameObjects().remove(getMazub())
+	 *			|	then getMazub().setWorld(null), getAllGameObjects().remove(getMazub()),
+	 *			|		unregisterGameObject(getMazub())
 	 * @post	...
 	 * 			| if(canHaveAsMazub(alien))
 	 *			|	then new.getMazub() = alien
@@ -594,6 +860,7 @@ public class World {
 		if (getMazub() != null){
 			getMazub().setWorld(null);
 			getAllGameObjects().remove(getMazub());
+			unregisterGameObject(getMazub());
 		}
 		if(canHaveAsMazub(alien)){
 			this.mazub = alien;
@@ -696,6 +963,9 @@ public class World {
 	 * 			|	then new.getAllGameObjects().contains(object),
 	 * 			|		 (new object).getWorld() == this
 	 * @effect	...
+	 * 			| if(canAddGameObjects() && canHaveAsGameObject(object))
+	 * 			|	then registerGameObject(object)
+	 * @effect	...
 	 * 			| if(canAddGameObjects() && canHaveAsGameObject(object)) &&
 	 * 			|	(object instanceof Slime)
 	 * 			|	then addAsSchool(((Slime)object).getSchool())
@@ -703,6 +973,7 @@ public class World {
 	public void addAsGameObject(GameObject object){
 		if(canAddGameObjects() && canHaveAsGameObject(object)){
 			getAllGameObjects().add(object);
+			registerGameObject(object);
 			object.setWorld(this);
 			if(object instanceof Slime)
 				addAsSchool(((Slime)object).getSchool());
@@ -720,12 +991,20 @@ public class World {
 	 * 			| !(new.getAllGameObjects().contains(object)),
 	 * 			| (new object).getWorld() == null
 	 * @effect	...
+	 * 			| unregisterGameObject(object)
+	 * @effect	...
+	 * 			| if(object.isAsleep())
+	 * 			|	then wakeUp(object)
+	 * @effect	...
 	 * 			| if(object instanceof Slime)
 	 * 			|	then decrementValueOfSchool(((Slime)object).getSchool())
 	 */
 	public void removeAsGameObject(GameObject object){
 		assert hasAsGameObject(object);
+		if(object.isAsleep())
+			wakeUp(object);
 		getAllGameObjects().remove(object);
+		unregisterGameObject(object);
 		object.setWorld(null);
 		if(object instanceof Slime)
 			decrementValueOfSchool(((Slime)object).getSchool());			
@@ -765,218 +1044,597 @@ public class World {
 	 * Return the set of all aliens in this world.
 	 * 
 	 * @return	...
-	 * 			| result == 
-	 * 			|	(Set<Alien>)filterAllGameObjects(t-> t instanceof Alien)
+	 * 			| result == getAllGameObjectsOfType(Alien.class)
 	 * @note	Although this function is public, it is for internal use only.
 	 */
-	@SuppressWarnings("unchecked")
 	public Set<? extends Alien> getAllAliens() {
-		return (Set<Alien>)filterAllGameObjects(t-> t instanceof Alien);
+		return getAllGameObjectsOfType(Alien.class);
 	}
 	
 	/**
 	 * Return the set of all buzams in this world.
 	 * 
 	 * @return	...
-	 * 			| result == 
-	 * 			|	(Set<Buzam>)filterAllGameObjects(t-> (t instanceof Buzam))
+	 * 			| result == getAllGameObjectsOfType(Buzam.class)
 	 * @note	Although this function is public, it is for internal use only.
 	 */
-	@SuppressWarnings("unchecked")
 	public Set<Buzam> getAllBuzams() {
-		return (Set<Buzam>)filterAllGameObjects(t-> (t instanceof Buzam));
+		return getAllGameObjectsOfType(Buzam.class);
 	}
 	
 	/**
 	 * Return the set of all plants in this world.
 	 * 
 	 * @return	...
-	 * 			| result == 
-	 * 			|	(Set<Plant>)filterAllGameObjects(t-> t instanceof Plant)	
+	 * 			| result == getAllGameObjectsOfType(Plant.class)
 	 * @note	Although this function is public, it is for internal use only.
 	 */
-	@SuppressWarnings("unchecked")
 	public Set<Plant> getAllPlants() {
-		return (Set<Plant>)filterAllGameObjects(t-> t instanceof Plant);	
+		return getAllGameObjectsOfType(Plant.class);
 	}
 	
 	/**
 	 * Return the set of all sharks in this world.
 	 * 
 	 * @return	...
-	 * 			| result == 
-	 * 			|	(Set<Shark>)filterAllGameObjects(t-> (t instanceof Shark))
+	 * 			| result == getAllGameObjectsOfType(Shark.class)
 	 * @note	Although this function is public, it is for internal use only.
 	 */
-	@SuppressWarnings("unchecked")
-	public Set<Shark> getAllSharks(){
-		return (Set<Shark>)filterAllGameObjects(t-> (t instanceof Shark));
+	public Set<Shark> getAllSharks() {
+		return getAllGameObjectsOfType(Shark.class);
 	}
 		
 	/**
 	 * Return the set of all slimes in this world.
 	 * 
 	 * @return	...
-	 * 			| result == 
-	 * 			|	(Set<Slime>)filterAllGameObjects(t-> (t instanceof Slime))
+	 * 			| result == getAllGameObjectsOfType(Slime.class)
 	 * @note	Although this function is public, it is for internal use only.
 	 */
-	@SuppressWarnings("unchecked")
 	public Set<Slime> getAllSlimes() {
-		return (Set<Slime>)filterAllGameObjects(t-> (t instanceof Slime));
+		return getAllGameObjectsOfType(Slime.class);
 	}
 	
 	/**
 	 * Return the set of all characters in this world.
 	 * 
 	 * @return	...
-	 * 			| result == 
-	 * 			|	(Set<Character>)filterAllGameObjects(t-> (t instanceof Character))
+	 * 			| result == getAllGameObjectsOfType(Character.class)
 	 * @note	Although this function is public, it is for internal use only.
 	 */
-	@SuppressWarnings("unchecked")
 	public Set<Character> getAllCharacters() {
-		return (Set<Character>)filterAllGameObjects(t-> (t instanceof Character));
+		return getAllGameObjectsOfType(Character.class);
 	}
 	
 	/**
-	 * Checks whether this game world has proper game objects or not.
+	 * Return an unmodifiable view on the set of all game objects in this world
+	 * that are an instance of the given type.
 	 * 
+	 * @param 	type
+	 * 			The type of the game objects to return.
+	 * @pre		...
+	 * 			| hasAsRegisteredType(type)
 	 * @return	...
-	 * 			| if(getMazub() == null && getAllGameObjects.size() > 100)
-	 *			|	then result == false
-	 *			...
-	 *			| else if(getAllGameObjects.size()>101)
-	 *			|	then result == false
-	 *			...
-	 *			| else
-	 *			|	result == 
-	 *			|		(for some object in getAllGameObjects():
-	 *			|			!this.canHaveAsGameObject(object)))
+	 * 			| for each object in getAllGameObjects():
+	 * 			|	result.contains(object) == type.isInstance(object)
+	 * @note	The returned view is a snapshot that is only rebuilt when a game
+	 * 			object of the given type is added to or removed from this world.
+	 * 			Game objects that are removed while iterating over the view
+	 * 			are therefore still visited.
 	 */
+	@SuppressWarnings("unchecked")
 	@Model
-	private boolean hasProperGameObjects(){
-		HashSet<GameObject> allGameObjects = getAllGameObjects();
-		if(getMazub() == null && allGameObjects.size() > 100)
-			return false;
-		else if(allGameObjects.size()>101)
-			return false;
-		else{
-			for(GameObject gameObject: allGameObjects){
-				if(!this.canHaveAsGameObject(gameObject))
-					return false;
-			}
+	private <T extends GameObject> Set<T> getAllGameObjectsOfType(Class<T> type){
+		assert hasAsRegisteredType(type);
+		Set<GameObject> view = gameObjectViewsByType.get(type);
+		if (view == null){
+			view = Collections.unmodifiableSet(new HashSet<GameObject>(gameObjectsByType.get(type)));
+			gameObjectViewsByType.put(type, view);
 		}
-		return true;		
+		return (Set<T>)view;
 	}
 	
 	/**
-	 * A variable storing the set of all game objects that are located inside this world.
-	 * 
-	 * @invar	...
-	 * 			| allGameObjects != null
-	 * @invar	...
-	 * 			| for each object in allGameObjects:
-	 * 			|	this.canHaveAsGameObject(object)
-	 */
-	private final HashSet<GameObject> allGameObjects = new HashSet<GameObject>();
-	
-	/**
-	 * Return the map of all schools that have or had a slime in this world, combined
-	 * with the amount of slimes that each school currently has in this world.
-	 */
-	@Model
-	private Map<School,Integer> getAllSchoolsWithValues(){
-		return allSchools;
-	}
-	/**
-	 * Returns a set of all schools in this game world.
-	 * 
-	 * @return	...
-	 * 			| result != null
-	 * @return	...
-	 * 			| for each slime in Slime:
-	 * 			|	result.contains(slime.getSchool()) == (slime.getWorld() == this)
-	 * @note	Although this function is public, it is for internal use only.
-	 */
-	public Set<School> getAllSchools() {
-		return allSchools.keySet();
-	}
-		
-	/**
-	 * Check whether this world has or had a slime with the given school.
+	 * Check whether the given type is one of the types this world
+	 * partitions its game objects by.
 	 * 
-	 * @param 	school
-	 * 			The school to check.
+	 * @param 	type
+	 * 			The type to check.
 	 * @return	...
-	 * 			| result == getAllSchoolsWithValues().containsKey(school)
+	 * 			| result == gameObjectsByType.containsKey(type)
 	 */
 	@Model
-	protected boolean hasAsSchool(School school){
-		return allSchools.containsKey(school);
+	private boolean hasAsRegisteredType(Class<? extends GameObject> type){
+		return gameObjectsByType.containsKey(type);
 	}
 	
 	/**
-	 * Add the school to the map of schools.
+	 * Add the given game object to the partition of each registered type
+	 * it is an instance of.
 	 * 
-	 * @param 	school
-	 * 			The school to be added
+	 * @param 	object
+	 * 			The game object to register.
 	 * @post	...
-	 * 			| if(!hasAsSchool(school) && canAddSchool())
-	 * 			|	then new.getAllSchools().contains(school)
+	 * 			| for each type in registered types:
+	 * 			|	if (type.isInstance(object))
+	 * 			|		then getAllGameObjectsOfType(type).contains(object)
 	 * @effect	...
-	 * 			| if(!hasAsSchool(school))
-	 * 			|	then incrementValueOfSchool(school)			
+	 * 			| kinematics.add(object)
+	 * @effect	...
+	 * 			| addToSpatialIndex(object)
+	 * @effect	...
+	 * 			| object.setRandom(getRandom().split())
 	 */
-	@Raw
-	public void addAsSchool(School school){
-		if(!hasAsSchool(school)){
-			if(canAddSchool())
-				allSchools.put(school,1);
+	private void registerGameObject(GameObject object){
+		for (Class<? extends GameObject> type: gameObjectsByType.keySet()){
+			if (type.isInstance(object) && gameObjectsByType.get(type).add(object))
+				invalidateViews(type);
 		}
-		else
-			incrementValueOfSchool(school);
+		kinematics.add(object);
+		addToSpatialIndex(object);
+		object.setRandom(getRandom().split());
 	}
 	
 	/**
-	 * Remove the school from the map of schools.
+	 * Remove the given game object from the partition of each registered type
+	 * it is an instance of.
 	 * 
-	 * @param 	school
-	 * 			The school to remove.
-	 * @pre		...
-	 * 			| hasAsSchool(school)
-	 * @pre		...
-	 * 			| getAllSchoolsWithValues().get(school) == 0
+	 * @param 	object
+	 * 			The game object to unregister.
 	 * @post	...
-	 * 			| !new.getAllSchools().contains(school)
+	 * 			| for each type in registered types:
+	 * 			|	!getAllGameObjectsOfType(type).contains(object)
+	 * @effect	...
+	 * 			| removeFromSpatialIndex(object)
+	 * @effect	...
+	 * 			| kinematics.remove(object)
 	 */
-	@Model
-	protected void removeAsSchool(School school){
-		assert hasAsSchool(school);
-		assert allSchools.get(school) == 0;
-		allSchools.remove(school);
+	private void unregisterGameObject(GameObject object){
+		for (Class<? extends GameObject> type: gameObjectsByType.keySet()){
+			if (gameObjectsByType.get(type).remove(object))
+				invalidateViews(type);
+		}
+		removeFromSpatialIndex(object);
+		if (object.getKinematics() == kinematics)
+			kinematics.remove(object);
 	}
 	
 	/**
-	 * Check whether this world can add a new school.
-	 * 
-	 * @return	...
-	 * 			| result == numberOfSchools() < MAX_NUMBER_OF_SCHOOLS
+	 * Discard the cached view and snapshot of the partition of the given type.
 	 */
-	@Model
-	protected boolean canAddSchool(){
-		return (numberOfSchools() < MAX_NUMBER_OF_SCHOOLS);
+	private void invalidateViews(Class<? extends GameObject> type){
+		gameObjectViewsByType.remove(type);
+		gameObjectSnapshotsByType.remove(type);
 	}
+	
 	/**
-	 * Return the amount of distinct schools in this world.
+	 * Create an empty partition for each type of game object that is
+	 * queried while advancing the time in this world.
+	 */
+	private static Map<Class<? extends GameObject>,Set<GameObject>> createPartitions(){
+		Map<Class<? extends GameObject>,Set<GameObject>> result = 
+				new HashMap<Class<? extends GameObject>,Set<GameObject>>();
+		result.put(Character.class, new HashSet<GameObject>());
+		result.put(Alien.class, new HashSet<GameObject>());
+		result.put(Buzam.class, new HashSet<GameObject>());
+		result.put(Plant.class, new HashSet<GameObject>());
+		result.put(Shark.class, new HashSet<GameObject>());
+		result.put(Slime.class, new HashSet<GameObject>());
+		return result;
+	}
+	
+	/**
+	 * A map storing, for each registered type, the set of all game objects
+	 * in this world that are an instance of that type.
 	 * 
-	 * @return	...
-	 * 			| result == getAllSchools().size()
+	 * @invar	...
+	 * 			| for each type in gameObjectsByType.keySet():
+	 * 			|	for each object in getAllGameObjects():
+	 * 			|		gameObjectsByType.get(type).contains(object) == type.isInstance(object)
 	 */
-	@Model
-	protected int numberOfSchools(){
-		return allSchools.size();
-	}
+	private final Map<Class<? extends GameObject>,Set<GameObject>> gameObjectsByType = 
+			createPartitions();
+	
+	/**
+	 * A table storing the position, velocity, acceleration and size of each 
+	 * game object in this world in parallel arrays.
+	 */
+	private final KinematicsStore kinematics = new KinematicsStore();
+	
+	/**
+	 * A map storing the cached unmodifiable views on the partitions of 
+	 * the game objects in this world. A view is absent if its partition 
+	 * has changed since the view was last built.
+	 */
+	private final Map<Class<? extends GameObject>,Set<GameObject>> gameObjectViewsByType = 
+			new HashMap<Class<? extends GameObject>,Set<GameObject>>();
+	
+	/**
+	 * Return a list of all game objects in this world that are an instance 
+	 * of the given type.
+	 * 
+	 * @param 	type
+	 * 			The type of the game objects to return.
+	 * @pre		...
+	 * 			| hasAsRegisteredType(type)
+	 * @return	...
+	 * 			| new HashSet<T>(result).equals(getAllGameObjectsOfType(type))
+	 * @note	Like the views returned by getAllGameObjectsOfType, the returned
+	 * 			list is a snapshot that is only rebuilt when a game object of the
+	 * 			given type is added to or removed from this world. It must not be
+	 * 			modified. Advancing the time iterates over these lists by index,
+	 * 			so that no iterators are created on every tick.
+	 */
+	@SuppressWarnings("unchecked")
+	@Model
+	private <T extends GameObject> List<T> getSnapshotOfType(Class<T> type){
+		assert hasAsRegisteredType(type);
+		List<GameObject> snapshot = gameObjectSnapshotsByType.get(type);
+		if (snapshot == null){
+			snapshot = new ArrayList<GameObject>(gameObjectsByType.get(type));
+			gameObjectSnapshotsByType.put(type, snapshot);
+		}
+		return (List<T>)snapshot;
+	}
+	
+	/**
+	 * A map storing the cached snapshots of the partitions of the game objects
+	 * in this world. A snapshot is absent if its partition has changed since 
+	 * the snapshot was last built.
+	 */
+	private final Map<Class<? extends GameObject>,List<GameObject>> gameObjectSnapshotsByType = 
+			new HashMap<Class<? extends GameObject>,List<GameObject>>();
+	
+	/**
+	 * Return the set of all game objects in this world that occupy at least
+	 * one pixel of the given rectangular region.
+	 * Only the game objects registered in the cells of the spatial index
+	 * near the given region are inspected.
+	 * 
+	 * @param 	pixelLeft
+	 *          The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *          The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *         	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *          The y-coordinate of the top side of the rectangular region.
+	 * @return	...
+	 * 			| for each object in getAllGameObjects():
+	 * 			|	result.contains(object) == 
+	 * 			|		!((object.getDisplayedXPosition()+object.getWidth()-1 < pixelLeft)
+	 * 			|		|| (pixelRight < object.getDisplayedXPosition())
+	 * 			|		|| (object.getDisplayedYPosition()+object.getHeight()-1 < pixelBottom)
+	 * 			|		|| (pixelTop < object.getDisplayedYPosition()))
+	 * @note	Although this function is public, it is for internal use only.
+	 */
+	public Set<GameObject> getGameObjectsIn(int pixelLeft, int pixelBottom,
+			int pixelRight, int pixelTop){
+		List<GameObject> result = new ArrayList<GameObject>();
+		collectGameObjectsIn(pixelLeft, pixelBottom, pixelRight, pixelTop, result);
+		return new HashSet<GameObject>(result);
+	}
+	
+	/**
+	 * Replace the contents of the given list by all game objects in this world
+	 * that occupy at least one pixel of the given rectangular region.
+	 * 
+	 * @param 	pixelLeft
+	 *          The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *          The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *         	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *          The y-coordinate of the top side of the rectangular region.
+	 * @param 	result
+	 * 			The list to fill.
+	 * @post	...
+	 * 			| new HashSet<GameObject>(new.result).equals(
+	 * 			|	getGameObjectsIn(pixelLeft, pixelBottom, pixelRight, pixelTop))
+	 * @note	Every game object is registered in a single cell, so that no
+	 * 			game object is added to the given list twice. Unlike 
+	 * 			getGameObjectsIn, this method does not create any new objects
+	 * 			once the given list is large enough.
+	 */
+	void collectGameObjectsIn(int pixelLeft, int pixelBottom,
+			int pixelRight, int pixelTop, List<GameObject> result){
+		result.clear();
+		int firstCol = getBelongingTileXPosition(Math.max(pixelLeft-maxGameObjectWidth+1, 0));
+		int firstRow = getBelongingTileYPosition(Math.max(pixelBottom-maxGameObjectHeight+1, 0));
+		int lastCol = Math.min(getBelongingTileXPosition(Math.max(pixelRight, 0)), getNbCellsX()-1);
+		int lastRow = Math.min(getBelongingTileYPosition(Math.max(pixelTop, 0)), getNbCellsY()-1);
+		for (int row = firstRow; row <= lastRow; row++){
+			for (int col = firstCol; col <= lastCol; col++){
+				List<GameObject> cell = gameObjectCells.get(row*getNbCellsX()+col);
+				if (cell == null)
+					continue;
+				for (int index = 0; index < cell.size(); index++){
+					GameObject object = cell.get(index);
+					if (kinematics.overlaps(object.getSlot(), pixelLeft, pixelBottom, pixelRight, pixelTop))
+						result.add(object);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Update the spatial index of this world for the given game object.
+	 * 
+	 * @param 	object
+	 * 			The game object whose position has changed.
+	 * @post	...
+	 * 			| if (object.getCell() >= 0)
+	 * 			|	then (new object).getCell() == getCellOf(object)
+	 * @effect	...
+	 * 			| if (getNbSleepingGameObjects() > 0)
+	 * 			|	then wakeGameObjectsTouching(object)
+	 * @note	This method is invoked by the game object itself each time
+	 * 			its position is set.
+	 */
+	void updateSpatialIndex(GameObject object){
+		int oldCell = object.getCell();
+		if (oldCell < 0)
+			return;
+		if (oldCell != getCellOf(object)){
+			removeFromSpatialIndex(object);
+			addToSpatialIndex(object);
+		}
+		if (getNbSleepingGameObjects() > 0)
+			wakeGameObjectsTouching(object);
+	}
+	
+	/**
+	 * Add the given game object to the cell of the spatial index its
+	 * bottom left pixel is located in.
+	 * 
+	 * @param 	object
+	 * 			The game object to add.
+	 * @post	...
+	 * 			| (new object).getCell() == getCellOf(object)
+	 * @post	...
+	 * 			| for each sprite in object.getAllSprites():
+	 * 			|	new.maxGameObjectWidth >= sprite.getWidth() &&
+	 * 			|	new.maxGameObjectHeight >= sprite.getHeight()
+	 * @note	The list of a cell is created the first time a game object
+	 * 			enters that cell, and is kept once that cell is empty again.
+	 */
+	@Model
+	private void addToSpatialIndex(GameObject object){
+		int cell = getCellOf(object);
+		List<GameObject> objects = gameObjectCells.get(cell);
+		if (objects == null){
+			objects = new ArrayList<GameObject>();
+			gameObjectCells.set(cell, objects);
+		}
+		objects.add(object);
+		object.setCell(cell);
+		if (object.getAllSprites() != null){
+			for (Sprite sprite: object.getAllSprites()){
+				if (sprite != null){
+					maxGameObjectWidth = Math.max(maxGameObjectWidth, sprite.getWidth());
+					maxGameObjectHeight = Math.max(maxGameObjectHeight, sprite.getHeight());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Remove the given game object from the spatial index.
+	 * 
+	 * @param 	object
+	 * 			The game object to remove.
+	 * @post	...
+	 * 			| (new object).getCell() == -1
+	 */
+	@Model
+	private void removeFromSpatialIndex(GameObject object){
+		int cell = object.getCell();
+		if (cell < 0)
+			return;
+		object.setCell(-1);
+		List<GameObject> objects = gameObjectCells.get(cell);
+		if (objects != null)
+			objects.remove(object);
+	}
+	
+	/**
+	 * Return the cell of the spatial index the bottom left pixel of the 
+	 * given game object is located in.
+	 * 
+	 * @param 	object
+	 * 			The game object to locate.
+	 * @return	...
+	 * 			| result == 
+	 * 			|	getBelongingTileYPosition(object.getDisplayedYPosition())*getNbCellsX()
+	 * 			|	+ getBelongingTileXPosition(object.getDisplayedXPosition())
+	 */
+	@Model
+	private int getCellOf(GameObject object){
+		int col = Math.min(getBelongingTileXPosition(Math.max(object.getDisplayedXPosition(), 0)),
+				getNbCellsX()-1);
+		int row = Math.min(getBelongingTileYPosition(Math.max(object.getDisplayedYPosition(), 0)),
+				getNbCellsY()-1);
+		return row*getNbCellsX()+col;
+	}
+	
+	/**
+	 * Return the number of cells of the spatial index in x-direction.
+	 * 
+	 * @return	...
+	 * 			| result == getWorldWidth()/getTileSize()
+	 */
+	@Model
+	private int getNbCellsX(){
+		return getWorldWidth()/getTileSize();
+	}
+	
+	/**
+	 * Return the number of cells of the spatial index in y-direction.
+	 * 
+	 * @return	...
+	 * 			| result == getWorldHeight()/getTileSize()
+	 */
+	@Model
+	private int getNbCellsY(){
+		return getWorldHeight()/getTileSize();
+	}
+	
+	/**
+	 * A list storing, for each cell of the spatial index, the list of all game
+	 * objects whose bottom left pixel is located in that cell, or null if no
+	 * game object has entered that cell yet.
+	 * The cells of the spatial index coincide with the tiles of this world.
+	 */
+	private final List<List<GameObject>> gameObjectCells;
+	
+	/**
+	 * Variables storing the largest width and height of all sprites of the
+	 * game objects that have been added to this world. Queries on the spatial
+	 * index are extended by these dimensions, because game objects are only
+	 * registered in the cell of their bottom left pixel.
+	 */
+	private int maxGameObjectWidth = 0;
+	private int maxGameObjectHeight = 0;
+	
+	/**
+	 * Checks whether this game world has proper game objects or not.
+	 * 
+	 * @return	...
+	 * 			| if(getMazub() == null && getAllGameObjects.size() > 100)
+	 *			|	then result == false
+	 *			...
+	 *			| else if(getAllGameObjects.size()>101)
+	 *			|	then result == false
+	 *			...
+	 *			| else
+	 *			|	result == 
+	 *			|		(for some object in getAllGameObjects():
+	 *			|			!this.canHaveAsGameObject(object)))
+	 */
+	@Model
+	private boolean hasProperGameObjects(){
+		HashSet<GameObject> allGameObjects = getAllGameObjects();
+		if(getMazub() == null && allGameObjects.size() > 100)
+			return false;
+		else if(allGameObjects.size()>101)
+			return false;
+		else{
+			for(GameObject gameObject: allGameObjects){
+				if(!this.canHaveAsGameObject(gameObject))
+					return false;
+			}
+		}
+		return true;		
+	}
+	
+	/**
+	 * A variable storing the set of all game objects that are located inside this world.
+	 * 
+	 * @invar	...
+	 * 			| allGameObjects != null
+	 * @invar	...
+	 * 			| for each object in allGameObjects:
+	 * 			|	this.canHaveAsGameObject(object)
+	 */
+	private final HashSet<GameObject> allGameObjects = new HashSet<GameObject>();
+	
+	/**
+	 * Return the map of all schools that have or had a slime in this world, combined
+	 * with the amount of slimes that each school currently has in this world.
+	 */
+	@Model
+	private Map<School,Integer> getAllSchoolsWithValues(){
+		return allSchools;
+	}
+	/**
+	 * Returns a set of all schools in this game world.
+	 * 
+	 * @return	...
+	 * 			| result != null
+	 * @return	...
+	 * 			| for each slime in Slime:
+	 * 			|	result.contains(slime.getSchool()) == (slime.getWorld() == this)
+	 * @note	Although this function is public, it is for internal use only.
+	 */
+	public Set<School> getAllSchools() {
+		return allSchools.keySet();
+	}
+		
+	/**
+	 * Check whether this world has or had a slime with the given school.
+	 * 
+	 * @param 	school
+	 * 			The school to check.
+	 * @return	...
+	 * 			| result == getAllSchoolsWithValues().containsKey(school)
+	 */
+	@Model
+	protected boolean hasAsSchool(School school){
+		return allSchools.containsKey(school);
+	}
+	
+	/**
+	 * Add the school to the map of schools.
+	 * 
+	 * @param 	school
+	 * 			The school to be added
+	 * @post	...
+	 * 			| if(!hasAsSchool(school) && canAddSchool())
+	 * 			|	then new.getAllSchools().contains(school)
+	 * @effect	...
+	 * 			| if(!hasAsSchool(school))
+	 * 			|	then incrementValueOfSchool(school)			
+	 */
+	@Raw
+	public void addAsSchool(School school){
+		if(!hasAsSchool(school)){
+			if(canAddSchool())
+				allSchools.put(school,1);
+		}
+		else
+			incrementValueOfSchool(school);
+	}
+	
+	/**
+	 * Remove the school from the map of schools.
+	 * 
+	 * @param 	school
+	 * 			The school to remove.
+	 * @pre		...
+	 * 			| hasAsSchool(school)
+	 * @pre		...
+	 * 			| getAllSchoolsWithValues().get(school) == 0
+	 * @post	...
+	 * 			| !new.getAllSchools().contains(school)
+	 */
+	@Model
+	protected void removeAsSchool(School school){
+		assert hasAsSchool(school);
+		assert allSchools.get(school) == 0;
+		allSchools.remove(school);
+	}
+	
+	/**
+	 * Check whether this world can add a new school.
+	 * 
+	 * @return	...
+	 * 			| result == numberOfSchools() < MAX_NUMBER_OF_SCHOOLS
+	 */
+	@Model
+	protected boolean canAddSchool(){
+		return (numberOfSchools() < MAX_NUMBER_OF_SCHOOLS);
+	}
+	/**
+	 * Return the amount of distinct schools in this world.
+	 * 
+	 * @return	...
+	 * 			| result == getAllSchools().size()
+	 */
+	@Model
+	protected int numberOfSchools(){
+		return allSchools.size();
+	}
 	
 	/**
 	 * A variable storing the maximum amount of different schools that can be 
@@ -1071,25 +1729,31 @@ public class World {
 	 * 			|	then result == false
 	 * @return	...
 	 * 			| let
-	 * 			|	affectedTiles = getTilesIn(getMazub().getPosition().getDisplayedXPosition(),
-	 *			| 	getMazub().getPosition().getDisplayedYPosition(),getMazub().getPosition().getDisplayedXPosition()
-	 *			|	+getMazub().getWidth()-1, getMazub().getPosition().getDisplayedYPosition()+getMazub().getHeight()-1)
+	 * 			|	affectedTiles = getTilesIn(getMazub().getDisplayedXPosition(),
+	 *			| 	getMazub().getDisplayedYPosition(),getMazub().getDisplayedXPosition()
+	 *			|	+getMazub().getWidth()-1, getMazub().getDisplayedYPosition()+getMazub().getHeight()-1)
 	 *			| in
 	 *			|	result == 
 	 *			|		(for some tile in affectedTiles:
 	 *			|			(tile = getTargetTile()))
+	 * @note	The tile positions of the tiles underneath the Mazub are compared
+	 * 			with the tile position of the target tile, so that no set of tiles
+	 * 			is built each time the game is checked to be over.
 	 */
 	public boolean didPlayerWin(){
 		if (getMazub() == null)
 			return false;
-		HashSet<Tile> affectedTiles = getTilesIn(getMazub().getPosition().getDisplayedXPosition(),
-				getMazub().getPosition().getDisplayedYPosition(),getMazub().getPosition().getDisplayedXPosition()
-				+getMazub().getWidth()-1, getMazub().getPosition().getDisplayedYPosition()+getMazub().getHeight()-1);
-		for(Tile tile: affectedTiles){
-			if (tile == getTargetTile())
-				return true;
-		}
-		return false;
+		Mazub alien = getMazub();
+		int firstTileXPos = getBelongingTileXPosition(alien.getDisplayedXPosition());
+		int firstTileYPos = getBelongingTileYPosition(alien.getDisplayedYPosition());
+		int lastTileXPos = Math.min(getBelongingTileXPosition(
+				alien.getDisplayedXPosition()+alien.getWidth()-1), worldTiles[0].length-1);
+		int lastTileYPos = Math.min(getBelongingTileYPosition(
+				alien.getDisplayedYPosition()+alien.getHeight()-1), worldTiles.length-1);
+		int targetTileXPos = getTargetTile().getTileXPos();
+		int targetTileYPos = getTargetTile().getTileYPos();
+		return firstTileXPos <= targetTileXPos && targetTileXPos <= lastTileXPos &&
+				firstTileYPos <= targetTileYPos && targetTileYPos <= lastTileYPos;
 	}
 	
 	/**
@@ -1126,8 +1790,577 @@ public class World {
 	 */
 	private boolean gameStarted = false;
 	
-	//No documentation asked for this function
+	/**
+	 * Return the way in which the characters of this world are moved.
+	 */
+	@Basic
+	public CollisionMode getCollisionMode() {
+		return collisionMode;
+	}
+
+	/**
+	 * Set the way in which the characters of this world are moved.
+	 * 
+	 * @param 	collisionMode
+	 * 			The collision mode to set.
+	 * @post	...
+	 * 			| new.getCollisionMode() == collisionMode
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| collisionMode == null
+	 */
+	public void setCollisionMode(CollisionMode collisionMode) 
+			throws IllegalArgumentException{
+		if(collisionMode == null)
+			throw new IllegalArgumentException("Invalid collision mode!");
+		this.collisionMode = collisionMode;
+	}
+	
+	/**
+	 * A variable registering the way in which the characters of this world
+	 * are moved.
+	 */
+	private CollisionMode collisionMode = CollisionMode.STEPPED;
+	
+	/**
+	 * Return the number of continuous moves in this world that have been
+	 * compared against moving one pixel at a time.
+	 */
+	@Basic
+	public int getNbValidatedMoves() {
+		return nbValidatedMoves;
+	}
+	
+	/**
+	 * Return the number of validated moves that ended at a different position
+	 * or in a different direction than moving one pixel at a time.
+	 */
+	@Basic
+	public int getNbMismatchedMoves() {
+		return nbMismatchedMoves;
+	}
+	
+	/**
+	 * Return the largest distance in pixels between the end positions of 
+	 * a validated move and of moving one pixel at a time.
+	 */
+	@Basic
+	public double getMaxValidationDeviation() {
+		return maxValidationDeviation;
+	}
+	
+	/**
+	 * Register the outcome of a validated move.
+	 * 
+	 * @param 	deviation
+	 * 			The distance in pixels between both end positions.
+	 * @param 	mismatch
+	 * 			Whether both moves ended at a different position or in a 
+	 * 			different direction.
+	 */
+	void registerValidatedMove(double deviation, boolean mismatch){
+		nbValidatedMoves++;
+		if(mismatch)
+			nbMismatchedMoves++;
+		maxValidationDeviation = Math.max(maxValidationDeviation, deviation);
+	}
+	
+	private int nbValidatedMoves = 0;
+	
+	private int nbMismatchedMoves = 0;
+	
+	private double maxValidationDeviation = 0;
+	
+	/**
+	 * Return the distance to the visible window beyond which game objects 
+	 * are simulated at a reduced level of detail.
+	 */
+	@Basic
+	public double getReducedDistance() {
+		return reducedDistance;
+	}
+	
+	/**
+	 * Return the distance to the visible window beyond which game objects 
+	 * are frozen.
+	 */
+	@Basic
+	public double getFrozenDistance() {
+		return frozenDistance;
+	}
+	
+	/**
+	 * Return the time that game objects at a reduced level of detail collect
+	 * before they are advanced.
+	 */
+	@Basic
+	public double getReducedTimeStep() {
+		return reducedTimeStep;
+	}
+	
+	/**
+	 * Set the distances to the visible window beyond which game objects are 
+	 * simulated at a reduced level of detail and are frozen.
+	 * 
+	 * @param 	reducedDistance
+	 * 			The distance beyond which game objects are simulated at a 
+	 * 			reduced level of detail.
+	 * @param 	frozenDistance
+	 * 			The distance beyond which game objects are frozen.
+	 * @param 	reducedTimeStep
+	 * 			The time that game objects at a reduced level of detail collect
+	 * 			before they are advanced.
+	 * @post	...
+	 * 			| new.getReducedDistance() == reducedDistance &&
+	 * 			| new.getFrozenDistance() == frozenDistance &&
+	 * 			| new.getReducedTimeStep() == reducedTimeStep
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !(0 <= reducedDistance && reducedDistance <= frozenDistance) ||
+	 * 			| !(reducedTimeStep > 0 && reducedTimeStep <= 0.2)
+	 */
+	public void setSimulationDistances(double reducedDistance, double frozenDistance,
+			double reducedTimeStep) throws IllegalArgumentException{
+		if (!(0 <= reducedDistance && reducedDistance <= frozenDistance))
+			throw new IllegalArgumentException("Invalid simulation distances!");
+		if (!(reducedTimeStep > 0 && reducedTimeStep <= 0.2))
+			throw new IllegalArgumentException("Invalid reduced time step!");
+		this.reducedDistance = reducedDistance;
+		this.frozenDistance = frozenDistance;
+		this.reducedTimeStep = reducedTimeStep;
+	}
+	
+	private double reducedDistance = Double.POSITIVE_INFINITY;
+	
+	private double frozenDistance = Double.POSITIVE_INFINITY;
+	
+	private double reducedTimeStep = 0.1;
+	
+	/**
+	 * Return the level of detail at which the given game object is to be 
+	 * simulated in this world.
+	 * 
+	 * @param 	object
+	 * 			The game object to check.
+	 * @return	The alien controlled by the player is always fully simulated.
+	 * 			| if (object == getMazub())
+	 * 			|	then result == SimulationTier.FULL
+	 * @return	Else, the level of detail depends on the distance of the given 
+	 * 			game object to the visible window.
+	 * 			| let distance = kinematics.getDistanceTo(object.getSlot(),getWindowXPos(),getWindowYPos(),
+	 * 			|		getWindowXPos()+getVisibleWindowWidth(),getWindowYPos()+getVisibleWindowHeight())
+	 * 			| in
+	 * 			|	if (distance > getFrozenDistance())
+	 * 			|		then result == SimulationTier.FROZEN
+	 * 			|	else if (distance > getReducedDistance())
+	 * 			|		then result == SimulationTier.REDUCED
+	 * 			|	else result == SimulationTier.FULL
+	 */
+	public SimulationTier getSimulationTier(GameObject object){
+		if (object == getMazub() || getReducedDistance() == Double.POSITIVE_INFINITY)
+			return SimulationTier.FULL;
+		double distance = kinematics.getDistanceTo(object.getSlot(), getWindowXPos(), getWindowYPos(),
+				getWindowXPos()+getVisibleWindowWidth(), getWindowYPos()+getVisibleWindowHeight());
+		if (distance > getFrozenDistance())
+			return SimulationTier.FROZEN;
+		if (distance > getReducedDistance())
+			return SimulationTier.REDUCED;
+		return SimulationTier.FULL;
+	}
+	
+	/**
+	 * Return the number of game objects that were simulated at the given
+	 * level of detail during the last tick of this world.
+	 */
+	public int getNbGameObjectsInTier(SimulationTier tier){
+		return nbGameObjectsInTier[tier.ordinal()];
+	}
+	
+	/**
+	 * Return the total number of times a game object was simulated at the 
+	 * given level of detail during a tick of this world.
+	 */
+	public long getNbTicksInTier(SimulationTier tier){
+		return nbTicksInTier[tier.ordinal()];
+	}
+	
+	private final int[] nbGameObjectsInTier = new int[SimulationTier.values().length];
+	
+	private final long[] nbTicksInTier = new long[SimulationTier.values().length];
+	
+	/**
+	 * Advance the given game object with the given time duration, at the 
+	 * level of detail that belongs to its distance to the visible window.
+	 * 
+	 * @param 	object
+	 * 			The game object to advance.
+	 * @param 	timeDuration
+	 * 			The time duration of the current tick.
+	 * @effect	A frozen game object is not advanced. Its pending time is 
+	 * 			increased with the given time duration, but no further than the 
+	 * 			maximum replay time.
+	 * @effect	A game object at a reduced level of detail is only advanced 
+	 * 			once its pending time reaches the reduced time step.
+	 * @effect	Otherwise, the game object is advanced with its pending time and
+	 * 			the given time duration, in parts of at most the maximum time 
+	 * 			interval of a game object. All parts but the last one are 
+	 * 			simulated at a reduced level of detail.
+	 * @effect	A fully simulated game object that is asleep, is at rest and can 
+	 * 			still sleep only lets its timers run. Otherwise it is woken up first.
+	 * 			| if (object.isAsleep() && getSimulationTier(object) == SimulationTier.FULL
+	 * 			|		&& kinematics.isAtRest(object.getSlot()) && object.canSleep())
+	 * 			|	then object.advanceAsleep(timeDuration)
+	 * @effect	A fully simulated game object that is at rest and can sleep after
+	 * 			it has been advanced, and does not touch any other game object,
+	 * 			is put to sleep.
+	 */
+	@Model
+	private void advanceAtSimulationTier(GameObject object, double timeDuration){
+		SimulationTier tier = getSimulationTier(object);
+		nbGameObjectsInTier[tier.ordinal()]++;
+		nbTicksInTier[tier.ordinal()]++;
+		if (object.isAsleep()){
+			if (tier == SimulationTier.FULL && kinematics.isAtRest(object.getSlot()) 
+					&& object.canSleep()){
+				object.advanceAsleep(timeDuration);
+				nbSleepingTicks++;
+				return;
+			}
+			wakeUp(object);
+		}
+		double pendingTime = object.getPendingTime() + timeDuration;
+		if (tier == SimulationTier.FROZEN){
+			object.setPendingTime(Math.min(pendingTime, MAX_REPLAY_TIME));
+			return;
+		}
+		if (tier == SimulationTier.REDUCED && pendingTime < getReducedTimeStep()){
+			object.setPendingTime(pendingTime);
+			return;
+		}
+		object.setPendingTime(0);
+		object.setSimulationTier(SimulationTier.REDUCED);
+		while (pendingTime > MAX_TIME_INTERVAL && !object.isTerminated()){
+			object.advanceTime(MAX_TIME_INTERVAL);
+			pendingTime -= MAX_TIME_INTERVAL;
+		}
+		object.setSimulationTier(tier);
+		if (!object.isTerminated())
+			object.advanceTime(pendingTime);
+		if (tier == SimulationTier.FULL && isSleepingAllowed() && !object.isTerminated() 
+				&& kinematics.isAtRest(object.getSlot()) && object.canSleep() 
+				&& !isTouchingOtherGameObject(object))
+			putToSleep(object);
+	}
+	
+	/**
+	 * Check whether game objects in this world may be put to sleep.
+	 */
+	@Basic
+	public boolean isSleepingAllowed() {
+		return sleepingAllowed;
+	}
+	
+	/**
+	 * Set whether game objects in this world may be put to sleep.
+	 * 
+	 * @param 	sleepingAllowed
+	 * 			Whether game objects may be put to sleep.
+	 * @post	...
+	 * 			| new.isSleepingAllowed() == sleepingAllowed
+	 * @effect	If sleeping is no longer allowed, all sleeping game objects are 
+	 * 			woken up.
+	 * 			| if (!sleepingAllowed)
+	 * 			|	then for each object in getAllGameObjects():
+	 * 			|		if (object.isAsleep())
+	 * 			|			then wakeUp(object)
+	 */
+	public void setSleepingAllowed(boolean sleepingAllowed) {
+		this.sleepingAllowed = sleepingAllowed;
+		if (!sleepingAllowed){
+			for (GameObject object: allGameObjects)
+				if (object.isAsleep())
+					wakeUp(object);
+		}
+	}
+	
+	private boolean sleepingAllowed = true;
+	
+	/**
+	 * Return the number of game objects in this world that are asleep.
+	 */
+	@Basic
+	public int getNbSleepingGameObjects() {
+		return nbSleepingGameObjects;
+	}
+	
+	/**
+	 * Return the total number of times a game object was not advanced during 
+	 * a tick of this world because it was asleep.
+	 */
+	@Basic
+	public long getNbSleepingTicks() {
+		return nbSleepingTicks;
+	}
+	
+	/**
+	 * Return the total number of times a game object in this world was woken up.
+	 */
+	@Basic
+	public long getNbWakeUps() {
+		return nbWakeUps;
+	}
+	
+	private int nbSleepingGameObjects = 0;
+	
+	private long nbSleepingTicks = 0;
+	
+	private long nbWakeUps = 0;
+	
+	/**
+	 * Put the given game object to sleep.
+	 */
+	@Model
+	private void putToSleep(GameObject object){
+		object.setAsleep(true);
+		nbSleepingGameObjects++;
+	}
+	
+	/**
+	 * Wake up the given sleeping game object.
+	 */
+	@Model
+	private void wakeUp(GameObject object){
+		object.setAsleep(false);
+		nbSleepingGameObjects--;
+		nbWakeUps++;
+	}
+	
+	/**
+	 * Check whether the given game object overlaps with or lies right next to 
+	 * another game object of this world.
+	 * 
+	 * @param 	object
+	 * 			The game object to check.
+	 * @return	...
+	 * 			| result == (getGameObjectsIn(object.getDisplayedXPosition()-1,
+	 * 			|		object.getDisplayedYPosition()-1,
+	 * 			|		object.getDisplayedXPosition()+object.getWidth(),
+	 * 			|		object.getDisplayedYPosition()+object.getHeight()).size() > 1)
+	 */
+	@Model
+	private boolean isTouchingOtherGameObject(GameObject object){
+		int xPos = object.getDisplayedXPosition();
+		int yPos = object.getDisplayedYPosition();
+		collectGameObjectsIn(xPos-1, yPos-1, xPos+object.getWidth(), 
+				yPos+object.getHeight(), touchingGameObjects);
+		return touchingGameObjects.size() > 1;
+	}
+	
+	/**
+	 * A list storing the game objects found by the last invocation of 
+	 * isTouchingOtherGameObject.
+	 */
+	private final List<GameObject> touchingGameObjects = new ArrayList<GameObject>();
+	
+	/**
+	 * Wake up all sleeping game objects of this world that overlap with or lie
+	 * right next to the given game object.
+	 * 
+	 * @param 	object
+	 * 			The game object that has moved.
+	 * @effect	...
+	 * 			| for each other in getGameObjectsIn(object.getDisplayedXPosition()-1,
+	 * 			|		object.getDisplayedYPosition()-1,
+	 * 			|		object.getDisplayedXPosition()+object.getWidth(),
+	 * 			|		object.getDisplayedYPosition()+object.getHeight()):
+	 * 			|	if (other.isAsleep())
+	 * 			|		then wakeUp(other)
+	 */
+	@Model
+	private void wakeGameObjectsTouching(GameObject object){
+		int xPos = object.getDisplayedXPosition();
+		int yPos = object.getDisplayedYPosition();
+		collectGameObjectsIn(xPos-1, yPos-1, xPos+object.getWidth(), 
+				yPos+object.getHeight(), gameObjectsToWake);
+		for (int index = 0; index < gameObjectsToWake.size(); index++){
+			GameObject other = gameObjectsToWake.get(index);
+			if (other.isAsleep())
+				wakeUp(other);
+		}
+	}
+	
+	/**
+	 * A list storing the game objects found by the last invocation of 
+	 * wakeGameObjectsTouching.
+	 */
+	private final List<GameObject> gameObjectsToWake = new ArrayList<GameObject>();
+	
+	/**
+	 * A variable storing the largest amount of time that a frozen game object
+	 * catches up on once it is no longer frozen.
+	 */
+	private static final double MAX_REPLAY_TIME = 1;
+	
+	/**
+	 * A variable storing the largest time duration with which a single game 
+	 * object is advanced at once.
+	 */
+	private static final double MAX_TIME_INTERVAL = 0.2;
+	
+	/**
+	 * Advance the time of this world with the given time duration.
+	 * 
+	 * @param 	timeDuration
+	 * 			The time duration to advance.
+	 * @effect	If this world has no fixed time step, all game objects are 
+	 * 			advanced with the given time duration in a single tick.
+	 * 			| if (!hasFixedTimeStep())
+	 * 			|	then advanceTick(timeDuration)
+	 * @effect	Else, the given time duration is added to the accumulated time,
+	 * 			and as many ticks of the fixed duration as the accumulated time 
+	 * 			contains are simulated, but no more than the maximum number of 
+	 * 			ticks per advance. The time that is left over after the maximum 
+	 * 			number of ticks, apart from the fraction of a tick, is dropped.
+	 * 			| else for each tick in 1..min(floor((accumulatedTime+timeDuration)/getTickDuration()),
+	 * 			|							   getMaxTicksPerAdvance()):
+	 * 			|	advanceTick(getTickDuration())
+	 */
 	public void advanceTime(double timeDuration) throws
+	IllegalXPositionException,IllegalYPositionException{
+		if (!hasFixedTimeStep()){
+			advanceTick(timeDuration);
+			return;
+		}
+		accumulatedTime += timeDuration;
+		int nbTicks = 0;
+		while (accumulatedTime >= getTickDuration() && nbTicks < getMaxTicksPerAdvance()){
+			rememberPositions();
+			advanceTick(getTickDuration());
+			accumulatedTime -= getTickDuration();
+			nbTicks++;
+		}
+		if (accumulatedTime >= getTickDuration()){
+			double leftOver = accumulatedTime % getTickDuration();
+			droppedTime += accumulatedTime - leftOver;
+			accumulatedTime = leftOver;
+		}
+	}
+	
+	/**
+	 * Check whether this world is advanced in ticks of a fixed duration.
+	 */
+	public boolean hasFixedTimeStep(){
+		return getTickDuration() > 0;
+	}
+	
+	/**
+	 * Return the duration of a tick of this world with a fixed time step,
+	 * or zero if this world has no fixed time step.
+	 */
+	@Basic
+	public double getTickDuration() {
+		return tickDuration;
+	}
+	
+	/**
+	 * Return the maximum number of ticks simulated in a single invocation 
+	 * of advanceTime.
+	 */
+	@Basic
+	public int getMaxTicksPerAdvance() {
+		return maxTicksPerAdvance;
+	}
+	
+	/**
+	 * Let this world advance in ticks of the given duration.
+	 * 
+	 * @param 	tickDuration
+	 * 			The duration of a single tick.
+	 * @param 	maxTicksPerAdvance
+	 * 			The maximum number of ticks simulated in a single invocation of
+	 * 			advanceTime.
+	 * @post	...
+	 * 			| new.getTickDuration() == tickDuration &&
+	 * 			| new.getMaxTicksPerAdvance() == maxTicksPerAdvance
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !(tickDuration > 0 && tickDuration <= 0.2) || maxTicksPerAdvance < 1
+	 */
+	public void setFixedTimeStep(double tickDuration, int maxTicksPerAdvance)
+			throws IllegalArgumentException{
+		if (!(tickDuration > 0 && tickDuration <= 0.2) || maxTicksPerAdvance < 1)
+			throw new IllegalArgumentException("Invalid time step!");
+		this.tickDuration = tickDuration;
+		this.maxTicksPerAdvance = maxTicksPerAdvance;
+		this.accumulatedTime = 0;
+		rememberPositions();
+	}
+	
+	/**
+	 * Store the current positions of all game objects and of the visible 
+	 * window of this world as their positions at the start of a tick.
+	 */
+	@Model
+	private void rememberPositions(){
+		kinematics.rememberPositions();
+		previousWindowXPos = getWindowXPos();
+		previousWindowYPos = getWindowYPos();
+	}
+	
+	/**
+	 * Let this world advance in a single tick of the given duration on every 
+	 * invocation of advanceTime.
+	 * 
+	 * @post	...
+	 * 			| !new.hasFixedTimeStep()
+	 */
+	public void setVariableTimeStep(){
+		this.tickDuration = 0;
+		this.accumulatedTime = 0;
+	}
+	
+	private double tickDuration = 0;
+	
+	private int maxTicksPerAdvance = 1;
+	
+	/**
+	 * Return the fraction of a tick that has been accumulated but not yet 
+	 * simulated by this world. Game objects are displayed at this fraction
+	 * between their position at the start and at the end of the last tick.
+	 * 
+	 * @return	...
+	 * 			| if (hasFixedTimeStep())
+	 * 			|	then result == accumulatedTime/getTickDuration()
+	 * 			| else result == 0
+	 */
+	public double getInterpolationFactor(){
+		if (!hasFixedTimeStep())
+			return 0;
+		return accumulatedTime/getTickDuration();
+	}
+	
+	/**
+	 * A variable registering the time that has been passed to advanceTime,
+	 * but has not yet been simulated in a tick.
+	 */
+	private double accumulatedTime = 0;
+	
+	/**
+	 * Return the total time that this world has not simulated because the 
+	 * maximum number of ticks per advance was reached.
+	 */
+	@Basic
+	public double getDroppedTime() {
+		return droppedTime;
+	}
+	
+	private double droppedTime = 0;
+	
+	/**
+	 * Advance all game objects of this world with the given time duration.
+	 */
+	@Model
+	private void advanceTick(double timeDuration) throws
 	IllegalXPositionException,IllegalYPositionException{
 		if(isGameStarted() && isGameOver())
 			terminate();
@@ -1135,27 +2368,35 @@ public class World {
 			getMazub().advanceTime(timeDuration);
 			updateWindowPos();
 		}
-		for(Buzam buzam: getAllBuzams()){
+		Arrays.fill(nbGameObjectsInTier, 0);
+		List<Buzam> buzams = getSnapshotOfType(Buzam.class);
+		for(int index = 0; index < buzams.size(); index++){
+			Buzam buzam = buzams.get(index);
 			if(!buzam.isTerminated())
 				try {
-					buzam.advanceTime(timeDuration);
+					advanceAtSimulationTier(buzam, timeDuration);
 				} catch (IllegalJumpInvokeException | IllegalStateException e) {
 					System.out.println("Illegal operation by Buzam");
 					System.out.println(buzam.getVertDirection());
 					e.printStackTrace();
 				}
 		}
-		for(Plant plant: getAllPlants()){
-			if(!plant.isTerminated())
-				plant.advanceTime(timeDuration);
-		}
-		for(Shark shark: getAllSharks()){
-			if(!shark.isTerminated())
-				shark.advanceTime(timeDuration);
-		}
-		for(Slime slime: getAllSlimes()){
-			if(!slime.isTerminated())
-				slime.advanceTime(timeDuration);
+		advanceAllOfType(Plant.class, timeDuration);
+		advanceAllOfType(Shark.class, timeDuration);
+		advanceAllOfType(Slime.class, timeDuration);
+	}
+	
+	/**
+	 * Advance all unterminated game objects of this world that are an instance
+	 * of the given type with the given time duration.
+	 */
+	@Model
+	private void advanceAllOfType(Class<? extends GameObject> type, double timeDuration){
+		List<? extends GameObject> objects = getSnapshotOfType(type);
+		for(int index = 0; index < objects.size(); index++){
+			GameObject object = objects.get(index);
+			if(!object.isTerminated())
+				advanceAtSimulationTier(object, timeDuration);
 		}
 	}
 	
@@ -1164,20 +2405,70 @@ public class World {
 	 * 
 	 * @effect	...
 	 * 			| if(getMazub() != null)
-	 *			|	then setWindowXPos(getMazub().getPosition().getDisplayedXPosition()-
+	 *			|	then setWindowXPos(getMazub().getDisplayedXPosition()-
 	 *			|		  (getVisibleWindowWidth()-getMazub().getWidth())/2),
-	 *			|		 setWindowYPos(getMazub().getPosition().getDisplayedYPosition()-
+	 *			|		 setWindowYPos(getMazub().getDisplayedYPosition()-
 	 *			|		  (getVisibleWindowHeight()-getMazub().getHeight())/2)
 	 */
 	private void updateWindowPos(){
 		if(getMazub() != null){
-			setWindowXPos(getMazub().getPosition().getDisplayedXPosition()-
+			setWindowXPos(getMazub().getDisplayedXPosition()-
 						  (getVisibleWindowWidth()-getMazub().getWidth())/2);
-			setWindowYPos(getMazub().getPosition().getDisplayedYPosition()-
+			setWindowYPos(getMazub().getDisplayedYPosition()-
 						  (getVisibleWindowHeight()-getMazub().getHeight())/2);
 		}
 	}
 	
+	/**
+	 * Return the seed of the random source of this world.
+	 */
+	@Basic
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Set the seed of the random source of this world to the given value.
+	 * Every game object in this world receives a new random stream split off
+	 * from the reseeded source, in the order in which they were added to 
+	 * this world.
+	 * 
+	 * @param 	seed
+	 * 			The new seed for this world.
+	 * @post	...
+	 * 			| new.getSeed() == seed
+	 * @effect	...
+	 * 			| for each slot in 0..kinematics.getSize()-1:
+	 * 			|	kinematics.getGameObjectAt(slot).setRandom(getRandom().split())
+	 * @note	Two worlds with the same seed, to which the same game objects are 
+	 * 			added in the same order, make the same random decisions.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.random = new SplittableRandom(seed);
+		for (int slot = 0; slot < kinematics.getSize(); slot++)
+			kinematics.getGameObjectAt(slot).setRandom(getRandom().split());
+	}
+	
+	private long seed = new SplittableRandom().nextLong();
+	
+	/**
+	 * Return the random source of this world.
+	 * 
+	 * @note	The random source is not thread-safe. Only the thread advancing 
+	 * 			this world may use it.
+	 */
+	@Basic@Model
+	private SplittableRandom getRandom() {
+		return random;
+	}
+	
+	/**
+	 * A variable storing the random source from which the random stream of 
+	 * each game object in this world is split.
+	 */
+	private SplittableRandom random = new SplittableRandom(seed);
+	
 	/**
 	 * Terminate this world.
 	 * 
@@ -1188,6 +2479,10 @@ public class World {
 	 * @effect	...
 	 * 			| getAllGameObjects().clear()
 	 * @effect	...
+	 * 			| kinematics.removeAll()
+	 * @post	...
+	 * 			| new.getNbSleepingGameObjects() == 0
+	 * @effect	...
 	 * 			| getAllSchoolsWithValues().clear()
 	 * @effect	...
 	 * 			| if(getMazub() != null)
@@ -1202,6 +2497,13 @@ public class World {
 		assert isGameStarted();
 		assert isGameOver();
 		allGameObjects.clear();
+		for (Set<GameObject> partition: gameObjectsByType.values())
+			partition.clear();
+		gameObjectViewsByType.clear();
+		gameObjectSnapshotsByType.clear();
+		Collections.fill(gameObjectCells, null);
+		kinematics.removeAll();
+		nbSleepingGameObjects = 0;
 		allSchools.clear();
 		if(getMazub() != null)
 			getMazub().setWorld(null);
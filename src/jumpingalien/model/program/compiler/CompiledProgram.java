@@ -0,0 +1,99 @@
+package jumpingalien.model.program.compiler;
+
+import java.util.Arrays;
+
+/**
+ * The main statement of a program compiled to a flat array of instructions.
+ * 
+ * A compiled program does not hold any execution state. The registers, the
+ * position in the code and the state of waits and loops are kept by an
+ * {@link Interpreter}.
+ */
+public class CompiledProgram {
+	
+	CompiledProgram(int[] code, double[] doubleConstants, Object[] constants,
+			String[] slotNames, int nbDoubleRegisters, int nbBooleanRegisters,
+			int nbObjectRegisters, int nbWaits, int nbLoops){
+		this.code = code;
+		this.doubleConstants = doubleConstants;
+		this.constants = constants;
+		this.slotNames = slotNames;
+		this.nbDoubleRegisters = nbDoubleRegisters;
+		this.nbBooleanRegisters = nbBooleanRegisters;
+		this.nbObjectRegisters = nbObjectRegisters;
+		this.nbWaits = nbWaits;
+		this.nbLoops = nbLoops;
+	}
+	
+	int[] getCode() {
+		return code;
+	}
+	
+	private final int[] code;
+	
+	public int getCodeLength(){
+		return code.length;
+	}
+	
+	double[] getDoubleConstants() {
+		return doubleConstants;
+	}
+	
+	private final double[] doubleConstants;
+	
+	Object[] getConstants() {
+		return constants;
+	}
+	
+	private final Object[] constants;
+	
+	/**
+	 * Return the names of the global variables in the order of their slots.
+	 */
+	public String[] getSlotNames() {
+		return Arrays.copyOf(slotNames, slotNames.length);
+	}
+	
+	public int getNbSlots(){
+		return slotNames.length;
+	}
+	
+	private final String[] slotNames;
+	
+	public int getNbDoubleRegisters() {
+		return nbDoubleRegisters;
+	}
+	
+	private final int nbDoubleRegisters;
+	
+	public int getNbBooleanRegisters() {
+		return nbBooleanRegisters;
+	}
+	
+	private final int nbBooleanRegisters;
+	
+	public int getNbObjectRegisters() {
+		return nbObjectRegisters;
+	}
+	
+	private final int nbObjectRegisters;
+	
+	public int getNbWaits() {
+		return nbWaits;
+	}
+	
+	private final int nbWaits;
+	
+	public int getNbLoops() {
+		return nbLoops;
+	}
+	
+	private final int nbLoops;
+	
+	@Override
+	public String toString() {
+		return "Compiled program with " + code.length + " code units, " + 
+				slotNames.length + " variables and " + (nbDoubleRegisters + 
+				nbBooleanRegisters + nbObjectRegisters) + " registers.";
+	}
+}
@@ -0,0 +1,417 @@
+package jumpingalien.model.program.compiler;
+
+import static jumpingalien.model.program.compiler.Opcodes.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import jumpingalien.model.game.GameObject;
+import jumpingalien.model.game.JumpInterface;
+import jumpingalien.model.game.Mazub;
+import jumpingalien.model.game.Terrain;
+import jumpingalien.model.game.Tile;
+import jumpingalien.model.program.expressions.Expression;
+import jumpingalien.model.program.programs.Program;
+import jumpingalien.model.program.statements.EndMovement;
+import jumpingalien.model.program.statements.Foreach;
+import jumpingalien.model.program.statements.SingleStatement;
+import jumpingalien.model.program.statements.StartMovement;
+import jumpingalien.model.program.statements.Statement;
+import jumpingalien.model.program.statements.StatementIterator;
+import jumpingalien.model.program.types.ObjectOfWorld;
+
+/**
+ * Executes a compiled program for a single program instance.
+ *
+ * Every call of next() runs instructions up to and including the next YIELD
+ * and returns the statement that was executed, in the same order as the
+ * iterator of the main statement would return them. If the end of the code
+ * is reached before a statement is executed, null is returned.
+ */
+public class Interpreter implements StatementIterator<Statement> {
+
+	public Interpreter(CompiledProgram compiledProgram, Program program){
+		this.compiledProgram = compiledProgram;
+		this.program = program;
+		this.code = compiledProgram.getCode();
+		this.doubleConstants = compiledProgram.getDoubleConstants();
+		this.constants = compiledProgram.getConstants();
+		this.doubles = new double[compiledProgram.getNbDoubleRegisters()];
+		this.booleans = new boolean[compiledProgram.getNbBooleanRegisters()];
+		this.objects = new Object[compiledProgram.getNbObjectRegisters()];
+		this.waitLengths = new int[compiledProgram.getNbWaits()];
+		this.waitIndices = new int[compiledProgram.getNbWaits()];
+		this.loopObjects = new List<?>[compiledProgram.getNbLoops()];
+		this.loopIndices = new int[compiledProgram.getNbLoops()];
+	}
+
+	public CompiledProgram getCompiledProgram() {
+		return compiledProgram;
+	}
+
+	private final CompiledProgram compiledProgram;
+
+	public Program getProgram() {
+		return program;
+	}
+
+	private final Program program;
+
+	@Override
+	public boolean hasNext() {
+		return code[pc] != END;
+	}
+
+	@Override
+	public Statement next() throws NoSuchElementException {
+		if(!hasNext())
+			throw new NoSuchElementException();
+		final int[] code = this.code;
+		final double[] d = this.doubles;
+		final boolean[] b = this.booleans;
+		final Object[] o = this.objects;
+		int pc = this.pc;
+		while(true){
+			switch(code[pc]){
+			case END:
+				this.pc = pc;
+				return null;
+			case YIELD:
+				this.pc = pc + 2;
+				return (Statement) constants[code[pc+1]];
+			case JUMP:
+				pc = code[pc+1];
+				break;
+			case JUMP_IF_FALSE:
+				pc = b[code[pc+1]] ? pc + 3 : code[pc+2];
+				break;
+			case JUMP_IF_TRUE:
+				pc = b[code[pc+1]] ? code[pc+2] : pc + 3;
+				break;
+			case D_CONST:
+				d[code[pc+1]] = doubleConstants[code[pc+2]];
+				pc += 3;
+				break;
+			case B_CONST:
+				b[code[pc+1]] = code[pc+2] != 0;
+				pc += 3;
+				break;
+			case O_CONST:
+				o[code[pc+1]] = constants[code[pc+2]];
+				pc += 3;
+				break;
+			case SELF:
+				o[code[pc+1]] = program.getGameObject();
+				pc += 2;
+				break;
+			case D_LOAD:
+				d[code[pc+1]] = ((Number) program.getValue(code[pc+2])).doubleValue();
+				pc += 3;
+				break;
+			case B_LOAD:
+				b[code[pc+1]] = (Boolean) program.getValue(code[pc+2]);
+				pc += 3;
+				break;
+			case O_LOAD:
+				o[code[pc+1]] = program.getValue(code[pc+2]);
+				pc += 3;
+				break;
+			case D_STORE:
+				program.setValue(code[pc+1], d[code[pc+2]]);
+				pc += 3;
+				break;
+			case B_STORE:
+				program.setValue(code[pc+1], b[code[pc+2]]);
+				pc += 3;
+				break;
+			case O_STORE:
+				program.setValue(code[pc+1], o[code[pc+2]]);
+				pc += 3;
+				break;
+			case BOX_D:
+				o[code[pc+1]] = d[code[pc+2]];
+				pc += 3;
+				break;
+			case BOX_B:
+				o[code[pc+1]] = b[code[pc+2]];
+				pc += 3;
+				break;
+			case UNBOX_D:
+				d[code[pc+1]] = ((Number) o[code[pc+2]]).doubleValue();
+				pc += 3;
+				break;
+			case UNBOX_B:
+				b[code[pc+1]] = (Boolean) o[code[pc+2]];
+				pc += 3;
+				break;
+			case B_MOVE:
+				b[code[pc+1]] = b[code[pc+2]];
+				pc += 3;
+				break;
+			case D_ADD:
+				d[code[pc+1]] = d[code[pc+2]] + d[code[pc+3]];
+				pc += 4;
+				break;
+			case D_SUB:
+				d[code[pc+1]] = d[code[pc+2]] - d[code[pc+3]];
+				pc += 4;
+				break;
+			case D_MUL:
+				d[code[pc+1]] = d[code[pc+2]] * d[code[pc+3]];
+				pc += 4;
+				break;
+			case D_DIV:
+				d[code[pc+1]] = d[code[pc+2]] / d[code[pc+3]];
+				pc += 4;
+				break;
+			case D_SQRT:
+				d[code[pc+1]] = Math.sqrt(d[code[pc+2]]);
+				pc += 3;
+				break;
+			case D_RANDOM:
+				d[code[pc+1]] = program.getGameObject().getRandom().nextDouble() * d[code[pc+2]];
+				pc += 3;
+				break;
+			case D_LT:
+				b[code[pc+1]] = d[code[pc+2]] < d[code[pc+3]];
+				pc += 4;
+				break;
+			case D_LE:
+				b[code[pc+1]] = d[code[pc+2]] <= d[code[pc+3]];
+				pc += 4;
+				break;
+			case D_GT:
+				b[code[pc+1]] = d[code[pc+2]] > d[code[pc+3]];
+				pc += 4;
+				break;
+			case D_GE:
+				b[code[pc+1]] = d[code[pc+2]] >= d[code[pc+3]];
+				pc += 4;
+				break;
+			case D_EQ:
+				b[code[pc+1]] = d[code[pc+2]] == d[code[pc+3]];
+				pc += 4;
+				break;
+			case B_EQ:
+				b[code[pc+1]] = b[code[pc+2]] == b[code[pc+3]];
+				pc += 4;
+				break;
+			case O_EQ:
+				b[code[pc+1]] = o[code[pc+2]] == o[code[pc+3]];
+				pc += 4;
+				break;
+			case B_NOT:
+				b[code[pc+1]] = !b[code[pc+2]];
+				pc += 3;
+				break;
+			case GET_X:
+				d[code[pc+1]] = ((GameObject) o[code[pc+2]]).getPosition().getXPosition();
+				pc += 3;
+				break;
+			case GET_Y:
+				d[code[pc+1]] = ((GameObject) o[code[pc+2]]).getPosition().getYPosition();
+				pc += 3;
+				break;
+			case GET_WIDTH:
+				d[code[pc+1]] = ((GameObject) o[code[pc+2]]).getWidth();
+				pc += 3;
+				break;
+			case GET_HEIGHT:
+				d[code[pc+1]] = ((GameObject) o[code[pc+2]]).getHeight();
+				pc += 3;
+				break;
+			case GET_HP:
+				d[code[pc+1]] = ((GameObject) o[code[pc+2]]).getHitPoints();
+				pc += 3;
+				break;
+			case IS_DEAD:
+				b[code[pc+1]] = ((GameObject) o[code[pc+2]]).isDead();
+				pc += 3;
+				break;
+			case IS_TERRAIN:
+				b[code[pc+1]] = o[code[pc+2]] instanceof Tile;
+				pc += 3;
+				break;
+			case IS_PASSABLE:
+				b[code[pc+1]] = ((Tile) o[code[pc+2]]).getGeoFeature().isPassable();
+				pc += 3;
+				break;
+			case IS_TERRAIN_OF_TYPE:
+				if (o[code[pc+2]] instanceof GameObject)
+					b[code[pc+1]] = (((GameObject) o[code[pc+2]]).getTerrainMask() &
+							((Terrain) constants[code[pc+3]]).getMask()) != 0;
+				else
+					b[code[pc+1]] = ((Tile) o[code[pc+2]]).getGeoFeature() ==
+							(Terrain) constants[code[pc+3]];
+				pc += 4;
+				break;
+			case IS_CLASS:
+				b[code[pc+1]] = o[code[pc+2]].getClass() == constants[code[pc+3]];
+				pc += 4;
+				break;
+			case IS_DUCKING:
+				b[code[pc+1]] = ((Mazub) o[code[pc+2]]).getIsDucked();
+				pc += 3;
+				break;
+			case IS_JUMPING:
+				b[code[pc+1]] = ((JumpInterface) o[code[pc+2]]).isJumping();
+				pc += 3;
+				break;
+			case EVAL_D:
+				d[code[pc+1]] = ((Number) ((Expression) constants[code[pc+2]]).outcome()).doubleValue();
+				pc += 3;
+				break;
+			case EVAL_B:
+				b[code[pc+1]] = (Boolean) ((Expression) constants[code[pc+2]]).outcome();
+				pc += 3;
+				break;
+			case EVAL_O:
+				o[code[pc+1]] = ((Expression) constants[code[pc+2]]).outcome();
+				pc += 3;
+				break;
+			case PRINT_D:
+				System.out.println(d[code[pc+1]]);
+				pc += 2;
+				break;
+			case PRINT_B:
+				System.out.println(b[code[pc+1]]);
+				pc += 2;
+				break;
+			case PRINT_O:
+				System.out.println(o[code[pc+1]]);
+				pc += 2;
+				break;
+			case START_MOVE:
+				StartMovement.startMovement(program.getGameObject(),
+						jumpingalien.model.game.Direction.convertDirection(o[code[pc+1]]));
+				pc += 2;
+				break;
+			case END_MOVE:
+				EndMovement.endMovement(program.getGameObject(),
+						jumpingalien.model.game.Direction.convertDirection(o[code[pc+1]]));
+				pc += 2;
+				break;
+			case EXECUTE:
+				((SingleStatement) constants[code[pc+1]]).executeSingleStatement();
+				pc += 2;
+				break;
+			case WAIT_INIT:
+				waitLengths[code[pc+1]] = (int) Math.floor(d[code[pc+2]]/0.001);
+				waitIndices[code[pc+1]] = 0;
+				pc += 3;
+				break;
+			case WAIT: {
+				int wait = code[pc+1];
+				int length = waitLengths[wait];
+				waitIndices[wait]++;
+				Statement statement = (Statement) constants[code[pc+2]];
+				this.pc = (length == 0 || waitIndices[wait] < length) ? pc : pc + 3;
+				return statement;
+			}
+			case FOREACH_INIT:
+				loopObjects[code[pc+1]] = ((Foreach) constants[code[pc+2]]).selectObjects();
+				loopIndices[code[pc+1]] = -1;
+				pc += 3;
+				break;
+			case FOREACH_NEXT: {
+				int loop = code[pc+1];
+				List<?> objectsOfLoop = loopObjects[loop];
+				Object next = null;
+				while(next == null && ++loopIndices[loop] < objectsOfLoop.size())
+					next = objectsOfLoop.get(loopIndices[loop]);
+				if(next == null)
+					pc = code[pc+3];
+				else{
+					program.setValue(code[pc+2], (ObjectOfWorld) next);
+					pc += 4;
+				}
+				break;
+			}
+			case FOREACH_HAS_MORE: {
+				int loop = code[pc+1];
+				pc = (loopIndices[loop] < loopObjects[loop].size() - 1) ? pc + 3 : code[pc+2];
+				break;
+			}
+			case FOREACH_DONE:
+				loopObjects[code[pc+1]] = null;
+				pc += 2;
+				break;
+			case CLEAR:
+				program.setValue(code[pc+1], null);
+				pc += 2;
+				break;
+			default:
+				throw new IllegalStateException("Unknown opcode " + code[pc] +
+						" at " + pc + ".");
+			}
+		}
+	}
+
+	/**
+	 * Return the number of steps this interpreter is still suspended in a wait
+	 * statement. Each of these steps only returns that wait statement.
+	 * 
+	 * @return	Integer.MAX_VALUE if the current wait never ends, zero if this
+	 * 			interpreter is not suspended in a wait statement.
+	 */
+	public int getRemainingWaitSteps() {
+		if(code[pc] != WAIT)
+			return 0;
+		int wait = code[pc+1];
+		if(waitLengths[wait] == 0)
+			return Integer.MAX_VALUE;
+		return waitLengths[wait] - waitIndices[wait];
+	}
+
+	/**
+	 * Take the given number of steps in the current wait statement at once,
+	 * with the same effect as that many invocations of next().
+	 */
+	public void skipWaitSteps(int nbSteps) {
+		assert (nbSteps <= getRemainingWaitSteps());
+		int wait = code[pc+1];
+		waitIndices[wait] += nbSteps;
+		if(waitLengths[wait] != 0 && waitIndices[wait] >= waitLengths[wait])
+			pc += 3;
+	}
+
+	@Override
+	public void restart() {
+		pc = 0;
+		Arrays.fill(loopObjects, null);
+	}
+
+	@Override
+	public int getIndex() {
+		return pc;
+	}
+
+	@Override
+	public void setIndex(int index) {
+		this.pc = index;
+	}
+
+	private int pc = 0;
+
+	private final int[] code;
+
+	private final double[] doubleConstants;
+
+	private final Object[] constants;
+
+
+	private final double[] doubles;
+
+	private final boolean[] booleans;
+
+	private final Object[] objects;
+
+	private final int[] waitLengths;
+
+	private final int[] waitIndices;
+
+	private final List<?>[] loopObjects;
+
+	private final int[] loopIndices;
+}
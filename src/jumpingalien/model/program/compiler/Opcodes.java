@@ -0,0 +1,150 @@
+package jumpingalien.model.program.compiler;
+
+/**
+ * The instruction set of compiled programs.
+ * 
+ * An instruction is an opcode followed by its operands in the same flat code
+ * array. Operands named d, b and o refer to registers in the double, boolean
+ * and object register files, slot to a global variable, target to an index
+ * in the code array and constant to the constant pool of the program.
+ */
+final class Opcodes {
+	
+	private Opcodes(){}
+	
+	/** END: the end of the main statement. */
+	static final int END = 0;
+	/** YIELD constant: one statement has been executed, pause here. */
+	static final int YIELD = 1;
+	/** JUMP target */
+	static final int JUMP = 2;
+	/** JUMP_IF_FALSE b target */
+	static final int JUMP_IF_FALSE = 3;
+	/** JUMP_IF_TRUE b target */
+	static final int JUMP_IF_TRUE = 4;
+	
+	/** D_CONST d constant */
+	static final int D_CONST = 10;
+	/** B_CONST b value (0 or 1) */
+	static final int B_CONST = 11;
+	/** O_CONST o constant */
+	static final int O_CONST = 12;
+	/** SELF o */
+	static final int SELF = 13;
+	
+	/** D_LOAD d slot */
+	static final int D_LOAD = 20;
+	/** B_LOAD b slot */
+	static final int B_LOAD = 21;
+	/** O_LOAD o slot */
+	static final int O_LOAD = 22;
+	/** D_STORE slot d */
+	static final int D_STORE = 23;
+	/** B_STORE slot b */
+	static final int B_STORE = 24;
+	/** O_STORE slot o */
+	static final int O_STORE = 25;
+	
+	/** BOX_D o d */
+	static final int BOX_D = 30;
+	/** BOX_B o b */
+	static final int BOX_B = 31;
+	/** UNBOX_D d o */
+	static final int UNBOX_D = 32;
+	/** UNBOX_B b o */
+	static final int UNBOX_B = 33;
+	/** B_MOVE b b */
+	static final int B_MOVE = 34;
+	
+	/** D_ADD d d d */
+	static final int D_ADD = 40;
+	/** D_SUB d d d */
+	static final int D_SUB = 41;
+	/** D_MUL d d d */
+	static final int D_MUL = 42;
+	/** D_DIV d d d */
+	static final int D_DIV = 43;
+	/** D_SQRT d d */
+	static final int D_SQRT = 44;
+	/** D_RANDOM d d */
+	static final int D_RANDOM = 45;
+	
+	/** D_LT b d d */
+	static final int D_LT = 50;
+	/** D_LE b d d */
+	static final int D_LE = 51;
+	/** D_GT b d d */
+	static final int D_GT = 52;
+	/** D_GE b d d */
+	static final int D_GE = 53;
+	/** D_EQ b d d */
+	static final int D_EQ = 54;
+	/** B_EQ b b b */
+	static final int B_EQ = 55;
+	/** O_EQ b o o */
+	static final int O_EQ = 56;
+	/** B_NOT b b */
+	static final int B_NOT = 57;
+	
+	/** GET_X d o */
+	static final int GET_X = 60;
+	/** GET_Y d o */
+	static final int GET_Y = 61;
+	/** GET_WIDTH d o */
+	static final int GET_WIDTH = 62;
+	/** GET_HEIGHT d o */
+	static final int GET_HEIGHT = 63;
+	/** GET_HP d o */
+	static final int GET_HP = 64;
+	/** IS_DEAD b o */
+	static final int IS_DEAD = 65;
+	/** IS_TERRAIN b o */
+	static final int IS_TERRAIN = 66;
+	/** IS_PASSABLE b o */
+	static final int IS_PASSABLE = 67;
+	/** IS_TERRAIN_OF_TYPE b o constant */
+	static final int IS_TERRAIN_OF_TYPE = 68;
+	/** IS_CLASS b o constant */
+	static final int IS_CLASS = 69;
+	/** IS_DUCKING b o */
+	static final int IS_DUCKING = 70;
+	/** IS_JUMPING b o */
+	static final int IS_JUMPING = 71;
+	
+	/** EVAL_D d constant: evaluate the expression in the constant pool. */
+	static final int EVAL_D = 80;
+	/** EVAL_B b constant */
+	static final int EVAL_B = 81;
+	/** EVAL_O o constant */
+	static final int EVAL_O = 82;
+	
+	/** PRINT_D d */
+	static final int PRINT_D = 90;
+	/** PRINT_B b */
+	static final int PRINT_B = 91;
+	/** PRINT_O o */
+	static final int PRINT_O = 92;
+	/** START_MOVE o */
+	static final int START_MOVE = 93;
+	/** END_MOVE o */
+	static final int END_MOVE = 94;
+	/** EXECUTE constant: execute the single statement in the constant pool. */
+	static final int EXECUTE = 95;
+	
+	/** WAIT_INIT wait d */
+	static final int WAIT_INIT = 100;
+	/** WAIT wait constant: yield the wait statement, until it is over. */
+	static final int WAIT = 101;
+	
+	/** FOREACH_INIT loop constant */
+	static final int FOREACH_INIT = 110;
+	/** FOREACH_NEXT loop slot target: jump to target if there are no objects left. */
+	static final int FOREACH_NEXT = 111;
+	/** FOREACH_HAS_MORE loop target: jump to target if the current object is the last one. */
+	static final int FOREACH_HAS_MORE = 112;
+	/** FOREACH_DONE loop */
+	static final int FOREACH_DONE = 113;
+	/** CLEAR slot: set the variable in the slot to null. */
+	static final int CLEAR = 114;
+
+}
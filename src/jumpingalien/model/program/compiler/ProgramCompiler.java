@@ -0,0 +1,505 @@
+package jumpingalien.model.program.compiler;
+
+import static jumpingalien.model.program.compiler.Opcodes.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import jumpingalien.model.program.expressions.Constant;
+import jumpingalien.model.program.expressions.Expression;
+import jumpingalien.model.program.expressions.ReadVariable;
+import jumpingalien.model.program.expressions.Self;
+import jumpingalien.model.program.expressions.binaryexpression.*;
+import jumpingalien.model.program.expressions.unaryexpression.*;
+import jumpingalien.model.program.programs.Program;
+import jumpingalien.model.program.statements.*;
+import jumpingalien.model.program.types.Type;
+
+/**
+ * Compiles the main statement of a program to a flat array of instructions
+ * for the {@link Interpreter}.
+ *
+ * Every statement that costs time when the program is executed ends with a
+ * YIELD instruction, at the same points where the iterators of the statements
+ * return a statement. Steps in which those iterators return null cost no time
+ * and are compiled to plain jumps. Expressions are evaluated into unboxed
+ * double and boolean registers wherever their type is known.
+ */
+public class ProgramCompiler {
+
+	private static final int DOUBLE = 0;
+	private static final int BOOLEAN = 1;
+	private static final int OBJECT = 2;
+
+	/**
+	 * Compile the main statement of the given program.
+	 */
+	public static CompiledProgram compile(Program program){
+		ProgramCompiler compiler = new ProgramCompiler(program);
+		compiler.compileStatement(program.getMainStatement());
+		compiler.emit(END);
+		return compiler.toCompiledProgram();
+	}
+
+	private ProgramCompiler(Program program){
+		this.program = program;
+	}
+
+	private final Program program;
+
+	private CompiledProgram toCompiledProgram(){
+		double[] doubles = new double[doubleConstants.size()];
+		for(int index = 0; index < doubles.length; index++)
+			doubles[index] = doubleConstants.get(index);
+		return new CompiledProgram(Arrays.copyOf(code, size), doubles,
+				constants.toArray(), slotNames(),
+				nbRegisters[DOUBLE], nbRegisters[BOOLEAN], nbRegisters[OBJECT],
+				nbWaits, nbLoops);
+	}
+
+	private String[] slotNames(){
+		String[] names = new String[program.getNbVariables()];
+		for(int slot = 0; slot < names.length; slot++)
+			names[slot] = program.getVariableName(slot);
+		return names;
+	}
+
+	private void compileStatement(Statement statement){
+		if(statement instanceof SequenceStatement){
+			for(Statement subStatement: ((SequenceStatement) statement).getSubStatements())
+				compileStatement(subStatement);
+		}
+		else if(statement instanceof IfStatement)
+			compileIf((IfStatement) statement);
+		else if(statement instanceof While)
+			compileWhile((While) statement);
+		else if(statement instanceof Foreach)
+			compileForeach((Foreach) statement);
+		else if(statement instanceof Wait)
+			compileWait((Wait) statement);
+		else if(statement instanceof Break)
+			compileBreak();
+		else if(statement instanceof Assignment)
+			compileAssignment((Assignment) statement);
+		else if(statement instanceof Print)
+			compilePrint((Print) statement);
+		else if(statement instanceof StartMovement){
+			int direction = newRegister(OBJECT);
+			compileExpression(((StartMovement) statement).getDirection(), OBJECT, direction);
+			emit(START_MOVE, direction);
+			emit(YIELD, constant(statement));
+		}
+		else if(statement instanceof EndMovement){
+			int direction = newRegister(OBJECT);
+			compileExpression(((EndMovement) statement).getDirection(), OBJECT, direction);
+			emit(END_MOVE, direction);
+			emit(YIELD, constant(statement));
+		}
+		else if(statement instanceof Skip)
+			emit(YIELD, constant(statement));
+		else if(statement instanceof SingleStatement){
+			emit(EXECUTE, constant(statement));
+			emit(YIELD, constant(statement));
+		}
+		else
+			throw new IllegalArgumentException("Cannot compile " + statement);
+	}
+
+	private void compileIf(IfStatement statement){
+		int condition = newRegister(BOOLEAN);
+		compileExpression(statement.getCondition(), BOOLEAN, condition);
+		emit(YIELD, constant(statement));
+		int toElse = emitJump(JUMP_IF_FALSE, condition);
+		compileStatement(statement.getIfBody());
+		if(statement.getElseBody() != null){
+			int toEnd = emitJump(JUMP);
+			patch(toElse);
+			compileStatement(statement.getElseBody());
+			patch(toEnd);
+		}
+		else
+			patch(toElse);
+	}
+
+	private void compileWhile(While statement){
+		int start = size;
+		int condition = newRegister(BOOLEAN);
+		compileExpression(statement.getCondition(), BOOLEAN, condition);
+		emit(YIELD, constant(statement));
+		int toEnd = emitJump(JUMP_IF_FALSE, condition);
+		breaks.push(new ArrayList<Integer>());
+		compileStatement(statement.getBody());
+		emitRestart(statement.getBody());
+		emit(JUMP, start);
+		patch(toEnd);
+		for(int jump: breaks.pop())
+			patch(jump);
+	}
+
+	/**
+	 * The objects of a foreach are selected when the foreach is executed. Its
+	 * variable keeps referring to the last object after the last execution of
+	 * the body and is set to null when the loop is left by a break.
+	 */
+	private void compileForeach(Foreach statement){
+		int loop = nbLoops++;
+		int slot = slot(statement.getVariableName());
+		emit(FOREACH_INIT, loop, constant(statement));
+		emit(YIELD, constant(statement));
+		List<Integer> toDone = new ArrayList<Integer>();
+		toDone.add(emitJump(FOREACH_NEXT, loop, slot));
+		int body = size;
+		breaks.push(new ArrayList<Integer>());
+		compileStatement(statement.getBody());
+		toDone.add(emitJump(FOREACH_HAS_MORE, loop));
+		emitRestart(statement.getBody());
+		toDone.add(emitJump(FOREACH_NEXT, loop, slot));
+		emit(JUMP, body);
+		for(int jump: breaks.pop())
+			patch(jump);
+		emit(CLEAR, slot);
+		for(int jump: toDone)
+			patch(jump);
+		emit(FOREACH_DONE, loop);
+	}
+
+	/**
+	 * Emit the instructions that restart the given body of a loop before it
+	 * is executed again. Restarting a foreach sets its variable to null.
+	 */
+	private void emitRestart(Statement body){
+		for(String name: getForeachVariables(body, new LinkedHashSet<String>()))
+			emit(CLEAR, slot(name));
+	}
+
+	private static Set<String> getForeachVariables(Statement statement,
+			Set<String> variables){
+		if(statement instanceof ComposedStatement){
+			for(Statement subStatement: ((ComposedStatement) statement).getSubStatements())
+				getForeachVariables(subStatement, variables);
+		}
+		else if(statement instanceof While)
+			getForeachVariables(((While) statement).getBody(), variables);
+		else if(statement instanceof Foreach){
+			variables.add(((Foreach) statement).getVariableName());
+			getForeachVariables(((Foreach) statement).getBody(), variables);
+		}
+		return variables;
+	}
+
+	private void compileWait(Wait statement){
+		int wait = nbWaits++;
+		int duration = newRegister(DOUBLE);
+		compileExpression(statement.getDuration(), DOUBLE, duration);
+		emit(WAIT_INIT, wait, duration);
+		emit(WAIT, wait, constant(statement));
+	}
+
+	/**
+	 * A break leaves the innermost loop without costing time. A break outside
+	 * of any loop ends the current execution of the main statement.
+	 */
+	private void compileBreak(){
+		if(breaks.isEmpty())
+			emit(END);
+		else
+			breaks.peek().add(emitJump(JUMP));
+	}
+
+	private void compileAssignment(Assignment statement){
+		int kind = kindOf(statement.getType());
+		int value = newRegister(kind);
+		compileExpression(statement.getValue(), kind, value);
+		int slot = slot(statement.getName());
+		if(kind == DOUBLE)
+			emit(D_STORE, slot, value);
+		else if(kind == BOOLEAN)
+			emit(B_STORE, slot, value);
+		else
+			emit(O_STORE, slot, value);
+		emit(YIELD, constant(statement));
+	}
+
+	private void compilePrint(Print statement){
+		int kind = kindOf(statement.getValue());
+		int value = newRegister(kind);
+		compileExpression(statement.getValue(), kind, value);
+		emit(kind == DOUBLE ? PRINT_D : (kind == BOOLEAN ? PRINT_B : PRINT_O), value);
+		emit(YIELD, constant(statement));
+	}
+
+	/**
+	 * Compile the given expression so that its value ends up in the given
+	 * register of the given kind, converting between kinds when needed.
+	 */
+	private void compileExpression(Expression expression, int kind, int target){
+		int naturalKind = kindOf(expression);
+		if(naturalKind == kind){
+			compileNatural(expression, target);
+			return;
+		}
+		int value = newRegister(naturalKind);
+		compileNatural(expression, value);
+		int boxed = value;
+		if(naturalKind != OBJECT){
+			boxed = (kind == OBJECT) ? target : newRegister(OBJECT);
+			emit(naturalKind == DOUBLE ? BOX_D : BOX_B, boxed, value);
+		}
+		if(kind == DOUBLE)
+			emit(UNBOX_D, target, boxed);
+		else if(kind == BOOLEAN)
+			emit(UNBOX_B, target, boxed);
+	}
+
+	private void compileNatural(Expression expression, int target){
+		if(expression instanceof Constant<?>){
+			Object value = ((Constant<?>) expression).getValue();
+			if(value instanceof Double)
+				emit(D_CONST, target, doubleConstant((Double) value));
+			else if(value instanceof Boolean)
+				emit(B_CONST, target, ((Boolean) value) ? 1 : 0);
+			else
+				emit(O_CONST, target, constant(value));
+		}
+		else if(expression instanceof ReadVariable){
+			ReadVariable read = (ReadVariable) expression;
+			int kind = kindOf(read.getType());
+			emit(kind == DOUBLE ? D_LOAD : (kind == BOOLEAN ? B_LOAD : O_LOAD),
+					target, slot(read.getName()));
+		}
+		else if(expression instanceof Self)
+			emit(SELF, target);
+		else if(expression instanceof Addition)
+			compileBinary(D_ADD, (BinaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof Subtraction)
+			compileBinary(D_SUB, (BinaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof Multiplication)
+			compileBinary(D_MUL, (BinaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof Division)
+			compileBinary(D_DIV, (BinaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof LessThan)
+			compileBinary(D_LT, (BinaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof LessThanOrEqualTo)
+			compileBinary(D_LE, (BinaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof GreaterThan)
+			compileBinary(D_GT, (BinaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof GreaterThanOrEqualTo)
+			compileBinary(D_GE, (BinaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof Equals)
+			compileEquals((BinaryOperator) expression, target);
+		else if(expression instanceof NotEquals){
+			compileEquals((BinaryOperator) expression, target);
+			emit(B_NOT, target, target);
+		}
+		else if(expression instanceof ConditionalAnd)
+			compileConditional(JUMP_IF_FALSE, (BinaryOperator) expression, target);
+		else if(expression instanceof ConditionalOr)
+			compileConditional(JUMP_IF_TRUE, (BinaryOperator) expression, target);
+		else if(expression instanceof NotBoolean)
+			compileUnary(B_NOT, (UnaryOperator) expression, BOOLEAN, target);
+		else if(expression instanceof SquareRoot)
+			compileUnary(D_SQRT, (UnaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof RandomDouble)
+			compileUnary(D_RANDOM, (UnaryOperator) expression, DOUBLE, target);
+		else if(expression instanceof GetX)
+			compileUnary(GET_X, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof GetY)
+			compileUnary(GET_Y, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof GetWidth)
+			compileUnary(GET_WIDTH, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof GetHeight)
+			compileUnary(GET_HEIGHT, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof GetHp)
+			compileUnary(GET_HP, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof IsDead)
+			compileUnary(IS_DEAD, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof IsTerrain)
+			compileUnary(IS_TERRAIN, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof IsPassable)
+			compileUnary(IS_PASSABLE, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof IsDucking)
+			compileUnary(IS_DUCKING, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof IsJumping)
+			compileUnary(IS_JUMPING, (UnaryOperator) expression, OBJECT, target);
+		else if(expression instanceof IsTerrainOfType){
+			IsTerrainOfType isTerrainOfType = (IsTerrainOfType) expression;
+			int operand = newRegister(OBJECT);
+			compileExpression(isTerrainOfType.getOperand(), OBJECT, operand);
+			emit(IS_TERRAIN_OF_TYPE, target, operand, constant(isTerrainOfType.getType()));
+		}
+		else if(expression instanceof IsGameObject<?>){
+			IsGameObject<?> isGameObject = (IsGameObject<?>) expression;
+			int operand = newRegister(OBJECT);
+			compileExpression(isGameObject.getOperand(), OBJECT, operand);
+			emit(IS_CLASS, target, operand, constant(isGameObject.getType()));
+		}
+		else{
+			int kind = kindOf(expression);
+			emit(kind == DOUBLE ? EVAL_D : (kind == BOOLEAN ? EVAL_B : EVAL_O),
+					target, constant(expression));
+		}
+	}
+
+	private void compileBinary(int opcode, BinaryOperator expression,
+			int operandKind, int target){
+		int left = newRegister(operandKind);
+		int right = newRegister(operandKind);
+		compileExpression(expression.getLeftOperand(), operandKind, left);
+		compileExpression(expression.getRightOperand(), operandKind, right);
+		emit(opcode, target, left, right);
+	}
+
+	private void compileUnary(int opcode, UnaryOperator expression,
+			int operandKind, int target){
+		int operand = newRegister(operandKind);
+		compileExpression(expression.getOperand(), operandKind, operand);
+		emit(opcode, target, operand);
+	}
+
+	/**
+	 * Doubles are compared by value and booleans by their truth value, other
+	 * values are compared by identity.
+	 */
+	private void compileEquals(BinaryOperator expression, int target){
+		int leftKind = kindOf(expression.getLeftOperand());
+		int rightKind = kindOf(expression.getRightOperand());
+		if(leftKind == DOUBLE && rightKind == DOUBLE)
+			compileBinary(D_EQ, expression, DOUBLE, target);
+		else if(leftKind == BOOLEAN && rightKind == BOOLEAN)
+			compileBinary(B_EQ, expression, BOOLEAN, target);
+		else
+			compileBinary(O_EQ, expression, OBJECT, target);
+	}
+
+	/**
+	 * The right operand of a conditional and or or is only evaluated if the
+	 * left operand does not decide the outcome.
+	 */
+	private void compileConditional(int shortCircuit, BinaryOperator expression,
+			int target){
+		compileExpression(expression.getLeftOperand(), BOOLEAN, target);
+		int toEnd = emitJump(shortCircuit, target);
+		compileExpression(expression.getRightOperand(), BOOLEAN, target);
+		patch(toEnd);
+	}
+
+	private static int kindOf(Type type){
+		if(type instanceof jumpingalien.model.program.types.Double)
+			return DOUBLE;
+		else if(type instanceof jumpingalien.model.program.types.Boolean)
+			return BOOLEAN;
+		else
+			return OBJECT;
+	}
+
+	private static int kindOf(Expression expression){
+		if(expression instanceof Constant<?>){
+			Object value = ((Constant<?>) expression).getValue();
+			if(value instanceof Double)
+				return DOUBLE;
+			else if(value instanceof Boolean)
+				return BOOLEAN;
+			return OBJECT;
+		}
+		else if(expression instanceof ReadVariable)
+			return kindOf(((ReadVariable) expression).getType());
+		else if(expression instanceof Addition || expression instanceof Subtraction ||
+				expression instanceof Multiplication || expression instanceof Division ||
+				expression instanceof SquareRoot || expression instanceof RandomDouble ||
+				expression instanceof GetX || expression instanceof GetY ||
+				expression instanceof GetWidth || expression instanceof GetHeight ||
+				expression instanceof GetHp)
+			return DOUBLE;
+		else if(expression instanceof LessThan || expression instanceof LessThanOrEqualTo ||
+				expression instanceof GreaterThan || expression instanceof GreaterThanOrEqualTo ||
+				expression instanceof Equals || expression instanceof NotEquals ||
+				expression instanceof ConditionalAnd || expression instanceof ConditionalOr ||
+				expression instanceof NotBoolean || expression instanceof IsDead ||
+				expression instanceof IsTerrain || expression instanceof IsPassable ||
+				expression instanceof IsTerrainOfType || expression instanceof IsGameObject<?> ||
+				expression instanceof IsDucking || expression instanceof IsJumping ||
+				expression instanceof IsMoving)
+			return BOOLEAN;
+		else
+			return OBJECT;
+	}
+
+	private int newRegister(int kind){
+		return nbRegisters[kind]++;
+	}
+
+	private final int[] nbRegisters = new int[3];
+
+	private int slot(String name){
+		int slot = program.getSlot(name);
+		if(slot < 0)
+			throw new IllegalArgumentException("Undeclared variable " + name + ".");
+		return slot;
+	}
+
+	private int constant(Object value){
+		for(int index = 0; index < constants.size(); index++){
+			if(constants.get(index) == value)
+				return index;
+		}
+		constants.add(value);
+		return constants.size() - 1;
+	}
+
+	private final List<Object> constants = new ArrayList<Object>();
+
+	private int doubleConstant(double value){
+		int index = doubleConstants.indexOf(value);
+		if(index < 0){
+			doubleConstants.add(value);
+			index = doubleConstants.size() - 1;
+		}
+		return index;
+	}
+
+	private final List<Double> doubleConstants = new ArrayList<Double>();
+
+	private int nbWaits = 0;
+
+	private int nbLoops = 0;
+
+	/**
+	 * The jumps of break statements to patch, for each enclosing loop.
+	 */
+	private final Deque<List<Integer>> breaks = new ArrayDeque<List<Integer>>();
+
+	private void emit(int... units){
+		if(size + units.length > code.length)
+			code = Arrays.copyOf(code, Math.max(2 * code.length, size + units.length));
+		System.arraycopy(units, 0, code, size, units.length);
+		size += units.length;
+	}
+
+	/**
+	 * Emit a jump instruction whose target is patched later on, and return
+	 * the position of its target in the code.
+	 */
+	private int emitJump(int opcode, int... operands){
+		emit(opcode);
+		emit(operands);
+		emit(-1);
+		return size - 1;
+	}
+
+	/**
+	 * Let the jump with its target at the given position jump to the end of
+	 * the code emitted so far.
+	 */
+	private void patch(int position){
+		code[position] = size;
+	}
+
+	private int[] code = new int[64];
+
+	private int size = 0;
+}
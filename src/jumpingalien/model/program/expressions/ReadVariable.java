@@ -1,5 +1,6 @@
 package jumpingalien.model.program.expressions;
 
+import jumpingalien.model.program.programs.Program;
 import jumpingalien.model.program.types.Type;
 import jumpingalien.part3.programs.SourceLocation;
 
@@ -23,10 +24,26 @@ public class ReadVariable extends Expression {
 
 	private final Type type;
 		
+	/**
+	 * Return the slot of the variable read by this expression in its program,
+	 * or -1 if it has no program.
+	 */
+	public int getSlot() {
+		return slot;
+	}
+	
+	private int slot = -1;
+	
+	@Override
+	public void setProgram(Program program) {
+		super.setProgram(program);
+		this.slot = (program == null)? -1 : program.getSlot(getName());
+	}
+	
 	@Override
 	public Object outcome() {
-		if(getProgram() != null)
-			return getProgram().getGlobalVariables().get(getName()).outcome();
+		if(getSlot() >= 0)
+			return getProgram().getValue(getSlot());
 		throw new IllegalStateException("No program assigned to this read variable.");
 	}
 	
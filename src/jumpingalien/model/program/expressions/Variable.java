@@ -1,15 +1,27 @@
 package jumpingalien.model.program.expressions;
 
+import jumpingalien.model.program.programs.Program;
 import jumpingalien.model.program.types.Type;
 import jumpingalien.part3.programs.SourceLocation;
 
 public class Variable extends Expression {
 	
 	public Variable(SourceLocation sourceLocation, String name, Type type){
+		this(sourceLocation, name, type, null, -1);
+	}
+	
+	/**
+	 * Initialize this variable as the global variable of the given program
+	 * whose value is stored in the given slot of that program.
+	 */
+	public Variable(SourceLocation sourceLocation, String name, Type type,
+			Program program, int slot){
 		super(sourceLocation);
 		this.name = name;
 		this.type = type;
 		this.value = type.getValue();
+		this.slot = slot;
+		setProgram(program);
 	}
 	
 	public String getName() {
@@ -29,12 +41,23 @@ public class Variable extends Expression {
 		return getValue();
 	}
 	
+	public int getSlot() {
+		return slot;
+	}
+	
+	private final int slot;
+	
 	public Object getValue() {
+		if(getSlot() >= 0)
+			return getProgram().getValue(getSlot());
 		return value;
 	}
 
 	public void setValue(Object value) {
-		this.value = value;
+		if(getSlot() >= 0)
+			getProgram().setValue(getSlot(), value);
+		else
+			this.value = value;
 	}
 
 	private Object value = null;
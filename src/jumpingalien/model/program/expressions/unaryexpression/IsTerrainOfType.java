@@ -25,7 +25,10 @@ public class IsTerrainOfType extends UnaryOperator {
 
 	@Override
 	public Boolean outcome() {
-		return ((Tile)getOperand().outcome()).getGeoFeature() == getType();
+		Object operand = getOperand().outcome();
+		if (operand instanceof GameObject)
+			return (((GameObject) operand).getTerrainMask() & getType().getMask()) != 0;
+		return ((Tile) operand).getGeoFeature() == getType();
 	}
 
 }
@@ -1,6 +1,7 @@
 package jumpingalien.model.program.expressions.unaryexpression;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 import jumpingalien.model.program.expressions.Constant;
 import jumpingalien.model.program.expressions.Expression;
@@ -20,7 +21,9 @@ public class RandomDouble extends UnaryOperator {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Double outcome() {
-		Random rn = new Random();
+		if(getProgram() == null || getProgram().getGameObject() == null)
+			return ThreadLocalRandom.current().nextDouble()*((Constant<Double>) getOperand()).outcome();
+		SplittableRandom rn = getProgram().getGameObject().getRandom();
 		return rn.nextDouble()*((Constant<Double>) getOperand()).outcome();
 	}
 
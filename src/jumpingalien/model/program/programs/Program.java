@@ -1,9 +1,15 @@
 package jumpingalien.model.program.programs;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import jumpingalien.model.game.GameObject;
+import jumpingalien.model.program.compiler.CompiledProgram;
+import jumpingalien.model.program.compiler.Interpreter;
+import jumpingalien.model.program.compiler.ProgramCompiler;
 import jumpingalien.model.program.expressions.Variable;
 import jumpingalien.model.program.statements.*;
 import jumpingalien.model.program.types.Type;
@@ -29,29 +35,78 @@ public class Program {
 	}
 	
 	private void initialiseGlobalVariables(Map<String,Type> declaredVariables){		
+		int nbVariables = (declaredVariables == null)? 0 : declaredVariables.size();
+		variableNames = new String[nbVariables];
+		initialValues = new Object[nbVariables];
 		if(declaredVariables != null){	
 			SourceLocation loc = new SourceLocation(0, 0);
+			int slot = 0;
 			for (String name: declaredVariables.keySet()){
-				globalVariables.put(name, new Variable(loc,name,
-												declaredVariables.get(name)));
+				Type type = declaredVariables.get(name);
+				variableNames[slot] = name;
+				initialValues[slot] = type.getValue();
+				slots.put(name, slot);
+				globalVariables.put(name, new Variable(loc,name,type,this,slot));
+				slot++;
 			}
 		}
+		values = Arrays.copyOf(initialValues, nbVariables);
 	}
 	
+	/**
+	 * Reset all global variables to the default value of their type.
+	 */
 	private void resetVariables(){
-		Type currType;
-		SourceLocation loc = new SourceLocation(0, 0);
-		for(String name: globalVariables.keySet()){
-			currType = globalVariables.get(name).getType();
-			globalVariables.put(name, new Variable(loc, name, currType));
-		}
+		System.arraycopy(initialValues, 0, values, 0, values.length);
+	}
+	
+	/**
+	 * Return the slot of the global variable with the given name,
+	 * or -1 if this program has no such variable.
+	 */
+	public int getSlot(String name){
+		Integer slot = slots.get(name);
+		return (slot == null)? -1 : slot;
+	}
+	
+	private final Map<String, Integer> slots = new HashMap<String, Integer>();
+	
+	public int getNbVariables(){
+		return values.length;
 	}
 	
+	public String getVariableName(int slot){
+		return variableNames[slot];
+	}
+	
+	private String[] variableNames;
+	
+	/**
+	 * Return the current value of the global variable in the given slot.
+	 */
+	public Object getValue(int slot){
+		return values[slot];
+	}
+	
+	public void setValue(int slot, Object value){
+		values[slot] = value;
+	}
+	
+	private Object[] values;
+	
+	private Object[] initialValues;
+	
+	/**
+	 * Return the global variables of this program by name, in a map that
+	 * cannot be modified. The values of these variables are stored in the
+	 * slots of this program: they are set through Variable.setValue, not by
+	 * putting other variables in this map.
+	 */
 	public Map<String, Variable> getGlobalVariables() {
-		return globalVariables;
+		return Collections.unmodifiableMap(globalVariables);
 	}
 
-	private final Map<String, Variable> globalVariables = new HashMap<String,Variable>();
+	private final Map<String, Variable> globalVariables = new LinkedHashMap<String,Variable>();
 
 	public GameObject getGameObject() {
 		return gameObject;
@@ -66,14 +121,33 @@ public class Program {
 
 	private GameObject gameObject = null;
 	
+	public CompiledProgram getCompiledProgram() {
+		if(compiledProgram == null){
+			compiledProgram = ProgramCompiler.compile(this);
+		}
+		return compiledProgram;
+	}
+	
+	private CompiledProgram compiledProgram = null;
+	
+	/**
+	 * Return the iterator that executes the main statement of this program.
+	 * The main statement is compiled the first time this method is invoked,
+	 * the statements returned by the iterator are the same as those of the
+	 * iterator of the main statement.
+	 */
 	public StatementIterator<Statement> getProgramIterator() {
-		if(programIterator == null){
-			programIterator = getMainStatement().iterator();
+		return getInterpreter();
+	}
+	
+	private Interpreter getInterpreter() {
+		if(interpreter == null){
+			interpreter = new Interpreter(getCompiledProgram(), this);
 		}
-		return programIterator;
+		return interpreter;
 	}
 
-	private StatementIterator<Statement> programIterator = null;	
+	private Interpreter interpreter = null;	
 	
 	
 	public boolean isWellFormed(Statement statement, boolean inWhile){
@@ -100,23 +174,42 @@ public class Program {
 		return isWellFormed(getMainStatement(), false);
 	}
 	
+	/**
+	 * Execute this program for the given time duration. Every statement
+	 * takes 0.001 seconds.
+	 * While the program is suspended in a wait statement, all steps of
+	 * the wait that fit in the remaining time are taken at once.
+	 * 
+	 * @note	Skipping the steps of a wait is still linear in the number of
+	 * 			steps: the remaining time is decreased by 0.001 seconds once 
+	 * 			per step, as for any other statement. Dividing the remaining 
+	 * 			time by 0.001 seconds instead does not round the same way, 
+	 * 			and would let a program take one step more or less than it 
+	 * 			does now for about half of all time durations.
+	 */
 	public void execute(double timeDuration){
 		double td = timeDuration;
+		Interpreter interpreter = getInterpreter();
 		while(td > 0){
 			if(getGameObject().getWorld().isGameOver())
 				break;
-			if(getProgramIterator().hasNext()){
-				Statement nextStatement = getProgramIterator().next();
-				if(nextStatement != null){
+			if(interpreter.hasNext()){
+				int waitSteps = interpreter.getRemainingWaitSteps();
+				if(waitSteps > 0){
+					int nbSteps = 0;
+					while(td > 0 && nbSteps < waitSteps){
+						td -= 0.001;
+						nbSteps++;
+					}
+					interpreter.skipWaitSteps(nbSteps);
+				}
+				else if(interpreter.next() != null){
 					td -= 0.001;
-					//System.out.println(nextStatement.getSourceLocation());
-					//nextStatement.execute();
 				}
 			}
 			else{
-				//System.out.println("End Of Program");
 				resetVariables();
-				getProgramIterator().restart();
+				interpreter.restart();
 			}
 		}
 	}
@@ -42,11 +42,18 @@ public class Assignment extends SingleStatement {
 		assert (program != null && program.hasAsStatement(this));
 		super.setProgram(program);
 		getValue().setProgram(program);
+		this.slot = program.getSlot(getName());
 	}
 	
+	public int getSlot() {
+		return slot;
+	}
+	
+	private int slot = -1;
+	
 	public void executeSingleStatement(){
 		if(getProgram() != null){
-			getProgram().getGlobalVariables().get(getName()).setValue(getValue().outcome());
+			getProgram().setValue(getSlot(), getValue().outcome());
 		}
 	}
 	
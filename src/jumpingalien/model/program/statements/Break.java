@@ -1,6 +1,5 @@
 package jumpingalien.model.program.statements;
 
-import jumpingalien.model.exceptions.BreakException;
 import jumpingalien.part3.programs.SourceLocation;
 
 public class Break extends SingleStatement {
@@ -9,9 +8,12 @@ public class Break extends SingleStatement {
 		super(sourceLocation);
 	}
 	
+	/**
+	 * A break has no effect of its own. The innermost loop around it ends 
+	 * as soon as its body yields this break.
+	 */
 	@Override
-	public void executeSingleStatement() throws BreakException {
-		throw new BreakException();
+	public void executeSingleStatement() {
 	}
 	
 }
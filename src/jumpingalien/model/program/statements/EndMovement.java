@@ -29,25 +29,28 @@ public class EndMovement extends SingleStatement {
 	@Override
 	public void executeSingleStatement() {
 		if(getProgram() != null){
-			GameObject self = getProgram().getGameObject();
-			jumpingalien.model.game.Direction dir =
-					jumpingalien.model.game.Direction.convertDirection(getDirection());
-			if(self != null){
-				if(dir == jumpingalien.model.game.Direction.LEFT)
-					self.endMovement(dir);
-				else if(dir == jumpingalien.model.game.Direction.RIGHT)
-					self.endMovement(dir);
-				else if(dir == jumpingalien.model.game.Direction.UP &&
-						(self instanceof Shark ||
-						 self instanceof Alien))
-					((JumpInterface) self).endJump();
-				else if(dir == jumpingalien.model.game.Direction.DOWN &&
-						(self instanceof Alien))
-					((Alien) self).endDuck();
-			}
+			endMovement(getProgram().getGameObject(),
+					jumpingalien.model.game.Direction.convertDirection(getDirection()));
 		}	
 	}
 	
+	public static void endMovement(GameObject self,
+			jumpingalien.model.game.Direction dir){
+		if(self != null){
+			if(dir == jumpingalien.model.game.Direction.LEFT)
+				self.endMovement(dir);
+			else if(dir == jumpingalien.model.game.Direction.RIGHT)
+				self.endMovement(dir);
+			else if(dir == jumpingalien.model.game.Direction.UP &&
+					(self instanceof Shark ||
+					 self instanceof Alien))
+				((JumpInterface) self).endJump();
+			else if(dir == jumpingalien.model.game.Direction.DOWN &&
+					(self instanceof Alien))
+				((Alien) self).endDuck();
+		}
+	}
+	
 	@Override
 	public String toString() {
 		return "Statement: End movement in direction " + getDirection() + 
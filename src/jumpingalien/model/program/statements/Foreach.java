@@ -6,8 +6,6 @@ import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import jumpingalien.model.exceptions.BreakException;
-import jumpingalien.model.exceptions.NullVariableException;
 import jumpingalien.model.game.World;
 import jumpingalien.model.program.expressions.Expression;
 import jumpingalien.model.program.programs.Program;
@@ -45,6 +43,12 @@ public class Foreach extends SingleStatement {
 	
 	private final Kind variableKind;
 	
+	public int getSlot() {
+		return slot;
+	}
+	
+	private int slot = -1;
+	
 	private void assign(ObjectOfWorld theObject) {
 		assert (getProgram() != null);
 		/**Assignment assignment = 
@@ -54,7 +58,7 @@ public class Foreach extends SingleStatement {
 								getSourceLocation());
 		assignment.setProgram(getProgram());
 		assignment.executeSingleStatement();*/
-		getProgram().getGlobalVariables().get(getVariableName()).setValue(theObject);
+		getProgram().setValue(getSlot(), theObject);
 	}
 
 	public Expression getRestriction() {
@@ -112,6 +116,7 @@ public class Foreach extends SingleStatement {
 		assert (program != null && program.hasAsStatement(this));
 		assert (program.hasAsStatement(getBody()));
 		super.setProgram(program);
+		this.slot = program.getSlot(getVariableName());
 		getBody().setProgram(program);
 		if(getRestriction() != null)
 			getRestriction().setProgram(program);
@@ -128,6 +133,10 @@ public class Foreach extends SingleStatement {
 	}
 
 	private void setVariables() {
+		this.variables = selectObjects();
+	}
+	
+	public List<ObjectOfWorld> selectObjects() {
 		assert(getProgram() != null);
 		assert(getProgram().getGameObject() != null);
 		assert(getProgram().getGameObject().getWorld() != null);
@@ -145,7 +154,7 @@ public class Foreach extends SingleStatement {
 							Double.compare(getSortValue(o2), getSortValue(o1)));
 		}
 
-		this.variables = sortedStream.collect(Collectors.toList());
+		return sortedStream.collect(Collectors.toList());
 	}
 
 	private HashSet<ObjectOfWorld> convertKind() {
@@ -197,7 +206,7 @@ public class Foreach extends SingleStatement {
 			}
 			
 			@Override
-			public Statement next() throws NoSuchElementException, BreakException{
+			public Statement next() throws NoSuchElementException{
 				if(!hasNext())
 					throw new NoSuchElementException();
 				if(!subIteratorsInitialized)
@@ -208,42 +217,41 @@ public class Foreach extends SingleStatement {
 					return Foreach.this;
 				}
 				else if(getIndex() == 1){
-					try {
-						if(!bodyStarted){
-							if(getVariableAt(getVariableIndex()) == null)
-								throw new NullVariableException();
-							assign(getVariableAt(getVariableIndex()));
-							bodyStarted = true;
-						}
-						if(bodyIterator.hasNext()){
-							if(getVariableAt(getVariableIndex()) == null)
-								throw new NullVariableException();
-							return bodyIterator.next();
-						}
-						else if(getVariableIndex() < (getVariables().size()-1)){
-							bodyIterator.restart();
-							bodyStarted = false;
-							incrementVariableIndex();
-							return this.next();
-						}
-						else{
-							setIndex(2);
-							assign(null);
-						}
-					} catch (BreakException | IndexOutOfBoundsException e) {
+					if(getVariableIndex() >= getVariables().size()){
 						breakLoop();
 						return null;
 					}
-					catch(NullVariableException e){
-						bodyIterator.restart();
-						bodyStarted = false;
-						incrementVariableIndex();
-						return this.next();
+					if(getVariableAt(getVariableIndex()) == null)
+						return skipVariable();
+					if(!bodyStarted){
+						assign(getVariableAt(getVariableIndex()));
+						bodyStarted = true;
+					}
+					if(bodyIterator.hasNext()){
+						Statement next = bodyIterator.next();
+						if(next instanceof Break){
+							breakLoop();
+							return null;
+						}
+						return next;
+					}
+					else if(getVariableIndex() < (getVariables().size()-1))
+						return skipVariable();
+					else{
+						setIndex(2);
+						assign(null);
 					}
 				}
 				return null;
 			}
 			
+			private Statement skipVariable(){
+				bodyIterator.restart();
+				bodyStarted = false;
+				incrementVariableIndex();
+				return this.next();
+			}
+			
 			@Override
 			public void restart() {
 				setIndex(0);
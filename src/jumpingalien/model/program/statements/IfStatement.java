@@ -25,12 +25,9 @@ public class IfStatement extends ComposedStatement {
 	}
 	
 	public Statement getElseBody(){
-		try{
-			return getSubStatementAt(1);
-		}
-		catch(Exception e){
+		if(getNbOfSubStatements() < 2)
 			return null;
-		}
+		return getSubStatementAt(1);
 	}
 		
 	@Override
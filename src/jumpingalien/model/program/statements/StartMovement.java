@@ -31,23 +31,26 @@ public class StartMovement extends SingleStatement {
 	@Override
 	public void executeSingleStatement() {
 		if(getProgram() != null){
-			GameObject self = getProgram().getGameObject();
-			jumpingalien.model.game.Direction dir =
-					jumpingalien.model.game.Direction.convertDirection(getDirection());
-			if(dir  == jumpingalien.model.game.Direction.LEFT)
-				self.startMove(dir);
-			else if(dir == jumpingalien.model.game.Direction.RIGHT)
-				self.startMove(dir);
-			else if(dir == jumpingalien.model.game.Direction.UP &&
-					(self instanceof Shark ||
-					 self instanceof Alien))
-				((JumpInterface) self).startJump();
-			else if(dir == jumpingalien.model.game.Direction.DOWN &&
-					(self instanceof Alien))
-				((Alien) self).startDuck();
+			startMovement(getProgram().getGameObject(),
+					jumpingalien.model.game.Direction.convertDirection(getDirection()));
 		}	
 	}
 	
+	public static void startMovement(GameObject self,
+			jumpingalien.model.game.Direction dir){
+		if(dir  == jumpingalien.model.game.Direction.LEFT)
+			self.startMove(dir);
+		else if(dir == jumpingalien.model.game.Direction.RIGHT)
+			self.startMove(dir);
+		else if(dir == jumpingalien.model.game.Direction.UP &&
+				(self instanceof Shark ||
+				 self instanceof Alien))
+			((JumpInterface) self).startJump();
+		else if(dir == jumpingalien.model.game.Direction.DOWN &&
+				(self instanceof Alien))
+			((Alien) self).startDuck();
+	}
+	
 	@Override
 	public String toString() {
 		return "Statement: Start movement in direction " + getDirection() + 
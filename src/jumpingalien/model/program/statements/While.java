@@ -2,7 +2,6 @@ package jumpingalien.model.program.statements;
 
 import java.util.NoSuchElementException;
 
-import jumpingalien.model.exceptions.BreakException;
 import jumpingalien.model.program.expressions.Expression;
 import jumpingalien.model.program.programs.Program;
 import jumpingalien.part3.programs.SourceLocation;
@@ -73,12 +72,12 @@ public class While extends SingleStatement {
 					return While.this;
 				}
 				else if(getIndex() == 1 && (bodyIterator.hasNext())){
-						try {
-							return bodyIterator.next();
-						} catch (BreakException e) {
-							breakLoop();
-							return null;
-						}
+					Statement next = bodyIterator.next();
+					if(next instanceof Break){
+						breakLoop();
+						return null;
+					}
+					return next;
 				}
 				else{
 					restart();
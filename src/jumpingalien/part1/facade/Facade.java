@@ -22,8 +22,7 @@ public class Facade implements IFacade {
 	@Override
 	public int[] getLocation(Mazub alien) {
 		try {
-			return intArray(alien.getPosition().getDisplayedXPosition(),
-					alien.getPosition().getDisplayedYPosition());
+			return alien.getDisplayedPosition();
 		} catch (NullPointerException e) {
 			System.out.println("Modelexception!");
 			throw new ModelException("This Mazub is terminated!");
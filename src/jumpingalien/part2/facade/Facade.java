@@ -68,9 +68,9 @@ public class Facade extends jumpingalien.part1.facade.Facade implements IFacadeP
 
 	@Override
 	public int[] getVisibleWindow(World world) {
-		return intArray(world.getWindowXPos(),world.getWindowYPos(),
-						world.getWindowXPos()+world.getVisibleWindowWidth(),
-						world.getWindowYPos()+world.getVisibleWindowHeight());
+		return intArray(world.getDisplayedWindowXPos(),world.getDisplayedWindowYPos(),
+						world.getDisplayedWindowXPos()+world.getVisibleWindowWidth(),
+						world.getDisplayedWindowYPos()+world.getVisibleWindowHeight());
 	}
 
 	@Override
@@ -129,8 +129,7 @@ public class Facade extends jumpingalien.part1.facade.Facade implements IFacadeP
 
 	@Override
 	public int[] getLocation(Plant plant) {
-		return intArray(plant.getPosition().getDisplayedXPosition(),
-				plant.getPosition().getDisplayedYPosition());
+		return plant.getDisplayedPosition();
 	}
 
 	@Override
@@ -159,8 +158,7 @@ public class Facade extends jumpingalien.part1.facade.Facade implements IFacadeP
 
 	@Override
 	public int[] getLocation(Shark shark) {
-		return intArray(shark.getPosition().getDisplayedXPosition(),
-				shark.getPosition().getDisplayedYPosition());
+		return shark.getDisplayedPosition();
 	}
 
 	@Override
@@ -195,8 +193,7 @@ public class Facade extends jumpingalien.part1.facade.Facade implements IFacadeP
 
 	@Override
 	public int[] getLocation(Slime slime) {
-		return intArray(slime.getPosition().getDisplayedXPosition(),
-				slime.getPosition().getDisplayedYPosition());
+		return slime.getDisplayedPosition();
 	}
 
 	@Override
@@ -86,7 +86,7 @@ public class Facade extends jumpingalien.part2.facade.Facade implements IFacadeP
 
 	@Override
 	public int[] getLocation(Buzam alien) {
-		return alien.getPosition().toIntArray();
+		return alien.getDisplayedPosition();
 	}
 
 	@Override
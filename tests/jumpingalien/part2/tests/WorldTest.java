@@ -3,9 +3,13 @@ package jumpingalien.part2.tests;
 import static jumpingalien.tests.util.TestUtils.intArray;
 import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
 import static org.junit.Assert.*;
+import jumpingalien.model.game.CollisionMode;
 import jumpingalien.model.game.Direction;
 import jumpingalien.model.game.Mazub;
+import jumpingalien.model.game.Plant;
 import jumpingalien.model.game.Position;
+import jumpingalien.model.game.Shark;
+import jumpingalien.model.game.SimulationTier;
 import jumpingalien.model.game.Terrain;
 import jumpingalien.model.game.World;
 import jumpingalien.util.Sprite;
@@ -23,24 +27,29 @@ public class WorldTest {
 		// X........X
 		// XM......TX
 		// XXXXXXXXXX
-		testWorld = new World(50,10,5,500,500,8,1);
-		testWorld.getTileAtTilePos(0,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(1,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(2,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(3,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(4,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(5,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(6,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(7,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(8,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(9,0).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(0,1).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(0,2).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(9,1).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(9,2).setGeoFeature(Terrain.GROUND);
-		testWorld.getTileAtTilePos(1,1).setGeoFeature(Terrain.MAGMA);
+		testWorld = createTestWorld();
 	}
 	
+	private static World createTestWorld(){
+		World world = new World(50,10,5,500,500,8,1);
+		world.getTileAtTilePos(0,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(1,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(2,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(3,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(4,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(5,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(6,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(7,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(8,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(9,0).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(0,1).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(0,2).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(9,1).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(9,2).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(1,1).setGeoFeature(Terrain.MAGMA);
+		return world;
+	}
+
 	private static Sprite[] sprites;
 	private Mazub mazubPos_225_50;
 	private World testWorld;
@@ -85,4 +94,306 @@ public class WorldTest {
 		}
 		assertTrue(testWorld.isGameOver());
 	}
+	
+	///////////////////////////////////////////////////////////////////////////
+	
+	@Test
+	public void getImpassableTilesInCorrect(){
+		// tiles (0,0),(1,0),(0,1) are ground, tile (1,1) is magma
+		assertEquals(3,testWorld.getImpassableTilesIn(0, 0, 99, 99).size());
+		assertEquals(0,testWorld.getImpassableTilesIn(100, 50, 449, 249).size());
+		assertEquals(14,testWorld.getImpassableTiles().size());
+	}
+	
+	@Test
+	public void impassableTileIndexFollowsGeoFeature(){
+		assertFalse(testWorld.isImpassableTileAt(4, 2));
+		testWorld.getTileAtTilePos(4, 2).setGeoFeature(Terrain.GROUND);
+		assertTrue(testWorld.isImpassableTileAt(4, 2));
+		testWorld.getTileAtTilePos(4, 2).setGeoFeature(Terrain.WATER);
+		assertFalse(testWorld.isImpassableTileAt(4, 2));
+	}
+	
+	@Test
+	public void getAllAliensFollowsMazub(){
+		testWorld.setMazub(mazubPos_225_50);
+		assertTrue(testWorld.getAllAliens().contains(mazubPos_225_50));
+		assertTrue(testWorld.getAllCharacters().contains(mazubPos_225_50));
+		Mazub other = new Mazub(new Position(100,50),1,3,sprites);
+		testWorld.setMazub(other);
+		assertFalse(testWorld.getAllAliens().contains(mazubPos_225_50));
+		assertTrue(testWorld.getAllAliens().contains(other));
+		assertEquals(1,testWorld.getAllCharacters().size());
+		assertTrue(testWorld.getAllPlants().isEmpty());
+	}
+	
+	@Test
+	public void getGameObjectsInCorrect(){
+		testWorld.setMazub(mazubPos_225_50);
+		assertTrue(testWorld.getGameObjectsIn(230, 55, 240, 65).contains(mazubPos_225_50));
+		assertTrue(testWorld.getGameObjectsIn(200, 40, 225, 50).contains(mazubPos_225_50));
+		assertFalse(testWorld.getGameObjectsIn(235, 50, 300, 100).contains(mazubPos_225_50));
+		assertFalse(testWorld.getGameObjectsIn(0, 0, 224, 49).contains(mazubPos_225_50));
+	}
+	
+	@Test
+	public void getGameObjectsInAfterMovement(){
+		testWorld.setMazub(mazubPos_225_50);
+		mazubPos_225_50.startMove(Direction.RIGHT);
+		for (int i = 0; i < 10; i++) {
+			mazubPos_225_50.advanceTime(0.2 / 9);
+		}
+		int xPos = mazubPos_225_50.getPosition().getDisplayedXPosition();
+		assertTrue(xPos > 225);
+		assertTrue(testWorld.getGameObjectsIn(xPos+9, 50, xPos+9, 50).contains(mazubPos_225_50));
+		assertFalse(testWorld.getGameObjectsIn(225, 50, xPos-1, 50).contains(mazubPos_225_50));
+	}
+	
+	@Test
+	public void continuousCollisionSameAsStepped(){
+		World continuousWorld = createTestWorld();
+		continuousWorld.setCollisionMode(CollisionMode.VALIDATED);
+		Mazub steppedMazub = new Mazub(new Position(225,49),1,3,sprites);
+		Mazub continuousMazub = new Mazub(new Position(225,49),1,3,sprites);
+		testWorld.setMazub(steppedMazub);
+		continuousWorld.setMazub(continuousMazub);
+		for (Mazub mazub: new Mazub[]{steppedMazub, continuousMazub}){
+			mazub.startJump();
+			mazub.startMove(Direction.RIGHT);
+		}
+		for (int i = 0; i < 40; i++) {
+			steppedMazub.advanceTime(0.2 / 9);
+			continuousMazub.advanceTime(0.2 / 9);
+			assertEquals(steppedMazub.getPosition().getXPosition(), 
+					continuousMazub.getPosition().getXPosition(), 1E-6);
+			assertEquals(steppedMazub.getPosition().getYPosition(), 
+					continuousMazub.getPosition().getYPosition(), 1E-6);
+		}
+		assertTrue(continuousWorld.getNbValidatedMoves() > 0);
+		assertEquals(0, continuousWorld.getNbMismatchedMoves());
+	}
+	
+	@Test
+	public void fixedTimeStepIndependentOfFrameSize(){
+		World otherWorld = createTestWorld();
+		Mazub otherMazub = new Mazub(new Position(225,49),1,3,sprites);
+		Mazub mazub = new Mazub(new Position(225,49),1,3,sprites);
+		testWorld.setMazub(mazub);
+		otherWorld.setMazub(otherMazub);
+		testWorld.setFixedTimeStep(1.0 / 64, 10);
+		otherWorld.setFixedTimeStep(1.0 / 64, 10);
+		mazub.startMove(Direction.RIGHT);
+		otherMazub.startMove(Direction.RIGHT);
+		for (int i = 0; i < 19; i++)
+			testWorld.advanceTime(1.0 / 32);
+		testWorld.advanceTime(1.0 / 64);
+		double previousXPosition = mazub.getPosition().getXPosition();
+		testWorld.advanceTime(1.0 / 64);
+		for (int i = 0; i < 80; i++)
+			otherWorld.advanceTime(1.0 / 128);
+		assertEquals(mazub.getPosition().getXPosition(), 
+				otherMazub.getPosition().getXPosition(), 0);
+		assertEquals(0, otherWorld.getInterpolationFactor(), 0);
+		otherWorld.advanceTime(1.0 / 128);
+		assertEquals(0.5, otherWorld.getInterpolationFactor(), 1E-9);
+		assertEquals((previousXPosition + mazub.getPosition().getXPosition()) / 2, 
+				otherMazub.getInterpolatedPosition()[0], 1E-9);
+	}
+	
+	@Test
+	public void fixedTimeStepInterpolatesVisibleWindow(){
+		World world = new World(50,40,5,500,250,39,1);
+		for (int col = 0; col < 40; col++)
+			world.getTileAtTilePos(col,0).setGeoFeature(Terrain.GROUND);
+		Mazub mazub = new Mazub(new Position(600,49),1,3,sprites);
+		world.setMazub(mazub);
+		world.setFixedTimeStep(1.0 / 64, 10);
+		mazub.startMove(Direction.RIGHT);
+		for (int i = 0; i < 40; i++)
+			world.advanceTime(1.0 / 64);
+		world.advanceTime(1.0 / 128);
+		assertEquals(0.5, world.getInterpolationFactor(), 1E-9);
+		assertTrue(world.getDisplayedWindowXPos() < world.getWindowXPos());
+		int offset = mazub.getDisplayedPosition()[0] - world.getDisplayedWindowXPos();
+		assertEquals((500 - mazub.getWidth()) / 2, offset, 1);
+	}
+	
+	@Test
+	public void isImpassableTileAtOutsideWorld(){
+		// tiles (0,0) and (9,1) are ground, tile (1,1) is magma
+		assertTrue(testWorld.isImpassableTileAt(0, 0));
+		assertTrue(testWorld.isImpassableTileAt(9, 1));
+		assertFalse(testWorld.isImpassableTileAt(1, 1));
+		assertFalse(testWorld.isImpassableTileAt(-1, -1));
+		assertFalse(testWorld.isImpassableTileAt(-3, 0));
+		assertFalse(testWorld.isImpassableTileAt(10, 1));
+		assertFalse(testWorld.isImpassableTileAt(0, 5));
+	}
+	
+	@Test
+	public void fixedTimeStepLimitsCatchUp(){
+		testWorld.setMazub(mazubPos_225_50);
+		testWorld.setFixedTimeStep(1.0 / 64, 2);
+		testWorld.advanceTime(0.1);
+		assertEquals(4.0 / 64, testWorld.getDroppedTime(), 1E-9);
+		assertEquals(0.4, testWorld.getInterpolationFactor(), 1E-9);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fixedTimeStepIllegalTickDuration(){
+		testWorld.setFixedTimeStep(0.5, 2);
+	}
+	
+	@Test
+	public void simulationTiersFollowDistanceToWindow(){
+		World world = new World(50,40,15,500,500,39,1);
+		Plant nearPlant = new Plant(new Position(550,100), sprites);
+		Plant reducedPlant = new Plant(new Position(800,100), sprites);
+		Plant frozenPlant = new Plant(new Position(1800,100), sprites);
+		world.addAsGameObject(nearPlant);
+		world.addAsGameObject(reducedPlant);
+		world.addAsGameObject(frozenPlant);
+		world.setSimulationDistances(100, 1000, 0.1);
+		world.advanceTime(0.05);
+		assertEquals(1, world.getNbGameObjectsInTier(SimulationTier.FULL));
+		assertEquals(1, world.getNbGameObjectsInTier(SimulationTier.REDUCED));
+		assertEquals(1, world.getNbGameObjectsInTier(SimulationTier.FROZEN));
+		assertNotEquals(550, nearPlant.getPosition().getXPosition(), 1E-9);
+		assertEquals(800, reducedPlant.getPosition().getXPosition(), 1E-9);
+		world.advanceTime(0.05);
+		assertNotEquals(800, reducedPlant.getPosition().getXPosition(), 1E-9);
+		assertEquals(1800, frozenPlant.getPosition().getXPosition(), 1E-9);
+		assertEquals(2, world.getNbTicksInTier(SimulationTier.FROZEN));
+	}
+	
+	@Test
+	public void blockedPlantSleepsUntilTouched(){
+		// a plant in a pocket of one tile between two ground tiles
+		World world = new World(10,50,50,500,500,49,1);
+		for (int col = 0; col < 5; col++)
+			world.getTileAtTilePos(col,1).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(1,2).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(3,2).setGeoFeature(Terrain.GROUND);
+		Plant plant = new Plant(new Position(20,20), spriteArrayForSize(10, 10, 2));
+		world.addAsGameObject(plant);
+		world.advanceTime(0.01);
+		world.advanceTime(0.01);
+		assertTrue(plant.isAsleep());
+		assertEquals(1, world.getNbSleepingGameObjects());
+		double xPosition = plant.getPosition().getXPosition();
+		long nbSleepingTicks = world.getNbSleepingTicks();
+		for (int i = 0; i < 20; i++)
+			world.advanceTime(0.01);
+		assertTrue(plant.isAsleep());
+		assertEquals(xPosition, plant.getPosition().getXPosition(), 0);
+		assertEquals(nbSleepingTicks + 20, world.getNbSleepingTicks());
+		Plant otherPlant = new Plant(new Position(20,30), spriteArrayForSize(10, 10, 2));
+		world.addAsGameObject(otherPlant);
+		world.advanceTime(0.01);
+		assertFalse(plant.isAsleep());
+		assertEquals(0, world.getNbSleepingGameObjects());
+	}
+	
+	@Test
+	public void plantInFreedSlotOfFallingSharkSleeps(){
+		World world = new World(10,50,50,500,500,49,1);
+		for (int col = 0; col < 5; col++)
+			world.getTileAtTilePos(col,1).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(1,2).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(3,2).setGeoFeature(Terrain.GROUND);
+		Shark shark = new Shark(new Position(200,300), spriteArrayForSize(10, 10, 2));
+		world.addAsGameObject(shark);
+		world.advanceTime(0.05);
+		assertNotEquals(0, shark.getVertVelocity(), 0);
+		world.removeAsGameObject(shark);
+		Plant plant = new Plant(new Position(20,20), spriteArrayForSize(10, 10, 2));
+		world.addAsGameObject(plant);
+		world.advanceTime(0.01);
+		world.advanceTime(0.01);
+		assertTrue(plant.isAsleep());
+	}
+	
+	@Test
+	public void removedSharkKeepsItsKinematicState(){
+		World world = new World(10,50,50,500,500,49,1);
+		Shark shark = new Shark(new Position(100,300), spriteArrayForSize(10, 10, 2));
+		Shark otherShark = new Shark(new Position(300,300), spriteArrayForSize(10, 10, 2));
+		world.addAsGameObject(shark);
+		world.addAsGameObject(otherShark);
+		world.advanceTime(0.05);
+		double vertVelocity = shark.getVertVelocity();
+		Position position = shark.getPosition();
+		double otherVertVelocity = otherShark.getVertVelocity();
+		Position otherPosition = otherShark.getPosition();
+		assertNotEquals(0, vertVelocity, 0);
+		world.removeAsGameObject(shark);
+		assertEquals(vertVelocity, shark.getVertVelocity(), 0);
+		assertEquals(position.getXPosition(), shark.getPosition().getXPosition(), 0);
+		assertEquals(position.getYPosition(), shark.getPosition().getYPosition(), 0);
+		assertEquals(otherVertVelocity, otherShark.getVertVelocity(), 0);
+		assertEquals(otherPosition, otherShark.getPosition());
+	}
+	
+	@Test
+	public void terminateForgetsSleepingGameObjects(){
+		World world = createTestWorld();
+		world.getTileAtTilePos(7,1).setGeoFeature(Terrain.GROUND);
+		world.getTileAtTilePos(7,2).setGeoFeature(Terrain.GROUND);
+		Plant plant = new Plant(new Position(400,50), spriteArrayForSize(50, 50, 2));
+		world.addAsGameObject(plant);
+		world.setMazub(mazubPos_225_50);
+		world.setGameStarted(true);
+		world.advanceTime(0.01);
+		world.advanceTime(0.01);
+		assertTrue(plant.isAsleep());
+		assertEquals(1, world.getNbSleepingGameObjects());
+		mazubPos_225_50.startMove(Direction.LEFT);
+		for (int i = 0; i < 200 && !world.isGameOver(); i++)
+			world.advanceTime(0.2 / 9);
+		assertTrue(world.isGameOver());
+		world.advanceTime(0.01);
+		assertEquals(0, world.getNbSleepingGameObjects());
+	}
+	
+	@Test
+	public void sameSeedSameRandomDecisions(){
+		World world = new World(50,40,15,500,500,39,1);
+		World otherWorld = new World(50,40,15,500,500,39,1);
+		world.setSeed(42);
+		otherWorld.setSeed(42);
+		Plant[] plants = new Plant[8];
+		Plant[] otherPlants = new Plant[8];
+		for (int i = 0; i < plants.length; i++){
+			plants[i] = new Plant(new Position(100+200*i,100), sprites);
+			otherPlants[i] = new Plant(new Position(100+200*i,100), sprites);
+			world.addAsGameObject(plants[i]);
+			otherWorld.addAsGameObject(otherPlants[i]);
+		}
+		world.advanceTime(0.1);
+		otherWorld.advanceTime(0.1);
+		for (int i = 0; i < plants.length; i++){
+			assertEquals(plants[i].getPosition().getXPosition(), 
+					otherPlants[i].getPosition().getXPosition(), 0);
+			assertEquals(plants[i].getRandom().nextDouble(), 
+					otherPlants[i].getRandom().nextDouble(), 0);
+		}
+		assertEquals(42, world.getSeed());
+	}
+	
+	@Test
+	public void getGameObjectsInAfterRemoval(){
+		Plant firstPlant = new Plant(new Position(100,100), sprites);
+		Plant secondPlant = new Plant(new Position(200,100), sprites);
+		Plant thirdPlant = new Plant(new Position(300,100), sprites);
+		testWorld.addAsGameObject(firstPlant);
+		testWorld.addAsGameObject(secondPlant);
+		testWorld.addAsGameObject(thirdPlant);
+		testWorld.removeAsGameObject(firstPlant);
+		assertTrue(testWorld.getGameObjectsIn(95, 95, 115, 115).isEmpty());
+		assertTrue(testWorld.getGameObjectsIn(295, 95, 315, 115).contains(thirdPlant));
+		testWorld.advanceTime(0.1);
+		int xPos = thirdPlant.getPosition().getDisplayedXPosition();
+		assertTrue(testWorld.getGameObjectsIn(xPos, 100, xPos, 100).contains(thirdPlant));
+		assertFalse(testWorld.getGameObjectsIn(xPos, 100, xPos, 100).contains(secondPlant));
+	}
 }
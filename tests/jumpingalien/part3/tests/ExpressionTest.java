@@ -54,9 +54,9 @@ public class ExpressionTest {
 		printStatement = new Print(theMazubVariable, loc);
 		main = new While(new Constant<Boolean>(loc, true),printStatement,loc);
 		theProgram = new Program(main, allVariables);
-		theProgram.getGlobalVariables().put(theSlimeVariable.getName(), theSlimeVariable);
-		theProgram.getGlobalVariables().put(theMazubVariable.getName(), theMazubVariable);
-		theProgram.getGlobalVariables().put(theTileVariable.getName(), theTileVariable);
+		theProgram.getGlobalVariables().get(theSlimeVariable.getName()).setValue(theSlimeVariable.getValue());
+		theProgram.getGlobalVariables().get(theMazubVariable.getName()).setValue(theMazubVariable.getValue());
+		theProgram.getGlobalVariables().get(theTileVariable.getName()).setValue(theTileVariable.getValue());
 		theBuzam = new Buzam(new Position(8,6),spriteArrayForSize(4, 4),theProgram);
 		testWorld.addAsGameObject(theBuzam);
 		
@@ -397,6 +397,17 @@ public class ExpressionTest {
 		assertFalse( isNotWater.outcome());
 	}
 	
+	@Test
+	public void executeIsTerrainOfTypeGameObject(){
+		IsTerrainOfType isWater = new IsTerrainOfType(loc, theSlimeVariable, Terrain.WATER);
+		IsTerrainOfType isMagma = new IsTerrainOfType(loc, theSlimeVariable, Terrain.MAGMA);
+		assertTrue(isWater.outcome());
+		assertFalse(isMagma.outcome());
+		theTile.setGeoFeature(Terrain.MAGMA);
+		assertFalse(isWater.outcome());
+		assertTrue(isMagma.outcome());
+	}
+	
 	@Test
 	public void isMovingCorrect(){
 		Expression t = new IsMoving(loc, theMazubVariable, 
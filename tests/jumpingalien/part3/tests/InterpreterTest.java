@@ -0,0 +1,122 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.*;
+import static jumpingalien.tests.util.TestUtils.*;
+
+import jumpingalien.model.game.Mazub;
+import jumpingalien.model.game.Plant;
+import jumpingalien.model.game.Position;
+import jumpingalien.model.game.Shark;
+import jumpingalien.model.game.World;
+import jumpingalien.model.program.programs.Program;
+import jumpingalien.model.program.statements.Statement;
+import jumpingalien.model.program.statements.StatementIterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class InterpreterTest {
+
+	private static final String PROGRAM =
+			"double x := 0; double y; bool b; object o; "
+			+"while true do "
+			+	"x := x + 1; "
+			+	"b := (x / 2 > 2) && !(x > 30); "
+			+	"if (b || x >= 20) then y := y + x; else y := y - 1; fi "
+			+	"foreach (plant, o) sort getx o descending do "
+			+		"if (y < 1000) then y := y + getx o; fi "
+			+	"done "
+			+	"while (x < 100) do "
+			+		"x := x * 2; "
+			+		"if (x > 50) then break; fi "
+			+	"done "
+			+	"wait 0.003; "
+			+"done";
+
+	@Before
+	public void setUp() throws Exception {
+		world = new World(50,10,5,500,500,8,1);
+		world.setMazub(new Mazub(new Position(0,0),1,3,spriteArrayForSize(10, 10)));
+		world.addAsGameObject(new Plant(new Position(100,100), spriteArrayForSize(10, 10)));
+		world.addAsGameObject(new Plant(new Position(200,100), spriteArrayForSize(10, 10)));
+		world.addAsGameObject(new Plant(new Position(300,100), spriteArrayForSize(10, 10)));
+	}
+
+	private World world;
+
+	private Program createProgram(String text){
+		Program program = parseProgram(text);
+		Shark shark = new Shark(new Position(400,250), spriteArrayForSize(10, 10), program);
+		world.addAsGameObject(shark);
+		return program;
+	}
+
+	private static Statement nextStatement(StatementIterator<Statement> iterator){
+		Statement next = null;
+		while(next == null)
+			next = iterator.next();
+		return next;
+	}
+
+	@Test
+	public void sameStatementsAsStatementIterators(){
+		Program walked = createProgram(PROGRAM);
+		Program compiled = createProgram(PROGRAM);
+		StatementIterator<Statement> treeIterator = walked.getMainStatement().iterator();
+		StatementIterator<Statement> programIterator = compiled.getProgramIterator();
+		for(int step = 0; step < 500; step++){
+			assertEquals(nextStatement(treeIterator).getSourceLocation(),
+					nextStatement(programIterator).getSourceLocation());
+			for(String name: walked.getGlobalVariables().keySet()){
+				assertEquals(walked.getGlobalVariables().get(name).getValue(),
+						compiled.getGlobalVariables().get(name).getValue());
+			}
+		}
+	}
+
+	@Test
+	public void executeRestartsAtEnd(){
+		Program program = createProgram("double x := 1; double n; x := x * 2; n := n + x;");
+		program.execute(0.009);
+		assertEquals(2.0, (Double) program.getGlobalVariables().get("x").getValue(), 0.001);
+		assertEquals(2.0, (Double) program.getGlobalVariables().get("n").getValue(), 0.001);
+	}
+
+	@Test
+	public void breakLeavesInnermostLoop(){
+		Program program = createProgram(
+				"double x; double y; "
+				+"while (x < 3) do "
+				+	"x := x + 1; "
+				+	"while true do y := y + 1; break; done "
+				+"done "
+				+"wait 1;");
+		program.execute(0.1);
+		assertEquals(3.0, (Double) program.getGlobalVariables().get("x").getValue(), 0.001);
+		assertEquals(3.0, (Double) program.getGlobalVariables().get("y").getValue(), 0.001);
+	}
+	
+	@Test
+	public void executeSkipsWaitLikeStatementIterators(){
+		String text = "double n; while true do n := n + 1; wait 0.0047; wait 0.25; done";
+		Program executed = createProgram(text);
+		Program walked = createProgram(text);
+		StatementIterator<Statement> treeIterator = walked.getMainStatement().iterator();
+		for(int tick = 0; tick < 200; tick++){
+			double dt = (tick % 2 == 0) ? 0.01 : 0.0137;
+			executed.execute(dt);
+			double td = dt;
+			while(td > 0){
+				if(treeIterator.hasNext()){
+					if(treeIterator.next() != null)
+						td -= 0.001;
+				}
+				else
+					treeIterator.restart();
+			}
+			assertEquals(walked.getGlobalVariables().get("n").getValue(),
+					executed.getGlobalVariables().get("n").getValue());
+		}
+		assertEquals(10.0, (Double) executed.getGlobalVariables().get("n").getValue(), 0.001);
+	}
+}
@@ -9,13 +9,17 @@ import jumpingalien.model.game.Mazub;
 import jumpingalien.model.game.Position;
 import jumpingalien.model.game.Shark;
 import jumpingalien.model.game.World;
+import jumpingalien.model.program.ProgramFactory;
 import jumpingalien.model.program.expressions.Constant;
+import jumpingalien.model.program.expressions.Expression;
 import jumpingalien.model.program.programs.Program;
 import jumpingalien.model.program.statements.IfStatement;
 import jumpingalien.model.program.statements.Print;
 import jumpingalien.model.program.statements.SequenceStatement;
 import jumpingalien.model.program.statements.Statement;
 import jumpingalien.model.program.types.Type;
+import jumpingalien.part3.programs.ProgramParser;
+import jumpingalien.part3.programs.ProgramTemplate;
 import jumpingalien.part3.programs.SourceLocation;
 
 import org.junit.Before;
@@ -277,4 +281,32 @@ public class ProgramTest {
 		assertTrue(theProgram.getGlobalVariables().containsKey("h"));
 		assertTrue(theProgram.getGlobalVariables().containsKey("o"));
 	}	
+	
+	@Test
+	public void instantiateTemplateCreatesIndependentPrograms(){
+		ProgramParser<Expression, Statement, Type, Program> parser = 
+				new ProgramParser<>(new ProgramFactory());
+		ProgramTemplate template = parser.parseTemplate(
+				"double x; x := x + 1;").get();
+		Program first = parser.instantiate(template).get();
+		Program second = parser.instantiate(template).get();
+		assertNotSame(first, second);
+		assertNotSame(first.getMainStatement(), second.getMainStatement());
+		
+		World testWorld = new World(50,10,5,500,500,8,1);
+		testWorld.setMazub(new Mazub(new Position(0,0),1,3,spriteArrayForSize(10, 10)));
+		testWorld.addAsGameObject(new Shark(new Position(100,250), spriteArrayForSize(10, 10), first));
+		testWorld.addAsGameObject(new Shark(new Position(200,250), spriteArrayForSize(10, 10), second));
+		first.execute(0.001);
+		assertEquals(1.0, (Double) first.getGlobalVariables().get("x").getValue(), 0.001);
+		assertEquals(0.0, (Double) second.getGlobalVariables().get("x").getValue(), 0.001);
+	}
+	
+	@Test
+	public void parseTemplateSyntaxError(){
+		ProgramParser<Expression, Statement, Type, Program> parser = 
+				new ProgramParser<>(new ProgramFactory());
+		assertFalse(parser.parseTemplate("double x; x := ;").isPresent());
+		assertFalse(parser.getErrors().isEmpty());
+	}
 }
@@ -1,6 +1,6 @@
 package jumpingalien.part3.tests.statementTests;
 
-import jumpingalien.model.exceptions.BreakException;
+import static org.junit.Assert.*;
 import jumpingalien.model.program.statements.Break;
 import jumpingalien.model.program.statements.SingleStatement;
 import jumpingalien.part3.programs.SourceLocation;
@@ -24,9 +24,10 @@ public class BreakTest {
 	private static SourceLocation loc;
 	private SingleStatement theBreak;
 
-	@Test(expected = BreakException.class)
+	@Test
 	public void executeCorrect(){
 		theBreak.executeSingleStatement();
+		assertEquals(theBreak, theBreak.iterator().next());
 	}
 
 }
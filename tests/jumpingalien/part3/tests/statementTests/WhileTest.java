@@ -83,4 +83,18 @@ public class WhileTest {
 		assertEquals(ifStat, iter.next());
 		assertTrue(iter.hasNext());
 	}
+	
+	@Test
+	public void iteratorEndsAtBreak(){
+		Statement breakStat = new Break(loc);
+		Statement whileStat = new While(trueConst, 
+				new SequenceStatement(loc, skip, new IfStatement(trueConst, breakStat, null, loc), 
+						ifBody), loc);
+		StatementIterator<Statement> iter = whileStat.iterator();
+		assertEquals(whileStat, iter.next());
+		assertEquals(skip, iter.next());
+		assertNotNull(iter.next());
+		assertEquals(null, iter.next());
+		assertFalse(iter.hasNext());
+	}
 }